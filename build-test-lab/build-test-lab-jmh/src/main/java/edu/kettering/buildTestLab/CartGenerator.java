@@ -0,0 +1,29 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded cart generator shared by the benchmarks, so every run and every fork prices the same carts.
+ */
+final class CartGenerator {
+
+    /**
+     * How the cart's List is built: List.of (immutable, compact) or ArrayList.
+     */
+    enum ListKind { LIST_OF, ARRAY_LIST }
+
+    private CartGenerator() {
+    }
+
+    static List<OrderPricing.LineItem> cart(long seed, int lines, ListKind kind) {
+        Random random = new Random(seed);
+        List<OrderPricing.LineItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderPricing.LineItem("SKU-" + random.nextInt(10_000), 1 + random.nextInt(5),
+                    random.nextInt(5000)));
+        }
+        return kind == ListKind.LIST_OF ? List.copyOf(items) : items;
+    }
+}
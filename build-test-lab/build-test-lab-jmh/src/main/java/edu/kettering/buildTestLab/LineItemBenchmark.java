@@ -0,0 +1,66 @@
+package edu.kettering.buildTestLab;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of building a LineItem, on the valid path and on each validation failure.
+ * Fields are non-final so the JIT cannot fold the constructor arguments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LineItemBenchmark {
+
+    String sku = "SKU-1234";
+    String blankSku = "  ";
+    int quantity = 3;
+    int badQuantity = 0;
+    int price = 1999;
+    int badPrice = -1;
+
+    @Benchmark
+    public OrderPricing.LineItem constructValid() {
+        return new OrderPricing.LineItem(sku, quantity, price);
+    }
+
+    @Benchmark
+    public int lineTotalCents() {
+        return new OrderPricing.LineItem(sku, quantity, price).lineTotalCents();
+    }
+
+    @Benchmark
+    public Object rejectBlankSku() {
+        return construct(blankSku, quantity, price);
+    }
+
+    @Benchmark
+    public Object rejectBadQty() {
+        return construct(sku, badQuantity, price);
+    }
+
+    @Benchmark
+    public Object rejectBadPrice() {
+        return construct(sku, quantity, badPrice);
+    }
+
+    private static Object construct(String sku, int quantity, int price) {
+        try {
+            return new OrderPricing.LineItem(sku, quantity, price);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package edu.kettering.buildTestLab;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * totalCents and its building blocks over seeded carts of 1 to 10,000 lines.
+ *
+ * threePassBaseline is the original implementation; compare any fast path against it. Run with -prof gc to get
+ * allocation per operation (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class OrderPricingBenchmark {
+
+    @Param({"1", "10", "100", "10000"})
+    int lines;
+
+    @Param({"LIST_OF", "ARRAY_LIST"})
+    String listKind;
+
+    private final OrderPricing pricing = new OrderPricing();
+    private List<OrderPricing.LineItem> cart;
+    private int subtotal;
+    private int quantity;
+
+    @Setup
+    public void setUp() {
+        cart = CartGenerator.cart(42L, lines, CartGenerator.ListKind.valueOf(listKind));
+        subtotal = ThreePassPricing.subtotalCents(cart);
+        quantity = ThreePassPricing.totalQuantity(cart);
+    }
+
+    // -------------------- Whole cart --------------------
+
+    @Benchmark
+    public int totalCents() {
+        return pricing.totalCents(cart);
+    }
+
+    @Benchmark
+    public int threePassBaseline() {
+        return ThreePassPricing.totalCents(cart);
+    }
+
+    // -------------------- Helpers --------------------
+
+    @Benchmark
+    public void validateItemsList() {
+        ThreePassPricing.validateItemsList(cart);
+    }
+
+    @Benchmark
+    public int subtotalCents() {
+        return ThreePassPricing.subtotalCents(cart);
+    }
+
+    @Benchmark
+    public int totalQuantity() {
+        return ThreePassPricing.totalQuantity(cart);
+    }
+
+    @Benchmark
+    public void fusedSum(Blackhole bh) {
+        PricingKernel.Totals totals = PricingKernel.sum(cart);
+        bh.consume(totals.subtotalCents());
+        bh.consume(totals.quantity());
+    }
+
+    @Benchmark
+    public void cartLevelRules(Blackhole bh) {
+        bh.consume(PricingPlan.DEFAULT.priceFromTotals(subtotal, quantity));
+        bh.consume(ThreePassPricing.clampNonNegative(
+                subtotal + ThreePassPricing.shippingCents(subtotal) - ThreePassPricing.bulkBonusCents(quantity)));
+    }
+}
@@ -0,0 +1,70 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One pricing request end to end, from decoded request fields to a total: building LineItems and a List per
+ * request versus appending into a reused PricingBuffer. Compare gc.alloc.rate.norm with -prof gc.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PricingBufferBenchmark {
+
+    @Param({"1", "10", "100"})
+    int lines;
+
+    private final OrderPricing pricing = new OrderPricing();
+    private String[] skus;
+    private int[] skuIds;
+    private int[] quantities;
+    private int[] prices;
+    private PricingBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        List<OrderPricing.LineItem> cart = CartGenerator.cart(42L, lines, CartGenerator.ListKind.ARRAY_LIST);
+        skus = new String[lines];
+        skuIds = new int[lines];
+        quantities = new int[lines];
+        prices = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            skus[i] = cart.get(i).sku();
+            skuIds[i] = i;
+            quantities[i] = cart.get(i).quantity();
+            prices[i] = cart.get(i).unitPriceCents();
+        }
+        buffer = new PricingBuffer(pricing, 16);
+    }
+
+    @Benchmark
+    public int lineItemList() {
+        List<OrderPricing.LineItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) items.add(new OrderPricing.LineItem(skus[i], quantities[i], prices[i]));
+        return pricing.totalCents(items);
+    }
+
+    @Benchmark
+    public int reusedBuffer() {
+        buffer.clear();
+        for (int i = 0; i < lines; i++) buffer.append(skuIds[i], quantities[i], prices[i]);
+        return buffer.totalCents();
+    }
+}
@@ -0,0 +1,97 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pricing a 10-line cart as the number of live promotions grows: the indexed PromotionEngine against checking
+ * every promotion against every line (scanAllBaseline). Promotions are spread over the same 10,000 SKUs the carts
+ * draw from: 60% SkuCentsOff, 20% BuyNGetM, 20% BasketThreshold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PromotionBenchmark {
+
+    @Param({"0", "10", "1000", "100000"})
+    int promotions;
+
+    @Param({"10"})
+    int lines;
+
+    private final OrderPricing pricing = new OrderPricing();
+    private List<OrderPricing.LineItem> cart;
+    private PromotionEngine engine;
+    private List<Promotion> ordered;
+
+    @Setup
+    public void setUp() {
+        cart = CartGenerator.cart(42L, lines, CartGenerator.ListKind.ARRAY_LIST);
+        Random random = new Random(7);
+        List<Promotion> all = new ArrayList<>(promotions);
+        for (int i = 0; i < promotions; i++) {
+            String id = "promo-" + i;
+            int priority = random.nextInt(10);
+            String sku = "SKU-" + random.nextInt(10_000);
+            int kind = random.nextInt(10);
+            if (kind < 6) all.add(new Promotion.SkuCentsOff(id, priority, sku, 1 + random.nextInt(200)));
+            else if (kind < 8) all.add(new Promotion.BuyNGetM(id, priority, sku, 1 + random.nextInt(3), 1));
+            else all.add(new Promotion.BasketThreshold(id, priority, random.nextInt(50_000), random.nextInt(1_000)));
+        }
+        engine = PromotionEngine.compile(all);
+        ordered = engine.promotions();
+        if (engine.totalCents(pricing, cart) != scanAllBaseline()) throw new IllegalStateException("results differ");
+    }
+
+    @Benchmark
+    public int indexed() {
+        return engine.totalCents(pricing, cart);
+    }
+
+    @Benchmark
+    public int scanAllBaseline() {
+        PricingPlan plan = pricing.plan();
+        long lineSum = 0;
+        long qty = 0;
+        for (OrderPricing.LineItem it : cart) {
+            int unit = plan.unitPriceCents(it);
+            int charged = it.quantity();
+            boolean buyNGetMApplied = false;
+            for (Promotion p : ordered) {
+                if (p instanceof Promotion.SkuCentsOff c && c.sku().equals(it.sku())) {
+                    unit = Math.max(0, unit - c.centsOffPerUnit());
+                } else if (p instanceof Promotion.BuyNGetM b && !buyNGetMApplied && b.sku().equals(it.sku())) {
+                    charged -= (it.quantity() / (b.buy() + b.free())) * b.free();
+                    buyNGetMApplied = true;
+                }
+            }
+            lineSum += (long) charged * unit;
+            qty += it.quantity();
+        }
+        int subtotal = Math.toIntExact(lineSum);
+        for (Promotion p : ordered) {
+            if (p instanceof Promotion.BasketThreshold t && subtotal >= t.minSubtotalCents()) {
+                subtotal = Math.max(0, subtotal - t.centsOff());
+                break;
+            }
+        }
+        return plan.priceFromTotals(subtotal, Math.toIntExact(qty));
+    }
+}
@@ -0,0 +1,56 @@
+package edu.kettering.buildTestLab;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The original OrderPricing.totalCents (validate, subtotal and quantity as three separate passes over the list),
+ * kept here as the baseline for new fast paths.
+ */
+final class ThreePassPricing {
+
+    private ThreePassPricing() {
+    }
+
+    static int totalCents(List<OrderPricing.LineItem> items) {
+        validateItemsList(items);
+        if (items.isEmpty()) return 0;
+
+        int subtotal = subtotalCents(items);
+        int shipping = shippingCents(subtotal);
+        int bulkBonus = bulkBonusCents(totalQuantity(items));
+
+        return clampNonNegative(subtotal + shipping - bulkBonus);
+    }
+
+    static void validateItemsList(List<OrderPricing.LineItem> items) {
+        if (items == null) throw new IllegalArgumentException("items is null");
+        for (OrderPricing.LineItem it : items) {
+            Objects.requireNonNull(it, "null item");
+        }
+    }
+
+    static int subtotalCents(List<OrderPricing.LineItem> items) {
+        int subtotal = 0;
+        for (OrderPricing.LineItem it : items) subtotal += it.lineTotalCents();
+        return subtotal;
+    }
+
+    static int totalQuantity(List<OrderPricing.LineItem> items) {
+        int qty = 0;
+        for (OrderPricing.LineItem it : items) qty += it.quantity();
+        return qty;
+    }
+
+    static int shippingCents(int subtotalCents) {
+        return (subtotalCents >= OrderPricing.FREE_SHIPPING_THRESHOLD_CENTS) ? 0 : OrderPricing.SHIPPING_CENTS;
+    }
+
+    static int bulkBonusCents(int totalQty) {
+        return (totalQty >= OrderPricing.BULK_QTY_THRESHOLD) ? OrderPricing.BULK_BONUS_CENTS : 0;
+    }
+
+    static int clampNonNegative(int cents) {
+        return Math.max(0, cents);
+    }
+}
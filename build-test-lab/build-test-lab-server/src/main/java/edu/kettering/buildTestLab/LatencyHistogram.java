@@ -0,0 +1,69 @@
+package edu.kettering.buildTestLab;
+
+/**
+ * Fixed-size log-linear histogram of non-negative values (nanoseconds here) with about 1.5% relative precision.
+ *
+ * Values below 128 get their own bucket; above that, every power of two is split into 64 buckets. The whole range
+ * of long fits in under 4,000 counters, so recording never allocates. Percentiles report the upper bound of the
+ * bucket they fall in. Not thread-safe: keep one per thread and merge().
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR = 2 * SUB_BUCKETS;
+
+    private final long[] counts = new long[LINEAR + (63 - SUB_BITS) * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[indexOf(value)]++;
+        total++;
+        if (value > max) max = value;
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Smallest bucket upper bound that at least fraction (0 to 1) of the recorded values do not exceed;
+     * 0 when empty.
+     */
+    public long percentile(double fraction) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;   // >= 1
+        int mantissa = (int) (value >>> shift);                          // in [SUB_BUCKETS, 2 * SUB_BUCKETS)
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR) return index;
+        int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+        long mantissa = SUB_BUCKETS + (index - LINEAR) % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,200 @@
+package edu.kettering.buildTestLab;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator for PricingServer.
+ *
+ * Opens a number of connections, each on its own virtual thread, and keeps a fixed number of requests outstanding
+ * on every connection: a new request is sent only when a response comes back. Latency is measured from sending a
+ * request to reading its response, so with pipelining it includes time queued behind earlier requests on the same
+ * connection. Carts are generated from a seed, so runs are repeatable.
+ *
+ * Usage: java -cp ... edu.kettering.buildTestLab.LoadGenerator [local | tcp:PORT | tcp:HOST:PORT | unix:PATH]
+ *        [connections] [pipelineDepth] [linesPerCart] [seconds]
+ * "local" (the default) starts a server in-process on a free loopback port.
+ */
+public final class LoadGenerator {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int CART_VARIANTS = 256;
+
+    /**
+     * Outcome of a run. Latencies are in nanoseconds; errors counts responses whose status was not OK.
+     */
+    public record Report(long requests, long errors, double seconds, long p50Nanos, long p99Nanos, long p999Nanos,
+                         long maxNanos) {
+
+        public double requestsPerSecond() {
+            return seconds == 0 ? 0 : requests / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d requests in %.1f s: %,.0f req/s, p50 %.1f us, p99 %.1f us, p999 %.1f us, "
+                            + "max %.1f us, %d errors",
+                    requests, seconds, requestsPerSecond(), p50Nanos / 1e3, p99Nanos / 1e3, p999Nanos / 1e3,
+                    maxNanos / 1e3, errors);
+        }
+    }
+
+    private final SocketAddress address;
+    private final int connections;
+    private final int pipelineDepth;
+    private final int linesPerCart;
+    private final long seed;
+
+    public LoadGenerator(SocketAddress address, int connections, int pipelineDepth, int linesPerCart, long seed) {
+        if (address == null) throw new IllegalArgumentException("address is null");
+        if (connections < 1) throw new IllegalArgumentException("connections must be positive");
+        if (pipelineDepth < 1) throw new IllegalArgumentException("pipelineDepth must be positive");
+        if (linesPerCart < 0 || linesPerCart > PricingProtocol.MAX_LINES)
+            throw new IllegalArgumentException("linesPerCart out of range");
+        this.address = address;
+        this.connections = connections;
+        this.pipelineDepth = pipelineDepth;
+        this.linesPerCart = linesPerCart;
+        this.seed = seed;
+    }
+
+    /**
+     * Drives load for the given duration, then waits for every outstanding response before reporting.
+     */
+    public Report run(Duration duration) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+        List<Future<Connection>> running = new ArrayList<>(connections);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                Connection connection = new Connection(seed + c);
+                running.add(executor.submit(() -> connection.drive(deadline)));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        long errors = 0;
+        for (Future<Connection> f : running) {
+            Connection connection;
+            try {
+                connection = f.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) throw io;
+                throw new IllegalStateException(e.getCause());
+            }
+            latencies.merge(connection.latencies);
+            errors += connection.errors;
+        }
+        return new Report(latencies.count(), errors, seconds, latencies.percentile(0.50), latencies.percentile(0.99),
+                latencies.percentile(0.999), latencies.max());
+    }
+
+    // -------------------- One connection --------------------
+
+    private final class Connection {
+
+        final LatencyHistogram latencies = new LatencyHistogram();
+        long errors;
+
+        private final int[][] skuIds = new int[CART_VARIANTS][];
+        private final int[][] quantities = new int[CART_VARIANTS][];
+        private final int[][] prices = new int[CART_VARIANTS][];
+        private final long[] sentAt = new long[pipelineDepth];
+
+        Connection(long seed) {
+            Random random = new Random(seed);
+            for (int v = 0; v < CART_VARIANTS; v++) {
+                skuIds[v] = new int[linesPerCart];
+                quantities[v] = new int[linesPerCart];
+                prices[v] = new int[linesPerCart];
+                for (int l = 0; l < linesPerCart; l++) {
+                    skuIds[v][l] = random.nextInt(10_000);
+                    quantities[v][l] = 1 + random.nextInt(5);
+                    prices[v][l] = 99 + random.nextInt(5_000);
+                }
+            }
+        }
+
+        Connection drive(long deadline) throws IOException {
+            try (SocketChannel channel = SocketChannel.open(address)) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_BYTES));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES));
+
+                int nextId = 0;
+                for (; nextId < pipelineDepth; nextId++) send(out, nextId);
+                out.flush();
+
+                int outstanding = pipelineDepth;
+                while (outstanding > 0) {
+                    PricingProtocol.Response response = PricingProtocol.Response.read(in);
+                    long now = System.nanoTime();
+                    latencies.record(now - sentAt[slot(response.requestId())]);
+                    if (response.status() != PricingProtocol.OK) errors++;
+                    outstanding--;
+                    if (now - deadline < 0) {
+                        send(out, nextId++);
+                        outstanding++;
+                    }
+                    if (in.available() == 0) out.flush();
+                }
+            }
+            return this;
+        }
+
+        private void send(DataOutputStream out, int requestId) throws IOException {
+            int v = requestId & (CART_VARIANTS - 1);
+            sentAt[slot(requestId)] = System.nanoTime();
+            PricingProtocol.writeRequest(out, requestId, linesPerCart, skuIds[v], quantities[v], prices[v]);
+        }
+
+        // Request ids wrap past Integer.MAX_VALUE on long runs; floorMod keeps the slot in range after the wrap.
+        private int slot(int requestId) {
+            return Math.floorMod(requestId, pipelineDepth);
+        }
+    }
+
+    // -------------------- Command line --------------------
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String target = args.length > 0 ? args[0] : "local";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int lines = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+
+        PricingServer local = null;
+        SocketAddress address;
+        if (target.equals("local")) {
+            local = PricingServer.start(new OrderPricing(), new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            address = local.address();
+        } else {
+            address = PricingServer.parseAddress(target);
+        }
+        try {
+            System.out.printf("%d connections x %d in flight, %d lines per cart, %d s against %s%n",
+                    connections, depth, lines, seconds, address);
+            LoadGenerator generator = new LoadGenerator(address, connections, depth, lines, 42L);
+            generator.run(Duration.ofSeconds(1));   // warm up
+            System.out.println(generator.run(Duration.ofSeconds(seconds)));
+        } finally {
+            if (local != null) local.close();
+        }
+    }
+}
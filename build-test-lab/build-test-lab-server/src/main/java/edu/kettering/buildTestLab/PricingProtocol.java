@@ -0,0 +1,71 @@
+package edu.kettering.buildTestLab;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Binary framing between PricingServer and its clients. All ints are big-endian.
+ *
+ * Request:  int requestId, int lineCount, then lineCount times (int skuId, int quantity, int unitPriceCents)
+ * Response: int requestId, byte status, int totalCents (0 unless status is OK)
+ *
+ * A connection carries any number of requests back to back; clients may send more before reading responses
+ * (pipelining). Responses come back in request order. A request with more than MAX_LINES lines is a protocol error
+ * and closes the connection.
+ */
+public final class PricingProtocol {
+
+    public static final int MAX_LINES = 1 << 16;
+    public static final int RESPONSE_BYTES = 9;
+
+    public static final byte OK = 0;
+    public static final byte BAD_SKU = 1;
+    public static final byte BAD_QTY = 2;
+    public static final byte BAD_PRICE = 3;
+    public static final byte UNSUPPORTED_PLAN = 4;
+    public static final byte TOTAL_OVERFLOW = 5;   // the cart's subtotal, quantity or total does not fit in an int
+
+    private PricingProtocol() {
+    }
+
+    /**
+     * Writes one request (not flushed). skuIds, quantities and unitPriceCents hold at least lineCount entries.
+     */
+    public static void writeRequest(DataOutputStream out, int requestId, int lineCount, int[] skuIds, int[] quantities,
+                                    int[] unitPriceCents) throws IOException {
+        out.writeInt(requestId);
+        out.writeInt(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            out.writeInt(skuIds[i]);
+            out.writeInt(quantities[i]);
+            out.writeInt(unitPriceCents[i]);
+        }
+    }
+
+    public static void writeResponse(DataOutputStream out, int requestId, byte status, int totalCents)
+            throws IOException {
+        out.writeInt(requestId);
+        out.writeByte(status);
+        out.writeInt(totalCents);
+    }
+
+    // Status for a rejected line, from the validation message LineItem and PricingBuffer use.
+    static byte statusOf(IllegalArgumentException e) {
+        return switch (String.valueOf(e.getMessage())) {
+            case "bad sku" -> BAD_SKU;
+            case "bad qty" -> BAD_QTY;
+            default -> BAD_PRICE;
+        };
+    }
+
+    /**
+     * A decoded response.
+     */
+    public record Response(int requestId, byte status, int totalCents) {
+
+        public static Response read(DataInputStream in) throws IOException {
+            return new Response(in.readInt(), in.readByte(), in.readInt());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package edu.kettering.buildTestLab;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Standalone pricing service speaking PricingProtocol over local TCP or a Unix-domain socket.
+ *
+ * Every connection is served by its own virtual thread with plain blocking reads and writes, and prices through a
+ * PricingBuffer owned by that thread, so a request allocates nothing. Requests on a connection are handled in order;
+ * responses are flushed only when no further request is already buffered, so a pipelining client gets its
+ * responses in batches instead of one write per request.
+ *
+ * Usage: java -cp ... edu.kettering.buildTestLab.PricingServer [tcp:PORT | unix:PATH]
+ */
+public final class PricingServer implements Closeable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final OrderPricing pricing;
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final Thread acceptor;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder requests = new LongAdder();
+    private volatile boolean closed;
+
+    private PricingServer(OrderPricing pricing, ServerSocketChannel server) throws IOException {
+        this.pricing = pricing;
+        this.server = server;
+        this.address = server.getLocalAddress();
+        this.acceptor = Thread.ofVirtual().name("pricing-acceptor").start(this::acceptLoop);
+    }
+
+    /**
+     * Binds to address (an InetSocketAddress, port 0 for any free port, or a UnixDomainSocketAddress whose file
+     * must not exist yet) and starts accepting connections.
+     */
+    public static PricingServer start(OrderPricing pricing, SocketAddress address) throws IOException {
+        if (pricing == null || address == null) throw new IllegalArgumentException("pricing/address is null");
+        ServerSocketChannel server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        try {
+            server.bind(address);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        return new PricingServer(pricing, server);
+    }
+
+    // Bound address (with the real port when started on port 0).
+    public SocketAddress address() {
+        return address;
+    }
+
+    // Requests answered so far, over all connections.
+    public long requests() {
+        return requests.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        server.close();
+        for (SocketChannel c : connections) c.close();
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (address instanceof UnixDomainSocketAddress unix) Files.deleteIfExists(unix.getPath());
+    }
+
+    // -------------------- Connection handling --------------------
+
+    private void acceptLoop() {
+        long connectionNumber = 0;
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+            } catch (IOException e) {
+                return;   // closed
+            }
+            connections.add(channel);
+            if (closed) {
+                // accepted just as close() ran: it may already have walked connections without seeing this one
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // closing anyway
+                }
+                connections.remove(channel);
+                return;
+            }
+            Thread.ofVirtual().name("pricing-connection-" + connectionNumber++).start(() -> serve(channel));
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (channel) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_BYTES));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES));
+            PricingBuffer buffer = new PricingBuffer(pricing, 64);
+            while (true) {
+                int requestId;
+                try {
+                    requestId = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int lineCount = in.readInt();
+                if (lineCount < 0 || lineCount > PricingProtocol.MAX_LINES) break;   // protocol error
+
+                byte status = PricingProtocol.OK;
+                buffer.clear();
+                for (int i = 0; i < lineCount; i++) {
+                    int skuId = in.readInt();
+                    int quantity = in.readInt();
+                    int unitPriceCents = in.readInt();
+                    if (status != PricingProtocol.OK) continue;   // still consume the rest of the request
+                    try {
+                        buffer.append(skuId, quantity, unitPriceCents);
+                    } catch (IllegalArgumentException e) {
+                        status = PricingProtocol.statusOf(e);
+                    }
+                }
+                int total = 0;
+                if (status == PricingProtocol.OK) {
+                    try {
+                        total = buffer.totalCents();
+                    } catch (IllegalStateException e) {
+                        status = PricingProtocol.UNSUPPORTED_PLAN;
+                    } catch (ArithmeticException e) {
+                        status = PricingProtocol.TOTAL_OVERFLOW;
+                    }
+                }
+                PricingProtocol.writeResponse(out, requestId, status, total);
+                requests.increment();
+                if (in.available() == 0) out.flush();
+            }
+            out.flush();
+        } catch (EOFException | ClosedChannelException e) {
+            // client went away mid-request, or the server is closing
+        } catch (IOException e) {
+            System.err.println("pricing connection failed: " + e);
+        } finally {
+            connections.remove(channel);
+        }
+    }
+
+    // -------------------- Command line --------------------
+
+    /**
+     * Parses "tcp:PORT" (loopback), "tcp:HOST:PORT" or "unix:PATH".
+     */
+    static SocketAddress parseAddress(String spec) throws IOException {
+        if (spec.startsWith("unix:")) return UnixDomainSocketAddress.of(Path.of(spec.substring(5)));
+        if (spec.startsWith("tcp:")) {
+            String rest = spec.substring(4);
+            int colon = rest.lastIndexOf(':');
+            if (colon < 0) return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(rest));
+            return new InetSocketAddress(rest.substring(0, colon), Integer.parseInt(rest.substring(colon + 1)));
+        }
+        throw new IllegalArgumentException("bad address " + spec + " (expected tcp:PORT, tcp:HOST:PORT or unix:PATH)");
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SocketAddress address = parseAddress(args.length > 0 ? args[0] : "tcp:7070");
+        PricingServer server = start(new OrderPricing(), address);
+        System.out.println("Pricing server listening on " + server.address());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException ignored) {
+                // exiting anyway
+            }
+        }));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,155 @@
+package edu.kettering.buildTestLab;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PricingServerTest {
+
+    private static final SocketAddress ANY_LOOPBACK_PORT = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    private final OrderPricing pricing = new OrderPricing();
+
+    @Test
+    void pipelinedRequestsAreAnsweredInOrder() throws IOException {
+        try (PricingServer server = PricingServer.start(pricing, ANY_LOOPBACK_PORT);
+             Client client = new Client(server.address())) {
+            List<List<OrderPricing.LineItem>> carts = new ArrayList<>();
+            for (int r = 0; r < 100; r++) {
+                List<OrderPricing.LineItem> cart = new ArrayList<>();
+                for (int l = 0; l <= r % 7; l++) cart.add(new OrderPricing.LineItem("SKU-" + l, 1 + (r + l) % 4, 250 * l + r));
+                carts.add(cart);
+                client.send(r, cart);
+            }
+            client.out.flush();
+
+            for (int r = 0; r < 100; r++) {
+                PricingProtocol.Response response = PricingProtocol.Response.read(client.in);
+                assertEquals(r, response.requestId());
+                assertEquals(PricingProtocol.OK, response.status());
+                assertEquals(pricing.totalCents(carts.get(r)), response.totalCents(), "request " + r);
+            }
+        }
+    }
+
+    @Test
+    void invalidLinesGetAStatusAndKeepTheConnectionInSync() throws IOException {
+        try (PricingServer server = PricingServer.start(pricing, ANY_LOOPBACK_PORT);
+             Client client = new Client(server.address())) {
+            PricingProtocol.writeRequest(client.out, 1, 3, new int[]{1, -1, 3}, new int[]{1, 1, 1}, new int[]{100, 100, 100});
+            PricingProtocol.writeRequest(client.out, 2, 2, new int[]{1, 2}, new int[]{1, 0}, new int[]{100, 100});
+            PricingProtocol.writeRequest(client.out, 3, 1, new int[]{1}, new int[]{1}, new int[]{-5});
+            PricingProtocol.writeRequest(client.out, 4, 1, new int[]{1}, new int[]{2}, new int[]{3000});
+            PricingProtocol.writeRequest(client.out, 5, 1, new int[]{1}, new int[]{50_000}, new int[]{50_000});
+            PricingProtocol.writeRequest(client.out, 6, 1, new int[]{1}, new int[]{1}, new int[]{100});
+            client.out.flush();
+
+            assertEquals(new PricingProtocol.Response(1, PricingProtocol.BAD_SKU, 0), PricingProtocol.Response.read(client.in));
+            assertEquals(new PricingProtocol.Response(2, PricingProtocol.BAD_QTY, 0), PricingProtocol.Response.read(client.in));
+            assertEquals(new PricingProtocol.Response(3, PricingProtocol.BAD_PRICE, 0), PricingProtocol.Response.read(client.in));
+            assertEquals(new PricingProtocol.Response(4, PricingProtocol.OK, 6000), PricingProtocol.Response.read(client.in));
+            assertEquals(new PricingProtocol.Response(5, PricingProtocol.TOTAL_OVERFLOW, 0), PricingProtocol.Response.read(client.in));
+            assertEquals(new PricingProtocol.Response(6, PricingProtocol.OK, 899), PricingProtocol.Response.read(client.in));
+        }
+    }
+
+    @Test
+    void planWithSkuDiscountsIsReportedAsUnsupported() throws IOException {
+        pricing.setPlan(PricingPlan.compile(List.of(new PricingRule.SkuDiscount("PEN", 10))));
+        try (PricingServer server = PricingServer.start(pricing, ANY_LOOPBACK_PORT);
+             Client client = new Client(server.address())) {
+            PricingProtocol.writeRequest(client.out, 7, 1, new int[]{1}, new int[]{1}, new int[]{100});
+            client.out.flush();
+
+            assertEquals(new PricingProtocol.Response(7, PricingProtocol.UNSUPPORTED_PLAN, 0),
+                    PricingProtocol.Response.read(client.in));
+        }
+    }
+
+    @Test
+    void servesOverUnixDomainSocket(@TempDir Path dir) throws IOException {
+        try (PricingServer server = PricingServer.start(pricing, UnixDomainSocketAddress.of(dir.resolve("pricing.sock")));
+             Client client = new Client(server.address())) {
+            PricingProtocol.writeRequest(client.out, 9, 2, new int[]{1, 2}, new int[]{2, 1}, new int[]{1500, 2500});
+            client.out.flush();
+
+            assertEquals(new PricingProtocol.Response(9, PricingProtocol.OK, 5500), PricingProtocol.Response.read(client.in));
+        }
+    }
+
+    @Test
+    void loadGeneratorCompletesEveryRequestWithoutErrors() throws IOException, InterruptedException {
+        try (PricingServer server = PricingServer.start(pricing, ANY_LOOPBACK_PORT)) {
+            LoadGenerator.Report report = new LoadGenerator(server.address(), 8, 4, 10, 42L).run(Duration.ofMillis(300));
+
+            assertTrue(report.requests() > 0);
+            assertEquals(0, report.errors());
+            assertEquals(report.requests(), server.requests());
+            assertTrue(report.p50Nanos() <= report.p99Nanos() && report.p99Nanos() <= report.p999Nanos());
+        }
+    }
+
+    @Test
+    void histogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) histogram.record(v * 1_000);
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(50_000_000, histogram.percentile(0.50), 50_000_000 / 64.0);
+        assertEquals(99_000_000, histogram.percentile(0.99), 99_000_000 / 64.0);
+        assertEquals(100_000_000, histogram.percentile(1.0));
+        for (long v : new long[]{0, 1, 127, 128, 129, 1_000_003, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(v <= LatencyHistogram.upperBound(index), "value " + v);
+            assertTrue(index == 0 || v > LatencyHistogram.upperBound(index - 1), "value " + v);
+        }
+    }
+
+    private static final class Client implements AutoCloseable {
+
+        final SocketChannel channel;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Client(SocketAddress address) throws IOException {
+            channel = SocketChannel.open(address);
+            in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        }
+
+        void send(int requestId, List<OrderPricing.LineItem> cart) throws IOException {
+            int n = cart.size();
+            int[] skuIds = new int[n];
+            int[] quantities = new int[n];
+            int[] prices = new int[n];
+            for (int i = 0; i < n; i++) {
+                skuIds[i] = i;
+                quantities[i] = cart.get(i).quantity();
+                prices[i] = cart.get(i).unitPriceCents();
+            }
+            PricingProtocol.writeRequest(out, requestId, n, skuIds, quantities, prices);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A mutable cart that keeps its subtotal and total quantity up to date as lines change, so reading the total is
+ * O(1) instead of repricing every line.
+ *
+ * The cart holds at most one line per SKU, in the order SKUs were first added. Totals follow the plan of the
+ * OrderPricing the cart was created with; when that plan is swapped, the next read recomputes the running sums once
+ * under the new plan. totalCents() always equals pricing.totalCents(items()).
+ *
+ * Not thread-safe: a cart belongs to one checkout session.
+ */
+public class Cart {
+
+    private final OrderPricing pricing;
+    private final Map<String, OrderPricing.LineItem> lines = new LinkedHashMap<>();
+
+    // Running sums under plan, kept in long and narrowed on read like totalCents, so an overflowing cart is
+    // rejected instead of wrapping.
+    private PricingPlan plan;
+    private long subtotalCents;
+    private long totalQuantity;
+
+    public Cart(OrderPricing pricing) {
+        if (pricing == null) throw new IllegalArgumentException("pricing is null");
+        this.pricing = pricing;
+        this.plan = pricing.plan();
+    }
+
+    // -------------------- Line updates --------------------
+
+    /**
+     * Adds a line, or replaces the existing line for the same SKU.
+     */
+    public void put(OrderPricing.LineItem item) {
+        if (item == null) throw new IllegalArgumentException("item is null");
+        OrderPricing.LineItem old = lines.put(item.sku(), item);
+        if (old != null) unaccount(old);
+        account(item);
+    }
+
+    /**
+     * Changes the quantity of an existing line, keeping its unit price.
+     */
+    public void setQuantity(String sku, int quantity) {
+        OrderPricing.LineItem old = lines.get(sku);
+        if (old == null) throw new IllegalArgumentException("unknown sku " + sku);
+        put(new OrderPricing.LineItem(sku, quantity, old.unitPriceCents()));
+    }
+
+    /**
+     * Removes the line for sku; returns false if there was none.
+     */
+    public boolean remove(String sku) {
+        OrderPricing.LineItem old = lines.remove(sku);
+        if (old == null) return false;
+        unaccount(old);
+        return true;
+    }
+
+    public void clear() {
+        lines.clear();
+        subtotalCents = 0;
+        totalQuantity = 0;
+    }
+
+    // -------------------- Reads --------------------
+
+    /**
+     * Current total in cents under the pricing's current plan.
+     */
+    public int totalCents() {
+        if (lines.isEmpty()) return 0;
+        PricingPlan current = currentPlan();
+        PricingKernel.Totals totals = totals();
+        return current.priceFromTotals(totals.subtotalAsInt(), totals.quantityAsInt());
+    }
+
+    // Subtotal after SKU discounts, before percentage discount, shipping and bonus.
+    public int subtotalCents() {
+        currentPlan();
+        return totals().subtotalAsInt();
+    }
+
+    public int totalQuantity() {
+        return totals().quantityAsInt();
+    }
+
+    public OrderPricing.LineItem line(String sku) {
+        return lines.get(sku);
+    }
+
+    // Snapshot of the lines in insertion order.
+    public List<OrderPricing.LineItem> items() {
+        return new ArrayList<>(lines.values());
+    }
+
+    public int size() {
+        return lines.size();
+    }
+
+    public boolean isEmpty() {
+        return lines.isEmpty();
+    }
+
+    // -------------------- Helpers --------------------
+
+    private PricingKernel.Totals totals() {
+        return new PricingKernel.Totals(subtotalCents, totalQuantity);
+    }
+
+    private void account(OrderPricing.LineItem item) {
+        subtotalCents += (long) item.quantity() * plan.unitPriceCents(item);
+        totalQuantity += item.quantity();
+    }
+
+    private void unaccount(OrderPricing.LineItem item) {
+        subtotalCents -= (long) item.quantity() * plan.unitPriceCents(item);
+        totalQuantity -= item.quantity();
+    }
+
+    // Plan of the pricing, recomputing the running subtotal if it was swapped since the last read.
+    private PricingPlan currentPlan() {
+        PricingPlan current = pricing.plan();
+        if (current != plan) {
+            plan = current;
+            subtotalCents = 0;
+            totalQuantity = 0;
+            for (OrderPricing.LineItem item : lines.values()) account(item);
+        }
+        return current;
+    }
+}
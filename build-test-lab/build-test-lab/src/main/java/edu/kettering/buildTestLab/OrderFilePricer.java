@@ -0,0 +1,379 @@
+package edu.kettering.buildTestLab;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Prices order export files of any size in bounded memory.
+ *
+ * Input has one order line per text line, and the lines of one order are consecutive:
+ *  - CSV:    orderId,sku,quantity,unitPriceCents   (an optional first line starting with "orderId" is a header)
+ *  - NDJSON: {"orderId":"A-1","sku":"PEN","quantity":10,"unitPriceCents":200}
+ * Output has one "orderId,totalCents" line per order, in input order.
+ *
+ * The calling thread parses lines straight into primitive chunk columns (no LineItem objects) and cuts a chunk at an
+ * order boundary once it holds chunkLines lines. Chunks are priced on a thread pool with the plan that was current
+ * when price() started. At most maxChunksInFlight chunks exist at once: when that many are queued, the oldest is
+ * awaited and written before more input is read. Memory is therefore bounded by the chunk size, not the file size
+ * (a single order larger than a chunk gets a chunk of its own).
+ *
+ * A malformed line is reported to the error sink as "line N: " plus LineItem's message ("bad sku", "bad qty",
+ * "bad price"), or "bad line" when the line cannot be split into fields. Its whole order is left out of the output.
+ * An order whose total overflows int cents is rejected the same way, reported against its first line with the
+ * ArithmeticException's message. The error sink is only called from the thread running price().
+ */
+public final class OrderFilePricer {
+
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * Counts for one run.
+     */
+    public record Result(long orders, long lines, long rejectedOrders) {
+    }
+
+    private final OrderPricing pricing;
+    private final Format format;
+    private final int threads;
+    private final int chunkLines;
+    private final int maxChunksInFlight;
+
+    public OrderFilePricer(OrderPricing pricing, Format format, int threads, int chunkLines, int maxChunksInFlight) {
+        if (pricing == null || format == null) throw new IllegalArgumentException("pricing/format is null");
+        if (threads <= 0 || chunkLines <= 0 || maxChunksInFlight <= 0) throw new IllegalArgumentException("bad sizes");
+        this.pricing = pricing;
+        this.format = format;
+        this.threads = threads;
+        this.chunkLines = chunkLines;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    // -------------------- Public API --------------------
+
+    public Result price(Path input, Path output, Consumer<String> errors) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            return price(in, out, errors);
+        }
+    }
+
+    /**
+     * Reads every order from in and writes its total to out. Neither channel is closed.
+     */
+    public Result price(ReadableByteChannel in, WritableByteChannel out, Consumer<String> errors) throws IOException {
+        PricingPlan plan = pricing.plan();
+        BufferedReader reader = new BufferedReader(Channels.newReader(in, StandardCharsets.UTF_8), 1 << 16);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<PricedChunk>> inFlight = new ArrayDeque<>();
+        LineParser parser = format == Format.CSV ? new CsvParser() : new JsonParser();
+        long orders = 0;
+        long rejected = 0;
+        long lineNumber = 0;
+        try {
+            Chunk chunk = new Chunk(chunkLines);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && format == Format.CSV && line.startsWith("orderId"))) continue;
+                String error = parser.parse(line);
+                String orderId = parser.orderId;
+                if (orderId == null) {
+                    errors.accept("line " + lineNumber + ": " + error);
+                    continue;
+                }
+                if (!orderId.equals(chunk.currentOrderId())) {
+                    if (chunk.lineCount() >= chunkLines) {
+                        rejected += submit(pool, inFlight, chunk, plan, out, errors);
+                        chunk = new Chunk(chunkLines);
+                    }
+                    chunk.startOrder(orderId, lineNumber);
+                    orders++;
+                }
+                if (error != null) {
+                    errors.accept("line " + lineNumber + ": " + error);
+                    if (chunk.rejectCurrentOrder()) rejected++;
+                } else {
+                    chunk.addLine(parser.sku, parser.quantity, parser.unitPriceCents);
+                }
+            }
+            if (chunk.orderCount() > 0) rejected += submit(pool, inFlight, chunk, plan, out, errors);
+            while (!inFlight.isEmpty()) rejected += write(out, inFlight.poll(), errors);
+            return new Result(orders, lineNumber, rejected);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // -------------------- Pipeline --------------------
+
+    // Returns the orders rejected while pricing the chunks it had to write first.
+    private long submit(ExecutorService pool, ArrayDeque<Future<PricedChunk>> inFlight, Chunk chunk, PricingPlan plan,
+                        WritableByteChannel out, Consumer<String> errors) throws IOException {
+        long rejected = 0;
+        while (inFlight.size() >= maxChunksInFlight) rejected += write(out, inFlight.poll(), errors);
+        inFlight.add(pool.submit(() -> chunk.price(plan)));
+        return rejected;
+    }
+
+    // Writes a priced chunk and reports its rejected orders; returns how many there were.
+    private static long write(WritableByteChannel out, Future<PricedChunk> pending, Consumer<String> errors)
+            throws IOException {
+        PricedChunk priced;
+        try {
+            priced = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while pricing");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("pricing failed", e.getCause());
+        }
+        for (String error : priced.errors()) errors.accept(error);
+        ByteBuffer buffer = ByteBuffer.wrap(priced.bytes());
+        while (buffer.hasRemaining()) out.write(buffer);
+        return priced.errors().size();
+    }
+
+    // Output of one chunk, and one error per order that could not be priced.
+    private record PricedChunk(byte[] bytes, List<String> errors) {
+    }
+
+    /**
+     * Consecutive whole orders in columnar form.
+     */
+    private static final class Chunk {
+        private String[] orderIds = new String[16];
+        private int[] orderStarts = new int[17];   // order i owns lines orderStarts[i] .. orderStarts[i + 1]
+        private long[] firstLineNumbers = new long[16];
+        private boolean[] rejected = new boolean[16];
+        private int orders;
+
+        private String[] skus;
+        private int[] quantities;
+        private int[] unitPriceCents;
+        private int lines;
+
+        Chunk(int expectedLines) {
+            skus = new String[expectedLines];
+            quantities = new int[expectedLines];
+            unitPriceCents = new int[expectedLines];
+        }
+
+        String currentOrderId() {
+            return orders == 0 ? null : orderIds[orders - 1];
+        }
+
+        int orderCount() {
+            return orders;
+        }
+
+        int lineCount() {
+            return lines;
+        }
+
+        void startOrder(String orderId, long firstLineNumber) {
+            if (orders == orderIds.length) {
+                orderIds = Arrays.copyOf(orderIds, orders * 2);
+                orderStarts = Arrays.copyOf(orderStarts, orders * 2 + 1);
+                firstLineNumbers = Arrays.copyOf(firstLineNumbers, orders * 2);
+                rejected = Arrays.copyOf(rejected, orders * 2);
+            }
+            orderIds[orders] = orderId;
+            firstLineNumbers[orders] = firstLineNumber;
+            orderStarts[orders] = lines;
+            orders++;
+            orderStarts[orders] = lines;
+        }
+
+        // Marks the current order rejected; returns true if it was not rejected before.
+        boolean rejectCurrentOrder() {
+            boolean first = !rejected[orders - 1];
+            rejected[orders - 1] = true;
+            return first;
+        }
+
+        void addLine(String sku, int quantity, int priceCents) {
+            if (lines == skus.length) {
+                int capacity = lines * 2;
+                skus = Arrays.copyOf(skus, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                unitPriceCents = Arrays.copyOf(unitPriceCents, capacity);
+            }
+            skus[lines] = sku;
+            quantities[lines] = quantity;
+            unitPriceCents[lines] = priceCents;
+            lines++;
+            orderStarts[orders] = lines;
+        }
+
+        // Same result per order as plan.totalCents over the order's LineItems. A chunk is priced once, so SKU
+        // discounts are applied to its price column in place before the kernel sums each order. An order that
+        // overflows is left out and reported, like a malformed one.
+        PricedChunk price(PricingPlan plan) {
+            if (plan.hasSkuDiscounts()) {
+                for (int l = 0; l < lines; l++) unitPriceCents[l] = plan.unitPriceCents(skus[l], unitPriceCents[l]);
+            }
+            StringBuilder out = new StringBuilder(orders * 24);
+            List<String> errors = new ArrayList<>(0);
+            for (int o = 0; o < orders; o++) {
+                if (rejected[o]) continue;
+                int total = 0;
+                if (orderStarts[o] != orderStarts[o + 1]) {
+                    try {
+                        PricingKernel.Totals totals = PricingKernel.sum(quantities, unitPriceCents, orderStarts[o],
+                                orderStarts[o + 1]);
+                        total = plan.priceFromTotals(totals.subtotalAsInt(), totals.quantityAsInt());
+                    } catch (ArithmeticException e) {
+                        errors.add("line " + firstLineNumbers[o] + ": " + e.getMessage());
+                        continue;
+                    }
+                }
+                out.append(orderIds[o]).append(',').append(total).append('\n');
+            }
+            return new PricedChunk(out.toString().getBytes(StandardCharsets.UTF_8), errors);
+        }
+    }
+
+    // -------------------- Parsing --------------------
+
+    /**
+     * Parses one line into its fields. parse() returns null for a good line or LineItem's validation message;
+     * orderId is null when the line has no usable order id.
+     */
+    private abstract static class LineParser {
+        String orderId;
+        String sku;
+        int quantity;
+        int unitPriceCents;
+
+        abstract String parse(String line);
+
+        // Validates and stores the three line fields, like the LineItem constructor.
+        String fields(String skuField, String quantityField, String priceField) {
+            if (skuField == null || skuField.isBlank()) return "bad sku";
+            sku = skuField;
+            quantity = parseInt(quantityField);
+            if (quantity <= 0) return "bad qty";
+            unitPriceCents = parseInt(priceField);
+            if (unitPriceCents < 0) return "bad price";
+            return null;
+        }
+
+        // Non-negative decimal int, or -1.
+        private static int parseInt(String s) {
+            if (s == null || s.isEmpty() || s.length() > 10) return -1;
+            long value = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') return -1;
+                value = value * 10 + (c - '0');
+            }
+            return value > Integer.MAX_VALUE ? -1 : (int) value;
+        }
+    }
+
+    private static final class CsvParser extends LineParser {
+        @Override
+        String parse(String line) {
+            orderId = null;
+            int c1 = line.indexOf(',');
+            if (c1 < 0 || line.substring(0, c1).isBlank()) return "bad line";
+            orderId = line.substring(0, c1).trim();
+            int c2 = line.indexOf(',', c1 + 1);
+            int c3 = c2 < 0 ? -1 : line.indexOf(',', c2 + 1);
+            if (c3 < 0 || line.indexOf(',', c3 + 1) >= 0) return "bad line";
+            return fields(line.substring(c1 + 1, c2).trim(), line.substring(c2 + 1, c3).trim(),
+                    line.substring(c3 + 1).trim());
+        }
+    }
+
+    /**
+     * Flat NDJSON objects with string and integer values; unknown keys are ignored.
+     */
+    private static final class JsonParser extends LineParser {
+        private String line;
+        private int pos;
+
+        @Override
+        String parse(String text) {
+            orderId = null;
+            line = text;
+            pos = 0;
+            String id = null, skuField = null, quantityField = null, priceField = null;
+            try {
+                expect('{');
+                if (peek() != '}') {
+                    do {
+                        String key = string();
+                        expect(':');
+                        String value = peek() == '"' ? string() : number();
+                        switch (key) {
+                            case "orderId" -> id = value;
+                            case "sku" -> skuField = value;
+                            case "quantity" -> quantityField = value;
+                            case "unitPriceCents" -> priceField = value;
+                            default -> { }
+                        }
+                    } while (accept(','));
+                }
+                expect('}');
+                if (peek() != 0) return "bad line";
+            } catch (IllegalArgumentException e) {
+                return "bad line";
+            }
+            if (id == null || id.isBlank()) return "bad line";
+            orderId = id;
+            return fields(skuField, quantityField, priceField);
+        }
+
+        private char peek() {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) pos++;
+            return pos < line.length() ? line.charAt(pos) : 0;
+        }
+
+        private boolean accept(char c) {
+            if (peek() != c) return false;
+            pos++;
+            return true;
+        }
+
+        private void expect(char c) {
+            if (!accept(c)) throw new IllegalArgumentException("expected " + c);
+        }
+
+        private String string() {
+            expect('"');
+            int end = line.indexOf('"', pos);
+            if (end < 0 || line.lastIndexOf('\\', end) >= pos) throw new IllegalArgumentException("bad string");
+            String s = line.substring(pos, end);
+            pos = end + 1;
+            return s;
+        }
+
+        private String number() {
+            peek();
+            int start = pos;
+            while (pos < line.length() && (Character.isDigit(line.charAt(pos)) || line.charAt(pos) == '-')) pos++;
+            if (start == pos) throw new IllegalArgumentException("bad value");
+            return line.substring(start, pos);
+        }
+    }
+}
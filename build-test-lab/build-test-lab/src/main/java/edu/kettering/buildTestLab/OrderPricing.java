@@ -1,11 +1,14 @@
 package edu.kettering.buildTestLab;
 
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class OrderPricing {
 
     // -------------------- Configuration constants --------------------
+    // Rules of PricingPlan.DEFAULT, which a new OrderPricing starts with.
 
     public static final int FREE_SHIPPING_THRESHOLD_CENTS = 5000;
     public static final int SHIPPING_CENTS = 799;
@@ -13,6 +16,9 @@ public class OrderPricing {
     public static final int BULK_QTY_THRESHOLD = 10;
     public static final int BULK_BONUS_CENTS = 300;
 
+    // Bulk pricing: below this many lines a fork/join task prices its orders itself instead of splitting.
+    static final int BULK_SPLIT_THRESHOLD_LINES = 8192;
+
     // -------------------- Data model --------------------
 
     /**
@@ -31,58 +37,143 @@ public class OrderPricing {
         }
     }
 
+    // -------------------- State --------------------
+
+    // Current rules. Swapped as a whole, so a pricing call sees either the old plan or the new one, never a mix.
+    private final AtomicReference<PricingPlan> plan;
+
+    public OrderPricing() {
+        this(PricingPlan.DEFAULT);
+    }
+
+    public OrderPricing(PricingPlan plan) {
+        if (plan == null) throw new IllegalArgumentException("plan is null");
+        this.plan = new AtomicReference<>(plan);
+    }
+
     // -------------------- Public API --------------------
 
     /**
-     * Computes the final total price in cents.
-     * Rules:
+     * Computes the final total price in cents with the current plan.
+     * Rules of the default plan:
      *  - subtotal = sum(quantity * unitPriceCents)
      *  - shipping is free if subtotal >= FREE_SHIPPING_THRESHOLD_CENTS else SHIPPING_CENTS
      *  - if total quantity >= BULK_QTY_THRESHOLD, subtract BULK_BONUS_CENTS
      *  - total is never negative
+     * With PricingMetrics enabled, the call's latency is recorded by cart size, along with which rules fired.
      */
     public int totalCents(List<LineItem> items) {
-        validateItemsList(items);
-        if (items.isEmpty()) return 0;
-
-        int subtotal = subtotalCents(items);
-        int shipping = shippingCents(subtotal);
-        int bulkBonus = bulkBonusCents(totalQuantity(items));
+        if (!PricingMetrics.ENABLED) return plan.get().totalCents(items);
+        PricingMetrics metrics = PricingMetrics.global();
+        long start = System.nanoTime();
+        int total = plan.get().totalCents(items, metrics);
+        metrics.recordLatency(items.size(), System.nanoTime() - start);
+        return total;
+    }
 
-        return clampNonNegative(subtotal + shipping - bulkBonus);
+    // The plan totalCents currently uses.
+    public PricingPlan plan() {
+        return plan.get();
     }
 
-    // -------------------- Helpers --------------------
+    /**
+     * Replaces the pricing rules. Calls already running finish with the plan they started with.
+     */
+    public void setPlan(PricingPlan newPlan) {
+        if (newPlan == null) throw new IllegalArgumentException("plan is null");
+        plan.set(newPlan);
+    }
 
-    private static void validateItemsList(List<LineItem> items) {
-        if (items == null) throw new IllegalArgumentException("items is null");
-        for (LineItem it : items) {
-            Objects.requireNonNull(it, "null item");
+    /**
+     * Prices many orders at once from columnar input, in parallel on the common fork/join pool.
+     *
+     * Order i owns lines orderOffsets[i] until orderOffsets[i + 1] (exclusive) of quantities and unitPriceCents, so
+     * orderOffsets has one more entry than there are orders. Order i's total is written to totalsOut[i] and is
+     * exactly what totalCents would return for the same lines (an order with no lines costs 0).
+     * Line values are checked like LineItem ("bad qty", "bad price"); when one is rejected, totals of other orders
+     * may already have been written. An order whose sums overflow int is rejected with an ArithmeticException, like
+     * totalCents. The whole batch is priced with the plan current at the start of the call; plans with SKU discounts
+     * are rejected, since columnar input carries no SKUs.
+     */
+    public void totalCents(int[] orderOffsets, int[] quantities, int[] unitPriceCents, int[] totalsOut) {
+        int orders = validateColumns(orderOffsets, quantities, unitPriceCents, totalsOut);
+        PricingPlan current = plan.get();
+        if (current.hasSkuDiscounts()) throw new IllegalStateException("plan has SKU discounts; columns have no SKUs");
+        if (orders == 0) return;
+        try {
+            ForkJoinPool.commonPool().invoke(
+                    new BulkPricingTask(current, orderOffsets, quantities, unitPriceCents, totalsOut, 0, orders));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            // Fork/join rethrows a worker's exception as a copy that wraps it; surface the original message.
+            if (e.getCause() != null && e.getCause().getClass() == e.getClass()) throw (RuntimeException) e.getCause();
+            throw e;
         }
     }
 
-    private static int subtotalCents(List<LineItem> items) {
-        int subtotal = 0;
-        for (LineItem it : items) subtotal += it.lineTotalCents();
-        return subtotal;
-    }
+    // -------------------- Helpers --------------------
 
-    private static int totalQuantity(List<LineItem> items) {
-        int qty = 0;
-        for (LineItem it : items) qty += it.quantity();
-        return qty;
+    private static int validateColumns(int[] orderOffsets, int[] quantities, int[] unitPriceCents, int[] totalsOut) {
+        if (orderOffsets == null || quantities == null || unitPriceCents == null || totalsOut == null) {
+            throw new IllegalArgumentException("columns are null");
+        }
+        if (quantities.length != unitPriceCents.length) throw new IllegalArgumentException("column lengths differ");
+        if (orderOffsets.length == 0) throw new IllegalArgumentException("orderOffsets is empty");
+        int orders = orderOffsets.length - 1;
+        if (totalsOut.length < orders) throw new IllegalArgumentException("totalsOut too small");
+        if (orderOffsets[0] < 0 || orderOffsets[orders] > quantities.length) {
+            throw new IllegalArgumentException("bad order offsets");
+        }
+        for (int i = 0; i < orders; i++) {
+            if (orderOffsets[i] > orderOffsets[i + 1]) throw new IllegalArgumentException("bad order offsets");
+        }
+        return orders;
     }
 
-    private static int shippingCents(int subtotalCents) {
-        return (subtotalCents >= FREE_SHIPPING_THRESHOLD_CENTS) ? 0 : SHIPPING_CENTS;
-    }
+    /**
+     * Prices orders [from, to) of a columnar batch, splitting in halves while the range has many lines.
+     */
+    @SuppressWarnings("serial")   // fork/join tasks are never serialized
+    private static final class BulkPricingTask extends RecursiveAction {
+        private final PricingPlan plan;
+        private final int[] orderOffsets;
+        private final int[] quantities;
+        private final int[] unitPriceCents;
+        private final int[] totalsOut;
+        private final int from;
+        private final int to;
+
+        BulkPricingTask(PricingPlan plan, int[] orderOffsets, int[] quantities, int[] unitPriceCents, int[] totalsOut,
+                        int from, int to) {
+            this.plan = plan;
+            this.orderOffsets = orderOffsets;
+            this.quantities = quantities;
+            this.unitPriceCents = unitPriceCents;
+            this.totalsOut = totalsOut;
+            this.from = from;
+            this.to = to;
+        }
 
-    private static int bulkBonusCents(int totalQty) {
-        return (totalQty >= BULK_QTY_THRESHOLD) ? BULK_BONUS_CENTS : 0;
-    }
+        @Override
+        protected void compute() {
+            int lines = orderOffsets[to] - orderOffsets[from];
+            if (to - from > 1 && lines > BULK_SPLIT_THRESHOLD_LINES) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BulkPricingTask(plan, orderOffsets, quantities, unitPriceCents, totalsOut, from, mid),
+                        new BulkPricingTask(plan, orderOffsets, quantities, unitPriceCents, totalsOut, mid, to));
+                return;
+            }
+            for (int order = from; order < to; order++) {
+                totalsOut[order] = priceOrder(order);
+            }
+        }
 
-    private static int clampNonNegative(int cents) {
-        return Math.max(0, cents);
+        private int priceOrder(int order) {
+            int start = orderOffsets[order];
+            int end = orderOffsets[order + 1];
+            if (start == end) return 0;
+            PricingKernel.Totals totals = PricingKernel.sum(quantities, unitPriceCents, start, end);
+            return plan.priceFromTotals(totals.subtotalAsInt(), totals.quantityAsInt());
+        }
     }
 
     // -------------------- Demo main (NOT for testing) --------------------
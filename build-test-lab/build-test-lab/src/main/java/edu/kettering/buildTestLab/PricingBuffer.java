@@ -0,0 +1,101 @@
+package edu.kettering.buildTestLab;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, allocation-free pricing for request handlers.
+ *
+ * Instead of building a LineItem per line and a List to hold them, a handler appends each line's SKU id, quantity
+ * and unit price into preallocated primitive arrays, calls totalCents(), then clear() for the next request. Lines
+ * are checked on append exactly like the LineItem constructor ("bad sku" for a negative SKU id, "bad qty",
+ * "bad price"), and the subtotal and quantity are kept as running long sums, so totalCents() is O(1) and rejects an
+ * overflowing cart with the same ArithmeticException as OrderPricing.totalCents.
+ *
+ * Nothing is allocated once the buffer has grown to the largest cart it sees. The plan is read at totalCents() time;
+ * plans with SKU discounts are rejected, since the buffer carries SKU ids rather than SKU strings.
+ *
+ * Not thread-safe: keep one buffer per thread (e.g. in a ThreadLocal or per connection).
+ */
+public final class PricingBuffer {
+
+    private final OrderPricing pricing;
+    private int[] skuIds;
+    private int[] quantities;
+    private int[] unitPriceCents;
+    private int size;
+    private long subtotalCents;
+    private long totalQuantity;
+
+    public PricingBuffer(OrderPricing pricing, int initialCapacity) {
+        if (pricing == null) throw new IllegalArgumentException("pricing is null");
+        if (initialCapacity <= 0) throw new IllegalArgumentException("bad capacity");
+        this.pricing = pricing;
+        this.skuIds = new int[initialCapacity];
+        this.quantities = new int[initialCapacity];
+        this.unitPriceCents = new int[initialCapacity];
+    }
+
+    /**
+     * Adds one line. A rejected line leaves the buffer unchanged.
+     */
+    public PricingBuffer append(int skuId, int quantity, int unitPriceCents) {
+        if (skuId < 0) throw new IllegalArgumentException("bad sku");
+        if (quantity <= 0) throw new IllegalArgumentException("bad qty");
+        if (unitPriceCents < 0) throw new IllegalArgumentException("bad price");
+        if (size == skuIds.length) grow();
+        skuIds[size] = skuId;
+        quantities[size] = quantity;
+        this.unitPriceCents[size] = unitPriceCents;
+        size++;
+        subtotalCents += (long) quantity * unitPriceCents;
+        totalQuantity += quantity;
+        return this;
+    }
+
+    /**
+     * Same total as OrderPricing.totalCents for the appended lines; 0 for an empty buffer.
+     */
+    public int totalCents() {
+        PricingPlan plan = pricing.plan();
+        if (plan.hasSkuDiscounts()) throw new IllegalStateException("plan has SKU discounts; buffer has SKU ids");
+        if (size == 0) return 0;
+        return plan.priceFromTotals(Math.toIntExact(subtotalCents), Math.toIntExact(totalQuantity));
+    }
+
+    // Empties the buffer for the next cart, keeping its arrays.
+    public void clear() {
+        size = 0;
+        subtotalCents = 0;
+        totalQuantity = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int skuId(int line) {
+        checkLine(line);
+        return skuIds[line];
+    }
+
+    public int quantity(int line) {
+        checkLine(line);
+        return quantities[line];
+    }
+
+    public int unitPriceCents(int line) {
+        checkLine(line);
+        return unitPriceCents[line];
+    }
+
+    private void checkLine(int line) {
+        if (line < 0 || line >= size) throw new IndexOutOfBoundsException(line);
+    }
+
+    private void grow() {
+        int capacity = skuIds.length * 2;
+        skuIds = Arrays.copyOf(skuIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        unitPriceCents = Arrays.copyOf(unitPriceCents, capacity);
+    }
+}
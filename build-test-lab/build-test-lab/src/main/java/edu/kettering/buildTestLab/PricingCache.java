@@ -0,0 +1,247 @@
+package edu.kettering.buildTestLab;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizing front for OrderPricing.totalCents, for carts that are priced again unchanged (refreshes, retries, saved
+ * carts).
+ *
+ * Carts are keyed by the plan they are priced with and their multiset of lines, so the same lines in a different
+ * order hit the same entry. A lookup costs one pass over the cart and allocates only the probe key: the hash is a sum
+ * of per-line hashes (order-insensitive), and equality walks both carts in step, sorting only the remainder if they
+ * list the same lines in a different order.
+ *
+ * The cache is bounded by weight (one unit per line plus one per entry) and split into stripes, each an LRU map under
+ * its own lock. Because the plan is part of the key, swapping OrderPricing's plan never returns a stale total, and
+ * switching back and forth between plans keeps both plans' entries; entries of a plan no longer used age out through
+ * LRU eviction. Carts too heavy for one stripe are priced without caching.
+ */
+public class PricingCache {
+
+    private static final int DEFAULT_STRIPES = 16;
+
+    private static final Comparator<OrderPricing.LineItem> CANONICAL_ORDER =
+            Comparator.comparing(OrderPricing.LineItem::sku)
+                    .thenComparingInt(OrderPricing.LineItem::quantity)
+                    .thenComparingInt(OrderPricing.LineItem::unitPriceCents);
+
+    private final OrderPricing pricing;
+    private final Stripe[] stripes;
+    private final long stripeMaxWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+
+    public PricingCache(OrderPricing pricing, long maxWeight) {
+        this(pricing, maxWeight, DEFAULT_STRIPES);
+    }
+
+    public PricingCache(OrderPricing pricing, long maxWeight, int stripeCount) {
+        if (pricing == null) throw new IllegalArgumentException("pricing is null");
+        if (stripeCount <= 0 || maxWeight < stripeCount) throw new IllegalArgumentException("bad cache size");
+        this.pricing = pricing;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) stripes[i] = new Stripe();
+        this.stripeMaxWeight = maxWeight / stripeCount;
+    }
+
+    // -------------------- Public API --------------------
+
+    /**
+     * Same result as pricing.totalCents(items), served from the cache when the same multiset of lines was priced
+     * before under the current plan.
+     */
+    public int totalCents(List<OrderPricing.LineItem> items) {
+        PricingPlan current = pricing.plan();
+        if (items == null || items.size() + 1 > stripeMaxWeight) {
+            bypassed.increment();
+            return current.totalCents(items);
+        }
+
+        long start = System.nanoTime();
+        CartKey key = CartKey.probe(current, items);
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+        Entry entry = stripe.get(key);
+        long looked = System.nanoTime();
+        if (entry != null) {
+            hits.increment();
+            savedNanos.add(entry.costNanos - (looked - start));
+            return entry.totalCents;
+        }
+
+        misses.increment();
+        int total = current.totalCents(items);
+        long cost = System.nanoTime() - looked;
+        savedNanos.add(-(looked - start));
+        stripe.put(key.retain(), new Entry(total, cost), stripeMaxWeight, evictions);
+        return total;
+    }
+
+    /**
+     * Drops every entry.
+     */
+    public void invalidateAll() {
+        for (Stripe s : stripes) s.clear();
+    }
+
+    // -------------------- Metrics --------------------
+
+    public long hits() { return hits.sum(); }
+
+    public long misses() { return misses.sum(); }
+
+    // Calls priced without the cache (null or too-large carts).
+    public long bypassed() { return bypassed.sum(); }
+
+    public long evictions() { return evictions.sum(); }
+
+    // Net pricing time saved: what each hit's entry cost to compute, minus the measured key and lookup time of every
+    // cached call (hits and misses). Negative when the cache costs more than it saves.
+    public long savedNanos() { return savedNanos.sum(); }
+
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    // Current total weight of all entries.
+    public long weight() {
+        long w = 0;
+        for (Stripe s : stripes) w += s.weight();
+        return w;
+    }
+
+    // -------------------- Internals --------------------
+
+    private record Entry(int totalCents, long costNanos) {
+    }
+
+    /**
+     * Order-insensitive cart key for one plan: commutative hash, multiset equality.
+     *
+     * A probe wraps the caller's list without copying it; retain() copies the lines for a key that is stored.
+     */
+    static final class CartKey {
+        private final PricingPlan plan;
+        private final List<OrderPricing.LineItem> lines;
+        private final long hash;
+
+        private CartKey(PricingPlan plan, List<OrderPricing.LineItem> lines, long hash) {
+            this.plan = plan;
+            this.lines = lines;
+            this.hash = hash;
+        }
+
+        static CartKey probe(PricingPlan plan, List<OrderPricing.LineItem> items) {
+            long hash = System.identityHashCode(plan) * 0x9E3779B97F4A7C15L + items.size();
+            for (OrderPricing.LineItem it : items) {
+                Objects.requireNonNull(it, "null item");
+                hash += lineHash(it);
+            }
+            return new CartKey(plan, items, hash);
+        }
+
+        CartKey retain() {
+            return new CartKey(plan, List.copyOf(lines), hash);
+        }
+
+        int weight() {
+            return lines.size() + 1;
+        }
+
+        private static long lineHash(OrderPricing.LineItem it) {
+            long h = it.sku().hashCode() * 0x9E3779B97F4A7C15L + it.quantity();
+            h = h * 0xC2B2AE3D27D4EB4FL + it.unitPriceCents();
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            return h ^ (h >>> 33);
+        }
+
+        // Walks both carts in step; only a reordered remainder is sorted and compared.
+        private static boolean sameLines(List<OrderPricing.LineItem> a, List<OrderPricing.LineItem> b) {
+            int remaining = a.size();
+            Iterator<OrderPricing.LineItem> ia = a.iterator();
+            Iterator<OrderPricing.LineItem> ib = b.iterator();
+            while (ia.hasNext()) {
+                OrderPricing.LineItem x = ia.next();
+                OrderPricing.LineItem y = ib.next();
+                if (!x.equals(y)) {
+                    return sameSorted(x, ia, y, ib, remaining);
+                }
+                remaining--;
+            }
+            return true;
+        }
+
+        private static boolean sameSorted(OrderPricing.LineItem x, Iterator<OrderPricing.LineItem> ia,
+                                          OrderPricing.LineItem y, Iterator<OrderPricing.LineItem> ib, int n) {
+            OrderPricing.LineItem[] restA = new OrderPricing.LineItem[n];
+            OrderPricing.LineItem[] restB = new OrderPricing.LineItem[n];
+            restA[0] = x;
+            restB[0] = y;
+            for (int i = 1; i < n; i++) {
+                restA[i] = ia.next();
+                restB[i] = ib.next();
+            }
+            Arrays.sort(restA, CANONICAL_ORDER);
+            Arrays.sort(restB, CANONICAL_ORDER);
+            return Arrays.equals(restA, restB);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CartKey k && k.hash == hash && k.plan == plan && k.lines.size() == lines.size()
+                    && sameLines(k.lines, lines);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+
+    /**
+     * One lock-protected LRU segment with its own weight budget.
+     */
+    private static final class Stripe {
+        private final LinkedHashMap<CartKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        synchronized Entry get(CartKey key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(CartKey key, Entry entry, long maxWeight, LongAdder evictions) {
+            Entry old = entries.put(key, entry);
+            if (old == null) weight += key.weight();
+            Iterator<Map.Entry<CartKey, Entry>> eldest = entries.entrySet().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                CartKey victim = eldest.next().getKey();
+                if (victim == key) continue;
+                eldest.remove();
+                weight -= victim.weight();
+                evictions.increment();
+            }
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package edu.kettering.buildTestLab;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Single-pass subtotal and quantity kernels for large carts.
+ *
+ * Both sums are accumulated in long, so a cart whose subtotal or quantity does not fit the int totals used by
+ * OrderPricing is rejected with an ArithmeticException when the sums are narrowed, instead of silently wrapping.
+ */
+final class PricingKernel {
+
+    /**
+     * Exact sums over some lines of a cart.
+     */
+    record Totals(long subtotalCents, long quantity) {
+
+        // Subtotal as an int; ArithmeticException if it does not fit.
+        int subtotalAsInt() {
+            if (subtotalCents != (int) subtotalCents) throw new ArithmeticException("cart subtotal overflows int cents");
+            return (int) subtotalCents;
+        }
+
+        // Quantity as an int; ArithmeticException if it does not fit.
+        int quantityAsInt() {
+            if (quantity != (int) quantity) throw new ArithmeticException("cart quantity overflows int");
+            return (int) quantity;
+        }
+
+        boolean overflows() {
+            return subtotalCents != (int) subtotalCents || quantity != (int) quantity;
+        }
+    }
+
+    private PricingKernel() {
+    }
+
+    /**
+     * Sums lines [from, to) of primitive columns in one pass, four lines per iteration.
+     * Lines are checked like LineItem ("bad qty", "bad price").
+     */
+    static Totals sum(int[] quantities, int[] unitPriceCents, int from, int to) {
+        long subtotal0 = 0, subtotal1 = 0, subtotal2 = 0, subtotal3 = 0;
+        long qty0 = 0, qty1 = 0, qty2 = 0, qty3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            int q0 = quantities[i], q1 = quantities[i + 1], q2 = quantities[i + 2], q3 = quantities[i + 3];
+            int p0 = unitPriceCents[i], p1 = unitPriceCents[i + 1], p2 = unitPriceCents[i + 2], p3 = unitPriceCents[i + 3];
+            if ((q0 | q0 - 1 | q1 | q1 - 1 | q2 | q2 - 1 | q3 | q3 - 1 | p0 | p1 | p2 | p3) < 0) {
+                checkLines(quantities, unitPriceCents, i, i + 4);
+            }
+            subtotal0 += (long) q0 * p0;
+            subtotal1 += (long) q1 * p1;
+            subtotal2 += (long) q2 * p2;
+            subtotal3 += (long) q3 * p3;
+            qty0 += q0;
+            qty1 += q1;
+            qty2 += q2;
+            qty3 += q3;
+        }
+        for (; i < to; i++) {
+            int q = quantities[i];
+            int p = unitPriceCents[i];
+            if ((q | q - 1 | p) < 0) checkLines(quantities, unitPriceCents, i, i + 1);
+            subtotal0 += (long) q * p;
+            qty0 += q;
+        }
+        return new Totals(subtotal0 + subtotal1 + subtotal2 + subtotal3, qty0 + qty1 + qty2 + qty3);
+    }
+
+    /**
+     * Sums a cart in one pass, also doing totalCents' null-item check.
+     */
+    static Totals sum(List<OrderPricing.LineItem> items) {
+        long subtotal = 0;
+        long qty = 0;
+        for (OrderPricing.LineItem it : items) {
+            Objects.requireNonNull(it, "null item");
+            subtotal += (long) it.quantity() * it.unitPriceCents();
+            qty += it.quantity();
+        }
+        return new Totals(subtotal, qty);
+    }
+
+    // Slow path: find the first bad line in [from, to) and reject it with LineItem's message.
+    private static void checkLines(int[] quantities, int[] unitPriceCents, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (quantities[i] <= 0) throw new IllegalArgumentException("bad qty");
+            if (unitPriceCents[i] < 0) throw new IllegalArgumentException("bad price");
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package edu.kettering.buildTestLab;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in instrumentation for pricing: totalCents latency by cart size, and how often the cart-level rules fire.
+ *
+ * Off unless the JVM starts with -Dedu.kettering.buildTestLab.pricingMetrics=true. The switch is a static final
+ * flag read once, so when it is off the JIT drops the instrumented branches entirely. When it is on:
+ *  - OrderPricing.totalCents(List) records its latency in a log-linear histogram for the cart's size class
+ *    (0, 1, 2-3, 4-7, ... lines; about 3% relative precision)
+ *  - every non-empty cart priced by that same call counts whether shipping was charged, whether a quantity bonus
+ *    applied and whether the total had to be clamped to 0; the bulk, file, buffer and cart paths are not counted
+ *  - global() is registered with the platform MBean server under OBJECT_NAME
+ * snapshot() copies everything at once; snapshotEvery() delivers snapshots on a background thread.
+ */
+public final class PricingMetrics implements PricingMetricsMXBean {
+
+    public static final boolean ENABLED = Boolean.getBoolean("edu.kettering.buildTestLab.pricingMetrics");
+    public static final String OBJECT_NAME = "edu.kettering.buildTestLab:type=PricingMetrics";
+
+    // Size class k holds carts of 2^(k-1) .. 2^k - 1 lines (class 0: empty); the last class is open-ended.
+    public static final int SIZE_CLASSES = 18;
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR = 2 * SUB_BUCKETS;
+    private static final int MAX_SHIFT = 40 - SUB_BITS;   // values from 2^40 ns (about 18 minutes) share a bucket
+    private static final int BUCKETS = LINEAR + MAX_SHIFT * SUB_BUCKETS;
+
+    private static final PricingMetrics GLOBAL = new PricingMetrics();
+
+    static {
+        if (ENABLED) GLOBAL.register();
+    }
+
+    private final AtomicLongArray[] latencies = new AtomicLongArray[SIZE_CLASSES];
+    private final LongAdder carts = new LongAdder();
+    private final LongAdder shippingCharged = new LongAdder();
+    private final LongAdder bonusApplied = new LongAdder();
+    private final LongAdder clamped = new LongAdder();
+
+    public PricingMetrics() {
+        for (int k = 0; k < SIZE_CLASSES; k++) latencies[k] = new AtomicLongArray(BUCKETS);
+    }
+
+    // The instance pricing code records into (only when ENABLED).
+    public static PricingMetrics global() {
+        return GLOBAL;
+    }
+
+    // -------------------- Recording --------------------
+
+    public void recordLatency(int lines, long nanos) {
+        latencies[sizeClass(lines)].incrementAndGet(bucketOf(nanos));
+    }
+
+    // Outcome of the cart-level rules for one priced cart; raw total is before clamping to 0.
+    public void recordRules(int shippingCents, int bonusCents, int rawTotalCents) {
+        carts.increment();
+        if (shippingCents > 0) shippingCharged.increment();
+        if (bonusCents > 0) bonusApplied.increment();
+        if (rawTotalCents < 0) clamped.increment();
+    }
+
+    // -------------------- Reading --------------------
+
+    /**
+     * Copies all counters and histograms. Recording continues meanwhile, so a snapshot taken under load may be a
+     * few events from exact.
+     */
+    public Snapshot snapshot() {
+        long[][] counts = new long[SIZE_CLASSES][BUCKETS];
+        for (int k = 0; k < SIZE_CLASSES; k++) {
+            for (int b = 0; b < BUCKETS; b++) counts[k][b] = latencies[k].get(b);
+        }
+        return new Snapshot(System.currentTimeMillis(), carts.sum(), shippingCharged.sum(), bonusApplied.sum(),
+                clamped.sum(), counts);
+    }
+
+    /**
+     * Calls sink with a fresh snapshot every period on a daemon thread until the returned handle is closed.
+     * Snapshot.since turns two consecutive snapshots into the activity between them.
+     */
+    public AutoCloseable snapshotEvery(Duration period, Consumer<Snapshot> sink) {
+        if (period == null || period.isNegative() || period.isZero()) throw new IllegalArgumentException("bad period");
+        if (sink == null) throw new IllegalArgumentException("sink is null");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pricing-metrics-snapshots");
+            t.setDaemon(true);
+            return t;
+        });
+        long nanos = period.toNanos();
+        scheduler.scheduleAtFixedRate(() -> sink.accept(snapshot()), nanos, nanos, TimeUnit.NANOSECONDS);
+        return scheduler::shutdownNow;
+    }
+
+    /**
+     * Registers this instance with the platform MBean server under OBJECT_NAME; does nothing if that name is taken.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // registered before
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    // -------------------- PricingMetricsMXBean --------------------
+
+    @Override
+    public long getPricedCarts() { return carts.sum(); }
+
+    @Override
+    public long getShippingCharged() { return shippingCharged.sum(); }
+
+    @Override
+    public long getBulkBonusApplied() { return bonusApplied.sum(); }
+
+    @Override
+    public long getClampActivations() { return clamped.sum(); }
+
+    @Override
+    public Map<String, Long> getTimedCallsBySize() { return snapshot().bySize(-1); }
+
+    @Override
+    public Map<String, Long> getP50NanosBySize() { return snapshot().bySize(0.50); }
+
+    @Override
+    public Map<String, Long> getP99NanosBySize() { return snapshot().bySize(0.99); }
+
+    @Override
+    public Map<String, Long> getP999NanosBySize() { return snapshot().bySize(0.999); }
+
+    // -------------------- Buckets --------------------
+
+    static int sizeClass(int lines) {
+        return Math.min(SIZE_CLASSES - 1, 32 - Integer.numberOfLeadingZeros(lines));
+    }
+
+    // Label of a size class, e.g. "4-7".
+    public static String sizeLabel(int sizeClass) {
+        if (sizeClass == 0) return "0";
+        long low = 1L << (sizeClass - 1);
+        if (sizeClass == SIZE_CLASSES - 1) return low + "+";
+        long high = (1L << sizeClass) - 1;
+        return low == high ? Long.toString(low) : low + "-" + high;
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < LINEAR) return nanos < 0 ? 0 : (int) nanos;
+        int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BITS;
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (nanos >>> shift) - SUB_BUCKETS;
+    }
+
+    static long bucketUpperBound(int bucket) {
+        if (bucket < LINEAR) return bucket;
+        int shift = (bucket - LINEAR) / SUB_BUCKETS + 1;
+        long mantissa = SUB_BUCKETS + (bucket - LINEAR) % SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    // -------------------- Snapshot --------------------
+
+    /**
+     * Point-in-time copy of a PricingMetrics. Immutable.
+     */
+    public static final class Snapshot {
+        private final long takenAtMillis;
+        private final long pricedCarts;
+        private final long shippingCharged;
+        private final long bulkBonusApplied;
+        private final long clampActivations;
+        private final long[][] latencyCounts;   // [size class][bucket]
+
+        private Snapshot(long takenAtMillis, long pricedCarts, long shippingCharged, long bulkBonusApplied,
+                         long clampActivations, long[][] latencyCounts) {
+            this.takenAtMillis = takenAtMillis;
+            this.pricedCarts = pricedCarts;
+            this.shippingCharged = shippingCharged;
+            this.bulkBonusApplied = bulkBonusApplied;
+            this.clampActivations = clampActivations;
+            this.latencyCounts = latencyCounts;
+        }
+
+        public long takenAtMillis() { return takenAtMillis; }
+
+        public long pricedCarts() { return pricedCarts; }
+
+        public long shippingCharged() { return shippingCharged; }
+
+        public long freeShipping() { return pricedCarts - shippingCharged; }
+
+        public long bulkBonusApplied() { return bulkBonusApplied; }
+
+        public long clampActivations() { return clampActivations; }
+
+        // Number of timed totalCents calls for carts in sizeClass.
+        public long timedCalls(int sizeClass) {
+            long n = 0;
+            for (long c : latencyCounts[sizeClass]) n += c;
+            return n;
+        }
+
+        /**
+         * Latency (ns, bucket upper bound) that fraction (0 to 1) of the timed calls in sizeClass did not exceed;
+         * 0 when there were none.
+         */
+        public long percentileNanos(int sizeClass, double fraction) {
+            long total = timedCalls(sizeClass);
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            long[] counts = latencyCounts[sizeClass];
+            for (int b = 0; b < counts.length; b++) {
+                seen += counts[b];
+                if (seen >= rank) return bucketUpperBound(b);
+            }
+            return bucketUpperBound(counts.length - 1);
+        }
+
+        /**
+         * What happened between earlier and this snapshot (both taken from the same PricingMetrics).
+         */
+        public Snapshot since(Snapshot earlier) {
+            long[][] counts = new long[SIZE_CLASSES][BUCKETS];
+            for (int k = 0; k < SIZE_CLASSES; k++) {
+                for (int b = 0; b < BUCKETS; b++) counts[k][b] = latencyCounts[k][b] - earlier.latencyCounts[k][b];
+            }
+            return new Snapshot(takenAtMillis, pricedCarts - earlier.pricedCarts,
+                    shippingCharged - earlier.shippingCharged, bulkBonusApplied - earlier.bulkBonusApplied,
+                    clampActivations - earlier.clampActivations, counts);
+        }
+
+        // Per size-class label: the percentile, or the number of timed calls when fraction is negative.
+        // Size classes without calls are left out.
+        Map<String, Long> bySize(double fraction) {
+            Map<String, Long> out = new LinkedHashMap<>();
+            for (int k = 0; k < SIZE_CLASSES; k++) {
+                long n = timedCalls(k);
+                if (n > 0) out.put(sizeLabel(k), fraction < 0 ? n : percentileNanos(k, fraction));
+            }
+            return out;
+        }
+
+        @Override
+        public String toString() {
+            return "PricingMetrics.Snapshot[carts=" + pricedCarts + ", shippingCharged=" + shippingCharged
+                    + ", bulkBonusApplied=" + bulkBonusApplied + ", clamped=" + clampActivations
+                    + ", p99NanosBySize=" + bySize(0.99) + "]";
+        }
+    }
+}
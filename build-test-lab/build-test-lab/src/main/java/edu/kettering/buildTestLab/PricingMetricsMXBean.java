@@ -0,0 +1,25 @@
+package edu.kettering.buildTestLab;
+
+import java.util.Map;
+
+/**
+ * JMX view of PricingMetrics. Maps are keyed by cart size class ("1", "2-3", "4-7", ...); latencies in nanoseconds.
+ */
+public interface PricingMetricsMXBean {
+
+    long getPricedCarts();
+
+    long getShippingCharged();
+
+    long getBulkBonusApplied();
+
+    long getClampActivations();
+
+    Map<String, Long> getTimedCallsBySize();
+
+    Map<String, Long> getP50NanosBySize();
+
+    Map<String, Long> getP99NanosBySize();
+
+    Map<String, Long> getP999NanosBySize();
+}
@@ -0,0 +1,177 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable, compiled set of pricing rules.
+ *
+ * A cart is priced in one pass over its lines:
+ *  - subtotal = sum(quantity * unit price), where a SkuDiscount lowers the unit price of its SKU (not below 0)
+ *  - a PercentageDiscount takes percent of the subtotal off (rounded down)
+ *  - ThresholdShipping adds its shipping unless the discounted subtotal reaches the threshold
+ *  - the largest QuantityBonus tier reached by the total quantity comes off
+ *  - total is never negative; an empty cart costs 0
+ * Totals are int cents, like the original totalCents; a cart whose subtotal, quantity or total does not fit in an
+ * int is rejected with an ArithmeticException instead of wrapping. Plans are safe to share between threads.
+ */
+public final class PricingPlan {
+
+    /**
+     * The rules OrderPricing was originally hard-coded with.
+     */
+    public static final PricingPlan DEFAULT = compile(List.of(
+            new PricingRule.ThresholdShipping(OrderPricing.FREE_SHIPPING_THRESHOLD_CENTS, OrderPricing.SHIPPING_CENTS),
+            new PricingRule.QuantityBonus(OrderPricing.BULK_QTY_THRESHOLD, OrderPricing.BULK_BONUS_CENTS)));
+
+    private final List<PricingRule> rules;
+    private final int freeShippingAtCents;
+    private final int shippingCents;
+    private final int percentOff;
+    private final int[] bonusMinQuantity;   // ascending
+    private final int[] bonusCents;
+    private final Map<String, Integer> skuCentsOff;
+
+    private PricingPlan(List<PricingRule> rules, int freeShippingAtCents, int shippingCents, int percentOff,
+                        int[] bonusMinQuantity, int[] bonusCents, Map<String, Integer> skuCentsOff) {
+        this.rules = rules;
+        this.freeShippingAtCents = freeShippingAtCents;
+        this.shippingCents = shippingCents;
+        this.percentOff = percentOff;
+        this.bonusMinQuantity = bonusMinQuantity;
+        this.bonusCents = bonusCents;
+        this.skuCentsOff = skuCentsOff;
+    }
+
+    /**
+     * Compiles rules into a plan. At most one ThresholdShipping and one PercentageDiscount are allowed, and
+     * QuantityBonus tiers and SkuDiscounts must not repeat a quantity or SKU. Without a shipping rule, shipping is free.
+     */
+    public static PricingPlan compile(List<? extends PricingRule> rules) {
+        if (rules == null) throw new IllegalArgumentException("rules is null");
+        PricingRule.ThresholdShipping shipping = null;
+        PricingRule.PercentageDiscount percentage = null;
+        List<PricingRule.QuantityBonus> tiers = new ArrayList<>();
+        Map<String, Integer> skuCentsOff = new HashMap<>();
+
+        for (PricingRule rule : rules) {
+            Objects.requireNonNull(rule, "null rule");
+            if (rule instanceof PricingRule.ThresholdShipping s) {
+                if (shipping != null) throw new IllegalArgumentException("duplicate shipping rule");
+                shipping = s;
+            } else if (rule instanceof PricingRule.PercentageDiscount p) {
+                if (percentage != null) throw new IllegalArgumentException("duplicate percentage discount");
+                percentage = p;
+            } else if (rule instanceof PricingRule.QuantityBonus q) {
+                tiers.add(q);
+            } else if (rule instanceof PricingRule.SkuDiscount d) {
+                if (skuCentsOff.put(d.sku(), d.centsOffPerUnit()) != null) {
+                    throw new IllegalArgumentException("duplicate discount for " + d.sku());
+                }
+            }
+        }
+
+        tiers.sort((a, b) -> Integer.compare(a.minQuantity(), b.minQuantity()));
+        int[] minQuantity = new int[tiers.size()];
+        int[] bonus = new int[tiers.size()];
+        for (int i = 0; i < tiers.size(); i++) {
+            minQuantity[i] = tiers.get(i).minQuantity();
+            bonus[i] = tiers.get(i).bonusCents();
+            if (i > 0 && minQuantity[i] == minQuantity[i - 1]) {
+                throw new IllegalArgumentException("duplicate bonus tier " + minQuantity[i]);
+            }
+        }
+
+        return new PricingPlan(
+                List.copyOf(rules),
+                shipping == null ? 0 : shipping.freeAtCents(),
+                shipping == null ? 0 : shipping.shippingCents(),
+                percentage == null ? 0 : percentage.percent(),
+                minQuantity, bonus,
+                Collections.unmodifiableMap(skuCentsOff));
+    }
+
+    // The rules this plan was compiled from.
+    public List<PricingRule> rules() {
+        return rules;
+    }
+
+    // True if some line prices depend on the SKU (such plans cannot price SKU-less columnar input).
+    public boolean hasSkuDiscounts() {
+        return !skuCentsOff.isEmpty();
+    }
+
+    /**
+     * Prices one cart in a single pass over its lines.
+     */
+    public int totalCents(List<OrderPricing.LineItem> items) {
+        return totalCents(items, null);
+    }
+
+    // totalCents that also records the cart-level rule outcome into metrics, when it is not null.
+    int totalCents(List<OrderPricing.LineItem> items, PricingMetrics metrics) {
+        if (items == null) throw new IllegalArgumentException("items is null");
+        if (items.isEmpty()) {
+            return 0;
+        }
+        long subtotal = 0;
+        long qty = 0;
+        for (OrderPricing.LineItem it : items) {
+            Objects.requireNonNull(it, "null item");
+            subtotal += (long) it.quantity() * unitPriceCents(it);
+            qty += it.quantity();
+        }
+        PricingKernel.Totals totals = new PricingKernel.Totals(subtotal, qty);
+        return priceFromTotals(totals.subtotalAsInt(), totals.quantityAsInt(), metrics);
+    }
+
+    /**
+     * Applies the cart-level rules (percentage, shipping, quantity bonus, clamp) to a non-empty cart's subtotal and
+     * total quantity. The subtotal must already include any SKU discounts.
+     */
+    int priceFromTotals(int subtotalCents, int totalQty) {
+        return priceFromTotals(subtotalCents, totalQty, null);
+    }
+
+    private int priceFromTotals(int subtotalCents, int totalQty, PricingMetrics metrics) {
+        int subtotal = subtotalCents - percentOffCents(subtotalCents);
+        int shipping = (subtotal >= freeShippingAtCents) ? 0 : shippingCents;
+        int bonus = bonusCents(totalQty);
+        int total = Math.toIntExact((long) subtotal + shipping - bonus);
+        if (metrics != null) metrics.recordRules(shipping, bonus, total);
+
+        return Math.max(0, total);
+    }
+
+    // Unit price of a line after its SKU discount.
+    int unitPriceCents(OrderPricing.LineItem item) {
+        return unitPriceCents(item.sku(), item.unitPriceCents());
+    }
+
+    // Unit price of sku after its SKU discount, given its undiscounted price.
+    int unitPriceCents(String sku, int listPriceCents) {
+        if (skuCentsOff.isEmpty()) return listPriceCents;
+        Integer off = skuCentsOff.get(sku);
+        return off == null ? listPriceCents : Math.max(0, listPriceCents - off);
+    }
+
+    private int percentOffCents(int subtotalCents) {
+        return percentOff == 0 ? 0 : (int) ((long) subtotalCents * percentOff / 100);
+    }
+
+    private int bonusCents(int totalQty) {
+        int tier = Arrays.binarySearch(bonusMinQuantity, totalQty);
+        if (tier < 0) tier = -tier - 2;   // largest tier with minQuantity < totalQty
+        return tier < 0 ? 0 : bonusCents[tier];
+    }
+
+    @Override
+    public String toString() {
+        return "PricingPlan" + rules;
+    }
+}
@@ -0,0 +1,48 @@
+package edu.kettering.buildTestLab;
+
+/**
+ * One pricing rule. Rules are plain data; PricingPlan.compile turns a list of them into an evaluator.
+ * Validation is done at construction time.
+ */
+public sealed interface PricingRule {
+
+    /**
+     * Shipping costs shippingCents unless the (discounted) subtotal is at least freeAtCents.
+     */
+    record ThresholdShipping(int freeAtCents, int shippingCents) implements PricingRule {
+        public ThresholdShipping {
+            if (freeAtCents < 0) throw new IllegalArgumentException("bad threshold");
+            if (shippingCents < 0) throw new IllegalArgumentException("bad shipping");
+        }
+    }
+
+    /**
+     * bonusCents come off the total when the cart holds at least minQuantity units.
+     * With several tiers only the largest reached tier applies.
+     */
+    record QuantityBonus(int minQuantity, int bonusCents) implements PricingRule {
+        public QuantityBonus {
+            if (minQuantity <= 0) throw new IllegalArgumentException("bad qty");
+            if (bonusCents < 0) throw new IllegalArgumentException("bad bonus");
+        }
+    }
+
+    /**
+     * Every unit of sku costs centsOffPerUnit less (never below 0).
+     */
+    record SkuDiscount(String sku, int centsOffPerUnit) implements PricingRule {
+        public SkuDiscount {
+            if (sku == null || sku.isBlank()) throw new IllegalArgumentException("bad sku");
+            if (centsOffPerUnit < 0) throw new IllegalArgumentException("bad discount");
+        }
+    }
+
+    /**
+     * percent of the subtotal comes off before shipping is decided (rounded down to whole cents off).
+     */
+    record PercentageDiscount(int percent) implements PricingRule {
+        public PercentageDiscount {
+            if (percent < 0 || percent > 100) throw new IllegalArgumentException("bad percent");
+        }
+    }
+}
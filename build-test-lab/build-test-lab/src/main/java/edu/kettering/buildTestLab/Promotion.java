@@ -0,0 +1,54 @@
+package edu.kettering.buildTestLab;
+
+/**
+ * One marketing promotion, layered on top of a PricingPlan by PromotionEngine.
+ *
+ * Every promotion has a unique id and a priority; when promotions compete, the lower priority wins and ties go to
+ * the smaller id, so the outcome never depends on the order promotions were registered in.
+ * Validation is done at construction time.
+ */
+public sealed interface Promotion {
+
+    String id();
+
+    int priority();
+
+    /**
+     * Every unit of sku costs centsOffPerUnit less (never below 0). Stacks with other SkuCentsOff for the same SKU.
+     */
+    record SkuCentsOff(String id, int priority, String sku, int centsOffPerUnit) implements Promotion {
+        public SkuCentsOff {
+            checkId(id);
+            if (sku == null || sku.isBlank()) throw new IllegalArgumentException("bad sku");
+            if (centsOffPerUnit < 0) throw new IllegalArgumentException("bad discount");
+        }
+    }
+
+    /**
+     * On a line of sku, every group of buy + free units has its last free units at no charge.
+     * Only one BuyNGetM applies per SKU.
+     */
+    record BuyNGetM(String id, int priority, String sku, int buy, int free) implements Promotion {
+        public BuyNGetM {
+            checkId(id);
+            if (sku == null || sku.isBlank()) throw new IllegalArgumentException("bad sku");
+            if (buy <= 0 || free <= 0 || buy > Integer.MAX_VALUE - free) throw new IllegalArgumentException("bad qty");
+        }
+    }
+
+    /**
+     * centsOff comes off a cart whose subtotal after SKU promotions is at least minSubtotalCents (never below 0).
+     * Only one BasketThreshold applies per cart.
+     */
+    record BasketThreshold(String id, int priority, int minSubtotalCents, int centsOff) implements Promotion {
+        public BasketThreshold {
+            checkId(id);
+            if (minSubtotalCents < 0) throw new IllegalArgumentException("bad threshold");
+            if (centsOff < 0) throw new IllegalArgumentException("bad discount");
+        }
+    }
+
+    private static void checkId(String id) {
+        if (id == null || id.isBlank()) throw new IllegalArgumentException("bad id");
+    }
+}
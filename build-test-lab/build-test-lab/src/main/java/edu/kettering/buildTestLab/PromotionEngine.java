@@ -0,0 +1,162 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable, indexed set of promotions applied on top of an OrderPricing's plan.
+ *
+ * Stacking, in this order:
+ *  - per line, the plan's SKU discount applies first, then every SkuCentsOff for the SKU (unit price never below 0)
+ *  - of the BuyNGetM promotions for the SKU, only the first in stacking order applies to the line
+ *  - of the BasketThreshold promotions the resulting subtotal reaches, only the first in stacking order applies
+ *  - the plan's cart-level rules (percentage, shipping, quantity bonus, clamp) price the rest
+ * Stacking order is (priority, id), ascending. Lines are independent: two lines of one SKU do not pool their units.
+ *
+ * Nothing is evaluated per promotion at pricing time. compile() folds the promotions of each SKU into one index
+ * entry (total cents off, winning BuyNGetM) and sorts basket thresholds with, for each prefix, the winner among
+ * them; a cart costs one hash lookup per line plus one binary search, however many promotions exist.
+ */
+public final class PromotionEngine {
+
+    public static final Comparator<Promotion> STACKING_ORDER =
+            Comparator.comparingInt(Promotion::priority).thenComparing(Promotion::id);
+
+    public static final PromotionEngine NONE = compile(List.of());
+
+    private final List<Promotion> promotions;
+    private final Map<String, SkuEntry> bySku;
+    private final int[] basketMinSubtotal;                    // ascending
+    private final Promotion.BasketThreshold[] basketWinner;  // [i]: first in stacking order among thresholds 0..i
+
+    private PromotionEngine(List<Promotion> promotions, Map<String, SkuEntry> bySku, int[] basketMinSubtotal,
+                            Promotion.BasketThreshold[] basketWinner) {
+        this.promotions = promotions;
+        this.bySku = bySku;
+        this.basketMinSubtotal = basketMinSubtotal;
+        this.basketWinner = basketWinner;
+    }
+
+    /**
+     * Indexes promotions. Ids must be unique.
+     */
+    public static PromotionEngine compile(List<? extends Promotion> promotions) {
+        if (promotions == null) throw new IllegalArgumentException("promotions is null");
+        List<Promotion> sorted = new ArrayList<>(promotions.size());
+        Set<String> ids = new HashSet<>();
+        for (Promotion p : promotions) {
+            Objects.requireNonNull(p, "null promotion");
+            if (!ids.add(p.id())) throw new IllegalArgumentException("duplicate promotion " + p.id());
+            sorted.add(p);
+        }
+        sorted.sort(STACKING_ORDER);
+
+        Map<String, SkuEntry> bySku = new HashMap<>();
+        List<Promotion.BasketThreshold> baskets = new ArrayList<>();
+        for (Promotion p : sorted) {
+            if (p instanceof Promotion.SkuCentsOff c) {
+                bySku.merge(c.sku(), new SkuEntry(c.centsOffPerUnit(), null), SkuEntry::stack);
+            } else if (p instanceof Promotion.BuyNGetM b) {
+                bySku.merge(b.sku(), new SkuEntry(0, b), SkuEntry::stack);
+            } else if (p instanceof Promotion.BasketThreshold t) {
+                baskets.add(t);
+            }
+        }
+
+        // Stable sort: among equal thresholds, stacking order is kept.
+        baskets.sort(Comparator.comparingInt(Promotion.BasketThreshold::minSubtotalCents));
+        int[] minSubtotal = new int[baskets.size()];
+        Promotion.BasketThreshold[] winner = new Promotion.BasketThreshold[baskets.size()];
+        for (int i = 0; i < baskets.size(); i++) {
+            Promotion.BasketThreshold t = baskets.get(i);
+            minSubtotal[i] = t.minSubtotalCents();
+            winner[i] = (i == 0 || STACKING_ORDER.compare(t, winner[i - 1]) < 0) ? t : winner[i - 1];
+        }
+
+        return new PromotionEngine(List.copyOf(sorted), bySku, minSubtotal, winner);
+    }
+
+    // All promotions, in stacking order.
+    public List<Promotion> promotions() {
+        return promotions;
+    }
+
+    /**
+     * Prices a cart with pricing's current plan and these promotions. Without matching promotions the result is
+     * exactly pricing.totalCents(items).
+     */
+    public int totalCents(OrderPricing pricing, List<OrderPricing.LineItem> items) {
+        if (pricing == null) throw new IllegalArgumentException("pricing is null");
+        return totalCents(pricing.plan(), items);
+    }
+
+    int totalCents(PricingPlan plan, List<OrderPricing.LineItem> items) {
+        if (items == null) throw new IllegalArgumentException("items is null");
+        if (items.isEmpty()) {
+            return 0;
+        }
+        long lineSum = 0;
+        long qty = 0;
+        for (OrderPricing.LineItem it : items) {
+            Objects.requireNonNull(it, "null item");
+            int unit = plan.unitPriceCents(it);
+            SkuEntry entry = bySku.isEmpty() ? null : bySku.get(it.sku());
+            lineSum += entry == null ? (long) it.quantity() * unit : entry.lineCents(it.quantity(), unit);
+            qty += it.quantity();
+        }
+        PricingKernel.Totals totals = new PricingKernel.Totals(lineSum, qty);
+        int subtotal = totals.subtotalAsInt();
+        Promotion.BasketThreshold basket = basketFor(subtotal);
+        if (basket != null) subtotal = Math.max(0, subtotal - basket.centsOff());
+        return plan.priceFromTotals(subtotal, totals.quantityAsInt());
+    }
+
+    /**
+     * The BasketThreshold that applies to a cart whose subtotal after SKU promotions is subtotalCents, or null.
+     */
+    public Promotion.BasketThreshold basketFor(int subtotalCents) {
+        int lo = 0;
+        int hi = basketMinSubtotal.length;   // first threshold above subtotalCents
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (basketMinSubtotal[mid] <= subtotalCents) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo == 0 ? null : basketWinner[lo - 1];
+    }
+
+    @Override
+    public String toString() {
+        return "PromotionEngine[" + promotions.size() + " promotions, " + bySku.size() + " SKUs, "
+                + basketMinSubtotal.length + " basket thresholds]";
+    }
+
+    // -------------------- Internals --------------------
+
+    /**
+     * Everything the promotions of one SKU do to a line: total cents off per unit, and the BuyNGetM that wins.
+     * Built by merging promotions in stacking order, so the first BuyNGetM seen is the winner.
+     */
+    private record SkuEntry(int centsOffPerUnit, Promotion.BuyNGetM buyNGetM) {
+
+        SkuEntry stack(SkuEntry later) {
+            long off = Math.min(Integer.MAX_VALUE, (long) centsOffPerUnit + later.centsOffPerUnit);
+            return new SkuEntry((int) off, buyNGetM != null ? buyNGetM : later.buyNGetM);
+        }
+
+        long lineCents(int quantity, int unitPriceCents) {
+            int unit = Math.max(0, unitPriceCents - centsOffPerUnit);
+            int charged = quantity;
+            if (buyNGetM != null) {
+                charged -= (quantity / (buyNGetM.buy() + buyNGetM.free())) * buyNGetM.free();
+            }
+            return (long) charged * unit;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Central SKU price catalog sized for millions of SKUs.
+ *
+ * SKU strings are interned to dense int ids. Instead of a HashMap<String, Integer> (one String, one entry and one
+ * Integer object per SKU) the catalog keeps all SKU characters in one char[] arena with an int[] of offsets, an
+ * open-addressing int[] table for lookups, and prices in an int[] indexed by id: a handful of arrays in total.
+ *
+ * Lookups never allocate: idOf() hashes the String (its hash is cached by String) and compares characters in place.
+ *
+ * Writers use Load: a load collects new prices and commits them all at once by swapping a single reference, so a
+ * reader sees either every price of a load or none. Ids never change once assigned. Loads are serialized; readers
+ * never block.
+ */
+public final class SkuCatalog {
+
+    /**
+     * Immutable catalog state: the SKU index and the price table, published together.
+     */
+    private static final class State {
+        final char[] chars;      // SKU characters, back to back
+        final int[] offsets;     // SKU id i occupies chars[offsets[i] .. offsets[i + 1])
+        final int[] table;       // open addressing: id + 1, or 0 for an empty slot; length is a power of two
+        final int size;
+        final int[] prices;      // by id
+
+        State(char[] chars, int[] offsets, int[] table, int size, int[] prices) {
+            this.chars = chars;
+            this.offsets = offsets;
+            this.table = table;
+            this.size = size;
+            this.prices = prices;
+        }
+
+        int idOf(String sku) {
+            return find(chars, offsets, table, sku);
+        }
+    }
+
+    private volatile State state = new State(new char[0], new int[1], new int[16], 0, new int[0]);
+
+    // -------------------- Reads --------------------
+
+    /**
+     * Id of sku, or -1 if the catalog does not know it.
+     */
+    public int idOf(String sku) {
+        if (sku == null) throw new IllegalArgumentException("sku is null");
+        return state.idOf(sku);
+    }
+
+    // SKU string of an id (allocates; for display and debugging).
+    public String sku(int id) {
+        State s = state;
+        checkId(s, id);
+        return new String(s.chars, s.offsets[id], s.offsets[id + 1] - s.offsets[id]);
+    }
+
+    public int priceCents(int id) {
+        State s = state;
+        checkId(s, id);
+        return s.prices[id];
+    }
+
+    public int size() {
+        return state.size;
+    }
+
+    /**
+     * Prices a cart from catalog prices, ignoring each line's own unitPriceCents, with pricing's current plan.
+     * All lines are priced from the same load. Unknown SKUs are rejected.
+     */
+    public int totalCents(OrderPricing pricing, List<OrderPricing.LineItem> items) {
+        if (items == null) throw new IllegalArgumentException("items is null");
+        PricingPlan plan = pricing.plan();
+        State s = state;
+        if (items.isEmpty()) return 0;
+        long subtotal = 0;
+        long qty = 0;
+        for (OrderPricing.LineItem it : items) {
+            Objects.requireNonNull(it, "null item");
+            int id = s.idOf(it.sku());
+            if (id < 0) throw new IllegalArgumentException("unknown sku " + it.sku());
+            subtotal += (long) it.quantity() * plan.unitPriceCents(it.sku(), s.prices[id]);
+            qty += it.quantity();
+        }
+        PricingKernel.Totals totals = new PricingKernel.Totals(subtotal, qty);
+        return plan.priceFromTotals(totals.subtotalAsInt(), totals.quantityAsInt());
+    }
+
+    // -------------------- Writes --------------------
+
+    public Load newLoad() {
+        return new Load();
+    }
+
+    /**
+     * A batch of price changes, applied atomically by commit(). SKUs not in the catalog yet are added.
+     * Not thread-safe; use one Load per loading thread.
+     */
+    public final class Load {
+        private final List<String> skus = new ArrayList<>();
+        private int[] cents = new int[16];
+
+        private Load() {
+        }
+
+        public Load price(String sku, int priceCents) {
+            if (sku == null || sku.isBlank()) throw new IllegalArgumentException("bad sku");
+            if (priceCents < 0) throw new IllegalArgumentException("bad price");
+            if (skus.size() == cents.length) cents = Arrays.copyOf(cents, cents.length * 2);
+            cents[skus.size()] = priceCents;
+            skus.add(sku);
+            return this;
+        }
+
+        // Publishes every price of this load at once. Later entries for the same SKU win.
+        public void commit() {
+            SkuCatalog.this.commit(skus, cents);
+            skus.clear();
+        }
+    }
+
+    private synchronized void commit(List<String> skus, int[] cents) {
+        State old = state;
+        int[] ids = new int[skus.size()];
+        int newSkus = 0;
+        int newChars = 0;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = old.idOf(skus.get(i));
+            if (ids[i] < 0) {
+                newSkus++;
+                newChars += skus.get(i).length();
+            }
+        }
+
+        State next = newSkus == 0 ? old : withNewSkus(old, skus, ids, newSkus, newChars);
+        int[] prices = Arrays.copyOf(old.prices, next.size);
+        for (int i = 0; i < ids.length; i++) {
+            prices[ids[i]] = cents[i];
+        }
+        state = new State(next.chars, next.offsets, next.table, next.size, prices);
+    }
+
+    // Copy of old that also holds the load's unknown SKUs (ids[i] < 0), filling in their new ids.
+    private static State withNewSkus(State old, List<String> skus, int[] ids, int moreSkus, int moreChars) {
+        int size = old.size;
+        char[] chars = Arrays.copyOf(old.chars, old.offsets[size] + moreChars);
+        int[] offsets = Arrays.copyOf(old.offsets, size + moreSkus + 1);
+        int[] table;
+        if ((size + moreSkus) * 2L > old.table.length) {
+            table = new int[Integer.highestOneBit((size + moreSkus) * 2 - 1) << 1];
+            for (int id = 0; id < size; id++) {
+                insert(table, spread(hashOf(chars, offsets[id], offsets[id + 1])), id);
+            }
+        } else {
+            table = old.table.clone();
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] >= 0) continue;
+            String sku = skus.get(i);
+            int id = find(chars, offsets, table, sku);   // a new SKU may repeat within one load
+            if (id < 0) {
+                id = size++;
+                sku.getChars(0, sku.length(), chars, offsets[id]);
+                offsets[id + 1] = offsets[id] + sku.length();
+                insert(table, spread(sku.hashCode()), id);
+            }
+            ids[i] = id;
+        }
+        return new State(chars, offsets, table, size, old.prices);
+    }
+
+    private static int find(char[] chars, int[] offsets, int[] table, String sku) {
+        int mask = table.length - 1;
+        for (int slot = spread(sku.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) return -1;
+            if (matches(chars, offsets, entry - 1, sku)) return entry - 1;
+        }
+    }
+
+    private static boolean matches(char[] chars, int[] offsets, int id, String sku) {
+        int start = offsets[id];
+        int length = offsets[id + 1] - start;
+        if (length != sku.length()) return false;
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != sku.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static void insert(int[] table, int hash, int id) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) slot = (slot + 1) & mask;
+        table[slot] = id + 1;
+    }
+
+    // Same value as String.hashCode() for the characters in [from, to).
+    private static int hashOf(char[] chars, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + chars[i];
+        return h;
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static void checkId(State s, int id) {
+        if (id < 0 || id >= s.size) throw new IllegalArgumentException("unknown id " + id);
+    }
+}
@@ -0,0 +1,90 @@
+package edu.kettering.buildTestLab;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class CartTest {
+
+    private final OrderPricing pricing = new OrderPricing();
+
+    @Test
+    void emptyCartReturnsZero() {
+        Cart cart = new Cart(pricing);
+
+        assertEquals(0, cart.totalCents());
+        assertTrue(cart.isEmpty());
+    }
+
+    @Test
+    void lineUpdatesKeepTotalsCurrent() {
+        Cart cart = new Cart(pricing);
+
+        cart.put(new OrderPricing.LineItem("PEN", 9, 200));
+        assertEquals(1800 + OrderPricing.SHIPPING_CENTS, cart.totalCents());
+
+        cart.setQuantity("PEN", 10);
+        assertEquals(2499, cart.totalCents());
+
+        cart.put(new OrderPricing.LineItem("LAPTOP", 1, 5000));
+        assertEquals(7000 - OrderPricing.BULK_BONUS_CENTS, cart.totalCents());
+        assertEquals(11, cart.totalQuantity());
+
+        assertTrue(cart.remove("PEN"));
+        assertFalse(cart.remove("PEN"));
+        assertEquals(5000, cart.totalCents());
+        assertThrows(IllegalArgumentException.class, () -> cart.setQuantity("PEN", 1));
+        assertThrows(IllegalArgumentException.class, () -> cart.setQuantity("LAPTOP", 0));
+    }
+
+    @Test
+    void randomEditsMatchTotalCents() {
+        Random random = new Random(99);
+        Cart cart = new Cart(pricing);
+
+        for (int step = 0; step < 5_000; step++) {
+            String sku = "SKU-" + random.nextInt(40);
+            switch (random.nextInt(3)) {
+                case 0 -> cart.put(new OrderPricing.LineItem(sku, 1 + random.nextInt(5), random.nextInt(4000)));
+                case 1 -> {
+                    if (cart.line(sku) != null) cart.setQuantity(sku, 1 + random.nextInt(5));
+                }
+                default -> cart.remove(sku);
+            }
+            assertEquals(pricing.totalCents(cart.items()), cart.totalCents(), "step " + step);
+        }
+    }
+
+    @Test
+    void planSwapIsPickedUpOnNextRead() {
+        Cart cart = new Cart(pricing);
+        cart.put(new OrderPricing.LineItem("PEN", 10, 200));
+        cart.put(new OrderPricing.LineItem("BOOK", 1, 1000));
+        assertEquals(3000 + 799 - 300, cart.totalCents());
+
+        pricing.setPlan(PricingPlan.compile(List.of(new PricingRule.SkuDiscount("PEN", 100))));
+
+        assertEquals(2000, cart.totalCents());
+        assertEquals(pricing.totalCents(cart.items()), cart.totalCents());
+        cart.setQuantity("PEN", 5);
+        assertEquals(1500, cart.totalCents());
+    }
+
+    @Test
+    void overflowingCartIsRejectedLikeTotalCents() {
+        Cart cart = new Cart(pricing);
+        cart.put(new OrderPricing.LineItem("PEN", 1, 200));
+        cart.put(new OrderPricing.LineItem("BULK", 50_000, 50_000));
+
+        assertThrows(ArithmeticException.class, () -> pricing.totalCents(cart.items()));
+        assertThrows(ArithmeticException.class, cart::totalCents);
+
+        cart.remove("BULK");
+        assertEquals(200 + OrderPricing.SHIPPING_CENTS, cart.totalCents());
+    }
+}
@@ -0,0 +1,127 @@
+package edu.kettering.buildTestLab;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OrderFilePricerTest {
+
+    @TempDir
+    Path dir;
+
+    private final OrderPricing pricing = new OrderPricing();
+
+    private Path write(String name, List<String> lines) throws IOException {
+        return Files.write(dir.resolve(name), lines, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void csvTotalsMatchTotalCentsInInputOrder() throws IOException {
+        Random random = new Random(1);
+        List<String> lines = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        lines.add("orderId,sku,quantity,unitPriceCents");
+        for (int o = 0; o < 3_000; o++) {
+            List<OrderPricing.LineItem> cart = new ArrayList<>();
+            int n = 1 + random.nextInt(7);
+            for (int l = 0; l < n; l++) {
+                var item = new OrderPricing.LineItem("SKU-" + random.nextInt(50), 1 + random.nextInt(6), random.nextInt(4000));
+                cart.add(item);
+                lines.add("O-" + o + "," + item.sku() + "," + item.quantity() + "," + item.unitPriceCents());
+            }
+            expected.add("O-" + o + "," + pricing.totalCents(cart));
+        }
+        Path output = dir.resolve("totals.csv");
+
+        var result = new OrderFilePricer(pricing, OrderFilePricer.Format.CSV, 3, 64, 2)
+                .price(write("orders.csv", lines), output, e -> { throw new AssertionError(e); });
+
+        assertEquals(expected, Files.readAllLines(output));
+        assertEquals(3_000, result.orders());
+        assertEquals(0, result.rejectedOrders());
+    }
+
+    @Test
+    void malformedLinesAreReportedAndTheirOrdersSkipped() throws IOException {
+        List<String> lines = List.of(
+                "A,PEN,10,200",
+                "B, ,1,100",
+                "B,BOOK,1,1000",
+                "C,PEN,0,200",
+                "D,PEN,1,-5",
+                "E,PEN,x,200",
+                "F,PEN,1",
+                "",
+                "G,LAPTOP,1,5000");
+        List<String> errors = new ArrayList<>();
+        Path output = dir.resolve("totals.csv");
+
+        var result = new OrderFilePricer(pricing, OrderFilePricer.Format.CSV, 2, 2, 1)
+                .price(write("orders.csv", lines), output, errors::add);
+
+        assertEquals(List.of("A,2499", "G,5000"), Files.readAllLines(output));
+        assertEquals(List.of("line 2: bad sku", "line 4: bad qty", "line 5: bad price", "line 6: bad qty",
+                "line 7: bad line"), errors);
+        assertEquals(5, result.rejectedOrders());
+        assertEquals(7, result.orders());
+    }
+
+    @Test
+    void overflowingOrdersAreReportedAndSkipped() throws IOException {
+        List<String> lines = List.of("A,PEN,10,200", "B,PEN,1,100", "B,BULK,50000,50000", "C,BOOK,1,1000");
+        List<String> errors = new ArrayList<>();
+        Path output = dir.resolve("totals.csv");
+
+        var result = new OrderFilePricer(pricing, OrderFilePricer.Format.CSV, 2, 2, 1)
+                .price(write("orders.csv", lines), output, errors::add);
+
+        assertEquals(List.of("A,2499", "C,1799"), Files.readAllLines(output));
+        assertEquals(List.of("line 2: cart subtotal overflows int cents"), errors);
+        assertEquals(1, result.rejectedOrders());
+        assertEquals(3, result.orders());
+    }
+
+    @Test
+    void ndjsonUsesSameRules() throws IOException {
+        List<String> lines = List.of(
+                "{\"orderId\":\"A\",\"sku\":\"PEN\",\"quantity\":10,\"unitPriceCents\":200}",
+                "{ \"unitPriceCents\": 1000, \"quantity\": 1, \"sku\": \"BOOK\", \"orderId\": \"B\", \"note\": \"gift\" }",
+                "{\"orderId\":\"C\",\"sku\":\"PEN\",\"quantity\":-1,\"unitPriceCents\":200}",
+                "{\"orderId\":\"D\",\"sku\":\"PEN\"");
+        List<String> errors = new ArrayList<>();
+        Path output = dir.resolve("totals.csv");
+
+        new OrderFilePricer(pricing, OrderFilePricer.Format.NDJSON, 1, 16, 4)
+                .price(write("orders.ndjson", lines), output, errors::add);
+
+        assertEquals(List.of("A,2499", "B,1799"), Files.readAllLines(output));
+        assertEquals(List.of("line 3: bad qty", "line 4: bad line"), errors);
+    }
+
+    @Test
+    void skuDiscountPlansMatchTotalCents() throws IOException {
+        pricing.setPlan(PricingPlan.compile(List.of(
+                new PricingRule.SkuDiscount("PEN", 50),
+                new PricingRule.ThresholdShipping(5000, 799))));
+        List<String> lines = List.of("A,PEN,10,200", "A,BOOK,1,1000", "B,PEN,2,30", "C,BOOK,5,1000");
+        Path output = dir.resolve("totals.csv");
+
+        new OrderFilePricer(pricing, OrderFilePricer.Format.CSV, 2, 2, 2)
+                .price(write("orders.csv", lines), output, e -> { throw new AssertionError(e); });
+
+        assertEquals(List.of(
+                "A," + pricing.totalCents(List.of(new OrderPricing.LineItem("PEN", 10, 200),
+                        new OrderPricing.LineItem("BOOK", 1, 1000))),
+                "B," + pricing.totalCents(List.of(new OrderPricing.LineItem("PEN", 2, 30))),
+                "C," + pricing.totalCents(List.of(new OrderPricing.LineItem("BOOK", 5, 1000)))),
+                Files.readAllLines(output));
+    }
+}
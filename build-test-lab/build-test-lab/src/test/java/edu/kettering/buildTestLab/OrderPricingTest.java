@@ -1,6 +1,8 @@
 package edu.kettering.buildTestLab;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -92,4 +94,66 @@ class OrderPricingTest {
         assertThrows(IllegalArgumentException.class,
                 () -> pricing.totalCents(null));
     }
+
+    // -------------------- Bulk pricing tests --------------------
+
+    @Test
+    void bulkTotalsMatchPerOrderTotals() {
+        Random random = new Random(42);
+        int orders = 20_000;
+        int[] offsets = new int[orders + 1];
+        List<Integer> qty = new ArrayList<>();
+        List<Integer> price = new ArrayList<>();
+        List<List<OrderPricing.LineItem>> carts = new ArrayList<>();
+        for (int o = 0; o < orders; o++) {
+            List<OrderPricing.LineItem> cart = new ArrayList<>();
+            int lines = random.nextInt(6);   // includes empty orders
+            for (int l = 0; l < lines; l++) {
+                int q = 1 + random.nextInt(8);
+                int p = random.nextInt(3000);
+                cart.add(new OrderPricing.LineItem("SKU-" + l, q, p));
+                qty.add(q);
+                price.add(p);
+            }
+            carts.add(cart);
+            offsets[o + 1] = qty.size();
+        }
+        int[] totals = new int[orders];
+
+        pricing.totalCents(offsets, qty.stream().mapToInt(Integer::intValue).toArray(),
+                price.stream().mapToInt(Integer::intValue).toArray(), totals);
+
+        for (int o = 0; o < orders; o++) {
+            assertEquals(pricing.totalCents(carts.get(o)), totals[o], "order " + o);
+        }
+    }
+
+    @Test
+    void bulkTotalsRejectOverflowLikeTotalCents() {
+        int[] totals = new int[1];
+
+        ArithmeticException bulk = assertThrows(ArithmeticException.class,
+                () -> pricing.totalCents(new int[]{0, 1}, new int[]{50_000}, new int[]{50_000}, totals));
+        ArithmeticException single = assertThrows(ArithmeticException.class,
+                () -> pricing.totalCents(List.of(new OrderPricing.LineItem("BULK_ITEM", 50_000, 50_000))));
+
+        assertEquals(single.getMessage(), bulk.getMessage());
+    }
+
+    @Test
+    void bulkRejectsBadLinesAndOffsets() {
+        int[] totals = new int[1];
+
+        IllegalArgumentException qty = assertThrows(IllegalArgumentException.class,
+                () -> pricing.totalCents(new int[]{0, 1}, new int[]{0}, new int[]{100}, totals));
+        IllegalArgumentException price = assertThrows(IllegalArgumentException.class,
+                () -> pricing.totalCents(new int[]{0, 1}, new int[]{1}, new int[]{-1}, totals));
+
+        assertEquals("bad qty", qty.getMessage());
+        assertEquals("bad price", price.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> pricing.totalCents(new int[]{0, 2}, new int[]{1}, new int[]{1}, totals));
+        assertThrows(IllegalArgumentException.class,
+                () -> pricing.totalCents(new int[]{0, 1, 2}, new int[]{1, 1}, new int[]{1, 1}, totals));
+    }
 }
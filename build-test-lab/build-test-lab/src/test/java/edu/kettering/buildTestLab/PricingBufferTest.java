@@ -0,0 +1,86 @@
+package edu.kettering.buildTestLab;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class PricingBufferTest {
+
+    private final OrderPricing pricing = new OrderPricing();
+
+    @Test
+    void totalsMatchTotalCentsAcrossReuse() {
+        Random random = new Random(17);
+        PricingBuffer buffer = new PricingBuffer(pricing, 2);
+
+        for (int cart = 0; cart < 2_000; cart++) {
+            List<OrderPricing.LineItem> items = new ArrayList<>();
+            buffer.clear();
+            int lines = random.nextInt(12);
+            for (int l = 0; l < lines; l++) {
+                int qty = 1 + random.nextInt(5);
+                int price = random.nextInt(3000);
+                items.add(new OrderPricing.LineItem("SKU-" + l, qty, price));
+                buffer.append(l, qty, price);
+            }
+            assertEquals(pricing.totalCents(items), buffer.totalCents(), "cart " + cart);
+            assertEquals(lines, buffer.size());
+        }
+    }
+
+    @Test
+    void appendValidatesLikeLineItem() {
+        PricingBuffer buffer = new PricingBuffer(pricing, 4);
+
+        assertEquals("bad sku", assertThrows(IllegalArgumentException.class, () -> buffer.append(-1, 1, 1)).getMessage());
+        assertEquals("bad qty", assertThrows(IllegalArgumentException.class, () -> buffer.append(1, 0, 1)).getMessage());
+        assertEquals("bad price", assertThrows(IllegalArgumentException.class, () -> buffer.append(1, 1, -1)).getMessage());
+        assertEquals("bad qty", assertThrows(IllegalArgumentException.class, () -> buffer.append(1, -1, -1)).getMessage());
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.totalCents());
+    }
+
+    @Test
+    void overflowingCartIsRejectedLikeTotalCents() {
+        PricingBuffer buffer = new PricingBuffer(pricing, 4).append(1, 1, 200).append(2, 50_000, 50_000);
+        var items = List.of(new OrderPricing.LineItem("PEN", 1, 200), new OrderPricing.LineItem("BULK", 50_000, 50_000));
+
+        assertThrows(ArithmeticException.class, () -> pricing.totalCents(items));
+        assertThrows(ArithmeticException.class, buffer::totalCents);
+    }
+
+    @Test
+    void planWithSkuDiscountsIsRejected() {
+        PricingBuffer buffer = new PricingBuffer(pricing, 4).append(1, 1, 100);
+        pricing.setPlan(PricingPlan.compile(List.of(new PricingRule.SkuDiscount("PEN", 10))));
+
+        assertThrows(IllegalStateException.class, buffer::totalCents);
+    }
+
+    @Test
+    void steadyStateAllocatesNothing() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PricingBuffer buffer = new PricingBuffer(pricing, 16);
+        long sink = 0;
+        for (int i = 0; i < 20_000; i++) sink += priceOne(buffer, i);   // warm up
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 200_000; i++) sink += priceOne(buffer, i);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(sink > 0);
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+
+    private static int priceOne(PricingBuffer buffer, int i) {
+        buffer.clear();
+        for (int l = 0; l < 10; l++) buffer.append(l, 1 + (i + l) % 3, 100 + l);
+        return buffer.totalCents();
+    }
+}
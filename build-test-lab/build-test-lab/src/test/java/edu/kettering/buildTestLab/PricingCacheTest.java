@@ -0,0 +1,139 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class PricingCacheTest {
+
+    private final OrderPricing pricing = new OrderPricing();
+
+    private static final OrderPricing.LineItem PEN = new OrderPricing.LineItem("PEN", 10, 200);
+    private static final OrderPricing.LineItem BOOK = new OrderPricing.LineItem("BOOK", 1, 1000);
+
+    @Test
+    void reorderedCartHitsSameEntry() {
+        PricingCache cache = new PricingCache(pricing, 1000);
+
+        assertEquals(pricing.totalCents(List.of(PEN, BOOK)), cache.totalCents(List.of(PEN, BOOK)));
+        assertEquals(pricing.totalCents(List.of(PEN, BOOK)), cache.totalCents(List.of(BOOK, PEN)));
+
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(0.5, cache.hitRate(), 0.0);
+    }
+
+    @Test
+    void differentMultisetsDoNotCollide() {
+        PricingCache cache = new PricingCache(pricing, 1000);
+        var twoPens = List.of(new OrderPricing.LineItem("PEN", 5, 200), new OrderPricing.LineItem("PEN", 5, 200));
+        var onePen = List.of(new OrderPricing.LineItem("PEN", 10, 200));
+        var cheapPen = List.of(new OrderPricing.LineItem("PEN", 10, 100));
+
+        assertEquals(pricing.totalCents(twoPens), cache.totalCents(twoPens));
+        assertEquals(pricing.totalCents(onePen), cache.totalCents(onePen));
+        assertEquals(pricing.totalCents(cheapPen), cache.totalCents(cheapPen));
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    void planSwapNeverReturnsStaleTotals() {
+        PricingCache cache = new PricingCache(pricing, 1000);
+        cache.totalCents(List.of(PEN));
+
+        pricing.setPlan(PricingPlan.compile(List.of(new PricingRule.PercentageDiscount(50))));
+
+        assertEquals(1000, cache.totalCents(List.of(PEN)));
+        assertEquals(0, cache.hits());
+        assertEquals(4, cache.weight());
+    }
+
+    @Test
+    void alternatingPlansKeepEachPlansEntries() {
+        PricingCache cache = new PricingCache(pricing, 1000);
+        PricingPlan original = pricing.plan();
+        PricingPlan halfOff = PricingPlan.compile(List.of(new PricingRule.PercentageDiscount(50)));
+
+        for (int i = 0; i < 10; i++) {
+            pricing.setPlan(i % 2 == 0 ? original : halfOff);
+            assertEquals(i % 2 == 0 ? 2499 : 1000, cache.totalCents(List.of(PEN)));
+        }
+
+        assertEquals(2, cache.misses());
+        assertEquals(8, cache.hits());
+        cache.invalidateAll();
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    void reorderedCartsWithRepeatedLinesCompareAsMultisets() {
+        PricingCache cache = new PricingCache(pricing, 1000);
+        var cheap = new OrderPricing.LineItem("PEN", 1, 100);
+
+        cache.totalCents(List.of(PEN, PEN, BOOK, cheap));
+        cache.totalCents(List.of(PEN, BOOK, cheap, PEN));
+        cache.totalCents(List.of(PEN, BOOK, BOOK, cheap));
+
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void weightStaysWithinBoundAndEvictsLeastRecentlyUsed() {
+        PricingCache cache = new PricingCache(pricing, 10, 1);
+        List<List<OrderPricing.LineItem>> carts = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) carts.add(List.of(new OrderPricing.LineItem("SKU-" + i, i, 100)));
+
+        for (var cart : carts) cache.totalCents(cart);
+
+        assertTrue(cache.weight() <= 10);
+        assertEquals(1, cache.evictions());
+        cache.totalCents(carts.get(0));
+        assertEquals(0, cache.hits());
+
+        var tooBig = new ArrayList<OrderPricing.LineItem>();
+        for (int i = 0; i < 20; i++) tooBig.add(new OrderPricing.LineItem("BIG-" + i, 1, 1));
+        assertEquals(pricing.totalCents(tooBig), cache.totalCents(tooBig));
+        assertEquals(1, cache.bypassed());
+    }
+
+    @Test
+    void nullInputsBehaveLikeTotalCents() {
+        PricingCache cache = new PricingCache(pricing, 1000);
+        var withNull = new ArrayList<OrderPricing.LineItem>();
+        withNull.add(PEN);
+        withNull.add(null);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.totalCents(null));
+        assertThrows(NullPointerException.class, () -> cache.totalCents(withNull));
+    }
+
+    @Test
+    void concurrentUseReturnsCorrectTotals() throws InterruptedException {
+        PricingCache cache = new PricingCache(pricing, 200, 4);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            workers.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 20_000; i++) {
+                    var cart = List.of(new OrderPricing.LineItem("SKU-" + random.nextInt(100), 1 + random.nextInt(12), 450));
+                    if (cache.totalCents(cart) != pricing.totalCents(cart)) wrong.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+
+        assertEquals(0, wrong.get());
+        assertTrue(cache.weight() <= 200);
+        assertTrue(cache.hits() > 0);
+    }
+}
@@ -0,0 +1,102 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class PricingKernelTest {
+
+    private final OrderPricing pricing = new OrderPricing();
+
+    // Reference: the three-pass int arithmetic of the original totalCents.
+    private static int referenceTotal(List<OrderPricing.LineItem> items) {
+        int subtotal = 0;
+        int qty = 0;
+        for (OrderPricing.LineItem it : items) subtotal += it.lineTotalCents();
+        for (OrderPricing.LineItem it : items) qty += it.quantity();
+        int shipping = subtotal >= OrderPricing.FREE_SHIPPING_THRESHOLD_CENTS ? 0 : OrderPricing.SHIPPING_CENTS;
+        int bonus = qty >= OrderPricing.BULK_QTY_THRESHOLD ? OrderPricing.BULK_BONUS_CENTS : 0;
+        return Math.max(0, subtotal + shipping - bonus);
+    }
+
+    private static List<OrderPricing.LineItem> randomCart(Random random, int lines, int maxQty, int maxPrice) {
+        List<OrderPricing.LineItem> cart = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            cart.add(new OrderPricing.LineItem("SKU-" + i, 1 + random.nextInt(maxQty), random.nextInt(maxPrice)));
+        }
+        return cart;
+    }
+
+    @Test
+    void largeCartsMatchThreePassTotals() {
+        Random random = new Random(7);
+        for (int lines : new int[]{64, 65, 1000, 5003}) {
+            List<OrderPricing.LineItem> cart = randomCart(random, lines, 20, 5000);
+
+            assertEquals(referenceTotal(cart), pricing.totalCents(cart), "lines=" + lines);
+        }
+    }
+
+    @Test
+    void smallCartsMatchThreePassTotals() {
+        Random random = new Random(9);
+        for (int lines : new int[]{1, 3, 63}) {
+            List<OrderPricing.LineItem> cart = randomCart(random, lines, 20, 5000);
+
+            assertEquals(referenceTotal(cart), pricing.totalCents(cart), "lines=" + lines);
+        }
+    }
+
+    @Test
+    void overflowingCartsAreRejectedInsteadOfWrapping() {
+        List<OrderPricing.LineItem> cart = randomCart(new Random(11), 3000, 50_000, 50_000);
+
+        PricingKernel.Totals totals = PricingKernel.sum(cart);
+
+        assertTrue(totals.overflows());
+        assertThrows(ArithmeticException.class, totals::subtotalAsInt);
+        assertThrows(ArithmeticException.class, () -> pricing.totalCents(cart));
+    }
+
+    @Test
+    void arrayKernelMatchesListKernel() {
+        List<OrderPricing.LineItem> cart = randomCart(new Random(3), 1001, 100, 10_000);
+        int[] qty = cart.stream().mapToInt(OrderPricing.LineItem::quantity).toArray();
+        int[] price = cart.stream().mapToInt(OrderPricing.LineItem::unitPriceCents).toArray();
+
+        PricingKernel.Totals fromArrays = PricingKernel.sum(qty, price, 0, qty.length);
+
+        assertEquals(PricingKernel.sum(cart), fromArrays);
+        assertFalse(fromArrays.overflows());
+    }
+
+    @Test
+    void arrayKernelRejectsBadLinesInAnyLane() {
+        for (int lane = 0; lane < 7; lane++) {
+            int[] qty = {1, 1, 1, 1, 1, 1, 1};
+            int[] price = {1, 1, 1, 1, 1, 1, 1};
+            qty[lane] = Integer.MIN_VALUE;
+            price[6 - lane] = -1;
+            String expected = lane <= 6 - lane ? "bad qty" : "bad price";
+
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> PricingKernel.sum(qty, price, 0, qty.length));
+
+            assertEquals(expected, e.getMessage(), "lane=" + lane);
+        }
+    }
+
+    @Test
+    void largeCartWithNullItemThrowsNullPointerException() {
+        List<OrderPricing.LineItem> cart = new ArrayList<>(randomCart(new Random(5), 100, 5, 500));
+        cart.set(50, null);
+
+        assertThrows(NullPointerException.class, () -> pricing.totalCents(cart));
+    }
+}
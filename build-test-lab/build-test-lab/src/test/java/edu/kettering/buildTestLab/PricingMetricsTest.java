@@ -0,0 +1,135 @@
+package edu.kettering.buildTestLab;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class PricingMetricsTest {
+
+    @Test
+    void disabledByDefaultAndRecordsNothing() {
+        OrderPricing pricing = new OrderPricing();
+        pricing.totalCents(List.of(new OrderPricing.LineItem("PEN", 12, 100)));
+
+        assertFalse(PricingMetrics.ENABLED);
+        assertEquals(0, PricingMetrics.global().getPricedCarts());
+        assertEquals(0, PricingMetrics.global().snapshot().timedCalls(PricingMetrics.sizeClass(1)));
+    }
+
+    @Test
+    void countsRuleOutcomes() {
+        PricingMetrics metrics = new PricingMetrics();
+        metrics.recordRules(799, 0, 1799);     // shipping charged
+        metrics.recordRules(0, 300, 5700);     // free shipping, bonus
+        metrics.recordRules(799, 300, -1);     // clamped
+
+        PricingMetrics.Snapshot s = metrics.snapshot();
+        assertEquals(3, s.pricedCarts());
+        assertEquals(2, s.shippingCharged());
+        assertEquals(1, s.freeShipping());
+        assertEquals(2, s.bulkBonusApplied());
+        assertEquals(1, s.clampActivations());
+    }
+
+    @Test
+    void latencyPercentilesPerSizeClass() {
+        PricingMetrics metrics = new PricingMetrics();
+        for (int i = 1; i <= 1000; i++) metrics.recordLatency(3, i * 100L);
+        metrics.recordLatency(500, 1_000_000);
+
+        PricingMetrics.Snapshot s = metrics.snapshot();
+        int small = PricingMetrics.sizeClass(3);
+        assertEquals("2-3", PricingMetrics.sizeLabel(small));
+        assertEquals(1000, s.timedCalls(small));
+        assertEquals(50_000, s.percentileNanos(small, 0.50), 50_000 / 32.0);
+        assertEquals(99_000, s.percentileNanos(small, 0.99), 99_000 / 32.0);
+        assertEquals(1, s.timedCalls(PricingMetrics.sizeClass(500)));
+        assertEquals(0, s.percentileNanos(PricingMetrics.sizeClass(1), 0.5));
+        assertEquals("65536+", PricingMetrics.sizeLabel(PricingMetrics.sizeClass(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void bucketsCoverEveryValue() {
+        for (long v : new long[]{0, 1, 63, 64, 65, 1_000_003, 1L << 40, Long.MAX_VALUE}) {
+            int b = PricingMetrics.bucketOf(v);
+            assertTrue(b == PricingMetrics.bucketOf(Long.MAX_VALUE) || v <= PricingMetrics.bucketUpperBound(b), "value " + v);
+            assertTrue(b == 0 || v > PricingMetrics.bucketUpperBound(b - 1), "value " + v);
+        }
+    }
+
+    @Test
+    void sinceGivesTheActivityBetweenSnapshots() {
+        PricingMetrics metrics = new PricingMetrics();
+        metrics.recordRules(799, 0, 899);
+        metrics.recordLatency(1, 500);
+        PricingMetrics.Snapshot first = metrics.snapshot();
+        metrics.recordRules(0, 0, 6000);
+        metrics.recordLatency(1, 700);
+
+        PricingMetrics.Snapshot delta = metrics.snapshot().since(first);
+        assertEquals(1, delta.pricedCarts());
+        assertEquals(0, delta.shippingCharged());
+        assertEquals(1, delta.timedCalls(PricingMetrics.sizeClass(1)));
+        assertEquals(700, delta.percentileNanos(PricingMetrics.sizeClass(1), 1.0), 700 / 32.0);
+    }
+
+    @Test
+    void planRecordsRuleOutcomeIntoGivenMetrics() {
+        PricingMetrics metrics = new PricingMetrics();
+        var cart = List.of(new OrderPricing.LineItem("PEN", 12, 100));
+
+        assertEquals(1699, PricingPlan.DEFAULT.totalCents(cart, metrics));
+        PricingMetrics.Snapshot s = metrics.snapshot();
+        assertEquals(1, s.pricedCarts());
+        assertEquals(1, s.shippingCharged());
+        assertEquals(1, s.bulkBonusApplied());
+    }
+
+    @Test
+    void periodicSnapshotsUntilClosed() throws Exception {
+        PricingMetrics metrics = new PricingMetrics();
+        metrics.recordRules(0, 0, 100);
+        BlockingQueue<PricingMetrics.Snapshot> received = new ArrayBlockingQueue<>(100);
+
+        AutoCloseable handle = metrics.snapshotEvery(Duration.ofMillis(10), received::offer);
+        try {
+            PricingMetrics.Snapshot s = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(s);
+            assertEquals(1, s.pricedCarts());
+        } finally {
+            handle.close();
+        }
+    }
+
+    @Test
+    void exposedThroughJmx() throws Exception {
+        PricingMetrics metrics = new PricingMetrics();
+        metrics.recordRules(799, 300, 0);
+        metrics.recordLatency(10, 2_000);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(PricingMetrics.OBJECT_NAME);
+
+        metrics.register();
+        try {
+            assertEquals(1L, server.getAttribute(name, "PricedCarts"));
+            assertEquals(1L, server.getAttribute(name, "BulkBonusApplied"));
+            TabularData p99 = (TabularData) server.getAttribute(name, "P99NanosBySize");
+            assertEquals(1, p99.size());
+            assertNotNull(p99.get(new Object[]{"8-15"}));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
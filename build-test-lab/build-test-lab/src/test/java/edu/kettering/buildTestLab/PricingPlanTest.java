@@ -0,0 +1,114 @@
+package edu.kettering.buildTestLab;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class PricingPlanTest {
+
+    private static final List<OrderPricing.LineItem> PENS = List.of(new OrderPricing.LineItem("PEN", 10, 200));
+
+    @Test
+    void defaultPlanMatchesOriginalConstants() {
+        OrderPricing pricing = new OrderPricing();
+
+        assertSame(PricingPlan.DEFAULT, pricing.plan());
+        assertEquals(2499, pricing.totalCents(PENS));
+        assertEquals(5000, pricing.totalCents(List.of(new OrderPricing.LineItem("LAPTOP", 1, 5000))));
+        assertEquals(4999 + 799, pricing.totalCents(List.of(new OrderPricing.LineItem("MOUSE", 1, 4999))));
+    }
+
+    @Test
+    void skuDiscountLowersUnitPriceButNotBelowZero() {
+        PricingPlan plan = PricingPlan.compile(List.of(
+                new PricingRule.SkuDiscount("PEN", 50),
+                new PricingRule.SkuDiscount("GIFT", 1000)));
+        List<OrderPricing.LineItem> cart = List.of(
+                new OrderPricing.LineItem("PEN", 4, 200),
+                new OrderPricing.LineItem("GIFT", 1, 300),
+                new OrderPricing.LineItem("BOOK", 1, 1000));
+
+        // 4 * 150 + 0 + 1000, no shipping rule
+        assertEquals(1600, plan.totalCents(cart));
+    }
+
+    @Test
+    void percentageDiscountAppliesBeforeShippingThreshold() {
+        PricingPlan plan = PricingPlan.compile(List.of(
+                new PricingRule.ThresholdShipping(5000, 799),
+                new PricingRule.PercentageDiscount(10)));
+
+        // 5000 - 500 = 4500 -> below threshold, shipping applies
+        assertEquals(4500 + 799, plan.totalCents(List.of(new OrderPricing.LineItem("LAPTOP", 1, 5000))));
+        // 5999 - 599 (rounded down) = 5400 -> free shipping
+        assertEquals(5400, plan.totalCents(List.of(new OrderPricing.LineItem("LAPTOP", 1, 5999))));
+    }
+
+    @Test
+    void largestReachedBonusTierApplies() {
+        PricingPlan plan = PricingPlan.compile(List.of(
+                new PricingRule.QuantityBonus(50, 2000),
+                new PricingRule.QuantityBonus(10, 300),
+                new PricingRule.QuantityBonus(20, 700)));
+
+        assertEquals(9 * 100, plan.totalCents(List.of(new OrderPricing.LineItem("PEN", 9, 100))));
+        assertEquals(1000 - 300, plan.totalCents(List.of(new OrderPricing.LineItem("PEN", 10, 100))));
+        assertEquals(4900 - 700, plan.totalCents(List.of(new OrderPricing.LineItem("PEN", 49, 100))));
+        assertEquals(5000 - 2000, plan.totalCents(List.of(new OrderPricing.LineItem("PEN", 50, 100))));
+        assertEquals(0, plan.totalCents(List.of(new OrderPricing.LineItem("PEN", 60, 10))));
+    }
+
+    @Test
+    void compileRejectsConflictingRules() {
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.compile(List.of(
+                new PricingRule.ThresholdShipping(1, 1), new PricingRule.ThresholdShipping(2, 2))));
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.compile(List.of(
+                new PricingRule.QuantityBonus(5, 1), new PricingRule.QuantityBonus(5, 2))));
+        assertThrows(IllegalArgumentException.class, () -> PricingPlan.compile(List.of(
+                new PricingRule.SkuDiscount("PEN", 1), new PricingRule.SkuDiscount("PEN", 2))));
+        assertThrows(IllegalArgumentException.class, () -> new PricingRule.PercentageDiscount(101));
+    }
+
+    @Test
+    void bulkPricingUsesPlanAndRejectsSkuDiscounts() {
+        OrderPricing pricing = new OrderPricing(PricingPlan.compile(List.of(new PricingRule.PercentageDiscount(50))));
+        int[] totals = new int[1];
+
+        pricing.totalCents(new int[]{0, 1}, new int[]{10}, new int[]{200}, totals);
+        assertEquals(1000, totals[0]);
+
+        pricing.setPlan(PricingPlan.compile(List.of(new PricingRule.SkuDiscount("PEN", 1))));
+        assertThrows(IllegalStateException.class,
+                () -> pricing.totalCents(new int[]{0, 1}, new int[]{10}, new int[]{200}, totals));
+    }
+
+    @Test
+    void concurrentPlanSwapsNeverMixRules() throws InterruptedException {
+        // Both plans price PENS consistently only with their own shipping and bonus together.
+        PricingPlan a = PricingPlan.compile(List.of(
+                new PricingRule.ThresholdShipping(5000, 100), new PricingRule.QuantityBonus(10, 10)));
+        PricingPlan b = PricingPlan.compile(List.of(
+                new PricingRule.ThresholdShipping(5000, 1000), new PricingRule.QuantityBonus(10, 1000)));
+        OrderPricing pricing = new OrderPricing(a);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger bad = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                int total = pricing.totalCents(PENS);
+                if (total != 2090 && total != 2000) bad.incrementAndGet();
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 10_000; i++) pricing.setPlan(i % 2 == 0 ? b : a);
+        stop.set(true);
+        reader.join();
+
+        assertEquals(0, bad.get());
+    }
+}
@@ -0,0 +1,157 @@
+package edu.kettering.buildTestLab;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class PromotionEngineTest {
+
+    private final OrderPricing pricing = new OrderPricing();
+
+    @Test
+    void withoutPromotionsMatchesTotalCents() {
+        List<OrderPricing.LineItem> items = List.of(
+                new OrderPricing.LineItem("PEN", 3, 199),
+                new OrderPricing.LineItem("BOOK", 12, 450));
+
+        assertEquals(pricing.totalCents(items), PromotionEngine.NONE.totalCents(pricing, items));
+        assertEquals(0, PromotionEngine.NONE.totalCents(pricing, List.of()));
+
+        List<OrderPricing.LineItem> overflowing = List.of(new OrderPricing.LineItem("BULK", 50_000, 50_000));
+        assertThrows(ArithmeticException.class, () -> pricing.totalCents(overflowing));
+        assertThrows(ArithmeticException.class, () -> PromotionEngine.NONE.totalCents(pricing, overflowing));
+    }
+
+    @Test
+    void skuPromotionsStackAndOnlyOneBuyNGetMApplies() {
+        PromotionEngine engine = PromotionEngine.compile(List.of(
+                new Promotion.SkuCentsOff("pen-10", 5, "PEN", 10),
+                new Promotion.SkuCentsOff("pen-20", 1, "PEN", 20),
+                new Promotion.BuyNGetM("pen-2for1", 2, "PEN", 1, 1),
+                new Promotion.BuyNGetM("pen-3for2", 1, "PEN", 2, 1)));
+
+        // unit 200 - 30 = 170; 3-for-2 wins on priority: 7 pens -> 2 free -> 5 * 170 = 850, + 799 shipping
+        assertEquals(850 + 799, engine.totalCents(pricing, List.of(new OrderPricing.LineItem("PEN", 7, 200))));
+        // other SKUs are untouched
+        assertEquals(500 + 799, engine.totalCents(pricing, List.of(new OrderPricing.LineItem("INK", 1, 500))));
+    }
+
+    @Test
+    void onlyTheFirstReachedBasketThresholdApplies() {
+        PromotionEngine engine = PromotionEngine.compile(List.of(
+                new Promotion.BasketThreshold("b-20", 3, 2000, 100),
+                new Promotion.BasketThreshold("b-40", 1, 4000, 250),
+                new Promotion.BasketThreshold("b-30", 2, 3000, 900)));
+
+        assertNull(engine.basketFor(1999));
+        assertEquals("b-20", engine.basketFor(2000).id());
+        assertEquals("b-30", engine.basketFor(3500).id());
+        assertEquals("b-40", engine.basketFor(4000).id());
+        // subtotal 3500 - 900 = 2600 + shipping
+        assertEquals(2600 + 799, engine.totalCents(pricing, List.of(new OrderPricing.LineItem("PEN", 1, 3500))));
+    }
+
+    @Test
+    void stackingDoesNotDependOnRegistrationOrder() {
+        List<Promotion> promotions = randomPromotions(new Random(3), 300);
+        List<Promotion> shuffled = new ArrayList<>(promotions);
+        Collections.shuffle(shuffled, new Random(4));
+        PromotionEngine a = PromotionEngine.compile(promotions);
+        PromotionEngine b = PromotionEngine.compile(shuffled);
+
+        assertEquals(a.promotions(), b.promotions());
+        Random random = new Random(5);
+        for (int i = 0; i < 500; i++) {
+            List<OrderPricing.LineItem> cart = randomCart(random);
+            assertEquals(a.totalCents(pricing, cart), b.totalCents(pricing, cart));
+        }
+    }
+
+    @Test
+    void matchesEvaluatingEveryPromotionAgainstEveryLine() {
+        Random random = new Random(11);
+        List<Promotion> promotions = randomPromotions(random, 500);
+        PromotionEngine engine = PromotionEngine.compile(promotions);
+        pricing.setPlan(PricingPlan.compile(List.of(
+                new PricingRule.ThresholdShipping(5000, 799),
+                new PricingRule.QuantityBonus(10, 300),
+                new PricingRule.SkuDiscount("SKU-1", 50))));
+
+        for (int i = 0; i < 2_000; i++) {
+            List<OrderPricing.LineItem> cart = randomCart(random);
+            assertEquals(scanAll(promotions, pricing.plan(), cart), engine.totalCents(pricing, cart), "cart " + i);
+        }
+    }
+
+    @Test
+    void rejectsBadPromotions() {
+        assertThrows(IllegalArgumentException.class, () -> new Promotion.SkuCentsOff(" ", 0, "PEN", 1));
+        assertThrows(IllegalArgumentException.class, () -> new Promotion.SkuCentsOff("p", 0, "PEN", -1));
+        assertThrows(IllegalArgumentException.class, () -> new Promotion.BuyNGetM("p", 0, "PEN", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Promotion.BasketThreshold("p", 0, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> PromotionEngine.compile(List.of(
+                new Promotion.SkuCentsOff("p", 0, "PEN", 1),
+                new Promotion.BasketThreshold("p", 0, 100, 1))));
+    }
+
+    // Reference: every promotion checked against every line, in stacking order.
+    private static int scanAll(List<Promotion> promotions, PricingPlan plan, List<OrderPricing.LineItem> items) {
+        List<Promotion> ordered = new ArrayList<>(promotions);
+        ordered.sort(PromotionEngine.STACKING_ORDER);
+        long lineSum = 0;
+        long qty = 0;
+        for (OrderPricing.LineItem it : items) {
+            int unit = plan.unitPriceCents(it);
+            int charged = it.quantity();
+            boolean bogoApplied = false;
+            for (Promotion p : ordered) {
+                if (p instanceof Promotion.SkuCentsOff c && c.sku().equals(it.sku())) {
+                    unit = Math.max(0, unit - c.centsOffPerUnit());
+                } else if (p instanceof Promotion.BuyNGetM b && b.sku().equals(it.sku()) && !bogoApplied) {
+                    charged -= (it.quantity() / (b.buy() + b.free())) * b.free();
+                    bogoApplied = true;
+                }
+            }
+            lineSum += (long) charged * unit;
+            qty += it.quantity();
+        }
+        int subtotal = Math.toIntExact(lineSum);
+        for (Promotion p : ordered) {
+            if (p instanceof Promotion.BasketThreshold t && subtotal >= t.minSubtotalCents()) {
+                subtotal = Math.max(0, subtotal - t.centsOff());
+                break;
+            }
+        }
+        return plan.priceFromTotals(subtotal, Math.toIntExact(qty));
+    }
+
+    private static List<Promotion> randomPromotions(Random random, int count) {
+        List<Promotion> promotions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String id = "promo-" + i;
+            int priority = random.nextInt(5);
+            String sku = "SKU-" + random.nextInt(40);
+            switch (random.nextInt(3)) {
+                case 0 -> promotions.add(new Promotion.SkuCentsOff(id, priority, sku, random.nextInt(100)));
+                case 1 -> promotions.add(new Promotion.BuyNGetM(id, priority, sku, 1 + random.nextInt(3), 1 + random.nextInt(2)));
+                default -> promotions.add(new Promotion.BasketThreshold(id, priority, random.nextInt(20_000), random.nextInt(2_000)));
+            }
+        }
+        return promotions;
+    }
+
+    private static List<OrderPricing.LineItem> randomCart(Random random) {
+        List<OrderPricing.LineItem> cart = new ArrayList<>();
+        int lines = 1 + random.nextInt(8);
+        for (int l = 0; l < lines; l++) {
+            cart.add(new OrderPricing.LineItem("SKU-" + random.nextInt(60), 1 + random.nextInt(6), random.nextInt(3000)));
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,108 @@
+package edu.kettering.buildTestLab;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+class SkuCatalogTest {
+
+    @Test
+    void internsSkusToStableDenseIds() {
+        SkuCatalog catalog = new SkuCatalog();
+        catalog.newLoad().price("PEN", 200).price("BOOK", 1000).price("PEN", 250).commit();
+
+        assertEquals(2, catalog.size());
+        int pen = catalog.idOf("PEN");
+        assertEquals(0, pen);
+        assertEquals(1, catalog.idOf("BOOK"));
+        assertEquals(-1, catalog.idOf("LAPTOP"));
+        assertEquals(250, catalog.priceCents(pen));
+        assertEquals("BOOK", catalog.sku(1));
+
+        catalog.newLoad().price("LAPTOP", 5000).price("PEN", 300).commit();
+
+        assertEquals(pen, catalog.idOf("PEN"));
+        assertEquals(300, catalog.priceCents(pen));
+        assertEquals(2, catalog.idOf("LAPTOP"));
+    }
+
+    @Test
+    void manySkusSurviveTableGrowth() {
+        SkuCatalog catalog = new SkuCatalog();
+        for (int batch = 0; batch < 10; batch++) {
+            SkuCatalog.Load load = catalog.newLoad();
+            for (int i = 0; i < 10_000; i++) load.price("SKU-" + batch + "-" + i, batch * 10_000 + i);
+            load.commit();
+        }
+
+        assertEquals(100_000, catalog.size());
+        for (int batch = 0; batch < 10; batch++) {
+            for (int i = 0; i < 10_000; i += 997) {
+                int id = catalog.idOf("SKU-" + batch + "-" + i);
+                assertEquals(batch * 10_000 + i, id);
+                assertEquals(id, catalog.priceCents(id));
+            }
+        }
+    }
+
+    @Test
+    void catalogPricingIgnoresLinePricesAndKeepsPlanRules() {
+        SkuCatalog catalog = new SkuCatalog();
+        catalog.newLoad().price("PEN", 200).price("BOOK", 1000).commit();
+        OrderPricing pricing = new OrderPricing();
+        List<OrderPricing.LineItem> cart = List.of(
+                new OrderPricing.LineItem("PEN", 10, 1),
+                new OrderPricing.LineItem("BOOK", 1, 1));
+
+        assertEquals(pricing.totalCents(List.of(
+                new OrderPricing.LineItem("PEN", 10, 200),
+                new OrderPricing.LineItem("BOOK", 1, 1000))), catalog.totalCents(pricing, cart));
+        assertThrows(IllegalArgumentException.class,
+                () -> catalog.totalCents(pricing, List.of(new OrderPricing.LineItem("LAPTOP", 1, 1))));
+    }
+
+    @Test
+    void overflowingCartIsRejectedLikeTotalCents() {
+        SkuCatalog catalog = new SkuCatalog();
+        catalog.newLoad().price("BULK", 50_000).commit();
+        OrderPricing pricing = new OrderPricing();
+        List<OrderPricing.LineItem> cart = List.of(new OrderPricing.LineItem("BULK", 50_000, 50_000));
+
+        assertThrows(ArithmeticException.class, () -> pricing.totalCents(cart));
+        assertThrows(ArithmeticException.class, () -> catalog.totalCents(pricing, cart));
+    }
+
+    @Test
+    void bulkLoadsAreAtomicForReaders() throws InterruptedException {
+        SkuCatalog catalog = new SkuCatalog();
+        SkuCatalog.Load initial = catalog.newLoad();
+        for (int i = 0; i < 1000; i++) initial.price("SKU-" + i, 1);
+        initial.commit();
+        OrderPricing pricing = new OrderPricing(PricingPlan.compile(List.of()));
+        List<OrderPricing.LineItem> cart = List.of(
+                new OrderPricing.LineItem("SKU-0", 1, 0),
+                new OrderPricing.LineItem("SKU-999", 1, 0));
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger torn = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (!stop.get()) {
+                if (catalog.totalCents(pricing, cart) % 2 != 0) torn.incrementAndGet();
+            }
+        });
+        reader.start();
+        for (int round = 2; round < 500; round++) {
+            SkuCatalog.Load load = catalog.newLoad();
+            for (int i = 0; i < 1000; i++) load.price("SKU-" + i, round);
+            load.commit();
+        }
+        stop.set(true);
+        reader.join();
+
+        assertEquals(0, torn.get());
+    }
+}
@@ -0,0 +1,61 @@
+// CatalogRental.java
+package com.cleancode.martinfowler.videostore;
+
+public final class CatalogRental implements PricedRental {
+
+    // Refactor reason: a rental of a MovieCatalog entry refers to its movie by id, so no Movie
+    // object exists for it. It is not a Rental (which always has a Movie); Customer takes both
+    // through PricedRental, and prices are always read from the catalog, so changes are seen.
+    private final MovieCatalog catalog;
+    private final int movieId;
+    private final int daysRented;
+
+    public CatalogRental(MovieCatalog catalog, int movieId, int daysRented) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("catalog is null");
+        }
+        catalog.getTitle(movieId); // rejects unknown ids up front
+        this.catalog = catalog;
+        this.movieId = movieId;
+        this.daysRented = daysRented;
+    }
+
+    public MovieCatalog getCatalog() {
+        return catalog;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    @Override
+    public String getTitle() {
+        return catalog.getTitle(movieId);
+    }
+
+    @Override
+    public int getDaysRented() {
+        return daysRented;
+    }
+
+    @Override
+    public double getCharge() {
+        return catalog.getCharge(movieId, daysRented);
+    }
+
+    @Override
+    public int getFrequentRenterPoints() {
+        return catalog.getFrequentRenterPoints(movieId, daysRented);
+    }
+
+    // Versioned per catalog: a price change to any of its movies reprices its renters.
+    @Override
+    public Object pricingSource() {
+        return catalog;
+    }
+
+    @Override
+    public long pricingVersion() {
+        return catalog.pricingVersion();
+    }
+}
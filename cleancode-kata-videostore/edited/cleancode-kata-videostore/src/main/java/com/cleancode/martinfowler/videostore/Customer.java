@@ -2,52 +2,115 @@
 package com.cleancode.martinfowler.videostore;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Customer {
 
     // Refactor reason: name and rentals list reference never change after construction.
     private final String name;
-    private final List<Rental> rentals = new ArrayList<>();
+    private final List<PricedRental> rentals = new ArrayList<>();
+
+    // Refactor reason: statement() is called again and again for the same customer, so totals are
+    // kept up to date as rentals are added and rendered rental lines are kept between calls. Both
+    // depend only on the prices of what this customer rented, so each pricing source (a Movie, or
+    // the MovieCatalog of catalog rentals) is checked against the version it had when they were
+    // computed; a price change to any other movie costs nothing here.
+    private double totalCharge;
+    private int totalPoints;
+    private final Map<Object, PricedSource> pricedSources = new IdentityHashMap<>();
+    private final StringBuilder renderedLines = new StringBuilder();
+    private int renderedRentals;
 
     public Customer(String name) {
         this.name = name;
     }
 
-    public void addRental(Rental rental) {
+    public void addRental(PricedRental rental) {
+        repriceIfChanged();
         rentals.add(rental);
+        pricedSources.computeIfAbsent(rental.pricingSource(), source -> new PricedSource(rental));
+        totalCharge += rental.getCharge();
+        totalPoints += rental.getFrequentRenterPoints();
     }
 
     public String getName() {
         return name;
     }
 
+    public double getTotalCharge() {
+        repriceIfChanged();
+        return totalCharge;
+    }
+
+    public int getFrequentRenterPoints() {
+        repriceIfChanged();
+        return totalPoints;
+    }
+
     public String statement() {
         // Refactor reason: Customer should mainly orchestrate and format,
         // not own pricing rules. Pricing and points now come from Rental/Movie/Price.
-        double totalCharge = 0.0;
-        int totalPoints = 0;
+        repriceIfChanged();
+        renderNewRentals();
 
-        StringBuilder result = new StringBuilder();
+        StringBuilder result = new StringBuilder(renderedLines.length() + 128);
         result.append("Rental Record for ").append(getName()).append("\n");
+        result.append(renderedLines);
+        result.append("You owed ").append(totalCharge).append("\n");
+        result.append("You earned ").append(totalPoints).append(" frequent renter points\n");
 
-        for (Rental rental : rentals) {
-            double charge = rental.getCharge();
-            int points = rental.getFrequentRenterPoints();
+        return result.toString();
+    }
 
-            totalCharge += charge;
-            totalPoints += points;
+    private void renderNewRentals() {
+        for (; renderedRentals < rentals.size(); renderedRentals++) {
+            PricedRental rental = rentals.get(renderedRentals);
+            renderedLines.append("\t")
+                         .append(rental.getTitle())
+                         .append("\t")
+                         .append(rental.getCharge())
+                         .append("\n");
+        }
+    }
 
-            result.append("\t")
-                  .append(rental.getMovie().getTitle())
-                  .append("\t")
-                  .append(charge)
-                  .append("\n");
+    private void repriceIfChanged() {
+        boolean changed = false;
+        for (PricedSource source : pricedSources.values()) {
+            changed |= source.catchUp();
         }
+        if (!changed) {
+            return;
+        }
+        totalCharge = 0.0;
+        totalPoints = 0;
+        for (PricedRental rental : rentals) {
+            totalCharge += rental.getCharge();
+            totalPoints += rental.getFrequentRenterPoints();
+        }
+        renderedLines.setLength(0);
+        renderedRentals = 0;
+    }
 
-        result.append("You owed ").append(totalCharge).append("\n");
-        result.append("You earned ").append(totalPoints).append(" frequent renter points\n");
+    private static final class PricedSource {
 
-        return result.toString();
+        private final PricedRental rental; // any rental of the source; it reads the source's version
+        private long pricedVersion;
+
+        PricedSource(PricedRental rental) {
+            this.rental = rental;
+            this.pricedVersion = rental.pricingVersion();
+        }
+
+        // True if the source's prices changed since the last call (or since it was first rented).
+        boolean catchUp() {
+            long version = rental.pricingVersion();
+            if (version == pricedVersion) {
+                return false;
+            }
+            pricedVersion = version;
+            return true;
+        }
     }
 }
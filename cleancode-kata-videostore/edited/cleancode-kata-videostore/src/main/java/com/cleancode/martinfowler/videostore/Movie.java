@@ -16,6 +16,10 @@ public class Movie {
     private int priceCode;
     private Price price;
 
+    // Refactor reason: cached statements (Customer) must notice when this movie's price code
+    // changes after it was rented. Bumped on every price-code change; renters compare it.
+    private long pricingVersion;
+
     public Movie(String title, int priceCode) {
         this.title = title;
         setPriceCode(priceCode); // ensures Price is always in sync
@@ -32,8 +36,13 @@ public class Movie {
     public void setPriceCode(int code) {
         // Refactor reason: all mapping from int code -> behavior is centralized here.
         // If a new category is added, change is localized.
-        this.priceCode = code;
         this.price = Price.forCode(code);
+        this.priceCode = code;
+        pricingVersion++;
+    }
+
+    long pricingVersion() {
+        return pricingVersion;
     }
 
     public double getCharge(int daysRented) {
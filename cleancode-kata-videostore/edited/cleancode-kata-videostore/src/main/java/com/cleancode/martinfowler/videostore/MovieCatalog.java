@@ -0,0 +1,123 @@
+// MovieCatalog.java
+package com.cleancode.martinfowler.videostore;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class MovieCatalog {
+
+    // Refactor reason: with millions of titles, a Movie object per title (plus its own title String
+    // and Price) is mostly overhead. The catalog keeps movies as parallel arrays indexed by an int id:
+    // one shared String per distinct title and one byte per price code. Behavior still comes from
+    // the shared Price instances, so charges and points are exactly those of Movie.
+    //
+    // Built with a RentalChargeEngine, the catalog prices through its tables instead, and accepts
+    // any category code the engine is configured with.
+    //
+    // Reads may run concurrently once the catalog is loaded; add and setPriceCode must not run
+    // concurrently with any other call.
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private byte[] priceCodes = new byte[INITIAL_CAPACITY];
+    private int size;
+    private final Map<String, String> internedTitles = new HashMap<>();
+    private final RentalChargeEngine chargeEngine;
+    private long pricingVersion; // bumped by every setPriceCode, so renters can tell their totals are stale
+
+    public MovieCatalog() {
+        this.chargeEngine = null;
+    }
+
+    public MovieCatalog(RentalChargeEngine chargeEngine) {
+        if (chargeEngine == null) {
+            throw new IllegalArgumentException("chargeEngine is null");
+        }
+        this.chargeEngine = chargeEngine;
+    }
+
+    public int add(String title, int priceCode) {
+        if (title == null) {
+            throw new IllegalArgumentException("title is null");
+        }
+        checkPriceCode(priceCode); // rejects unknown codes before anything is stored
+        if (size == titles.length) {
+            titles = Arrays.copyOf(titles, size * 2);
+            priceCodes = Arrays.copyOf(priceCodes, size * 2);
+        }
+        titles[size] = internedTitles.computeIfAbsent(title, t -> t);
+        priceCodes[size] = (byte) priceCode;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getTitle(int movieId) {
+        checkId(movieId);
+        return titles[movieId];
+    }
+
+    public int getPriceCode(int movieId) {
+        checkId(movieId);
+        return priceCodes[movieId];
+    }
+
+    public void setPriceCode(int movieId, int priceCode) {
+        checkId(movieId);
+        checkPriceCode(priceCode);
+        priceCodes[movieId] = (byte) priceCode;
+        pricingVersion++;
+    }
+
+    public double getCharge(int movieId, int daysRented) {
+        if (chargeEngine != null) {
+            return chargeEngine.getCharge(getPriceCode(movieId), daysRented);
+        }
+        return priceOf(movieId).getCharge(daysRented);
+    }
+
+    public int getFrequentRenterPoints(int movieId, int daysRented) {
+        if (chargeEngine != null) {
+            return chargeEngine.getFrequentRenterPoints(getPriceCode(movieId), daysRented);
+        }
+        return priceOf(movieId).getFrequentRenterPoints(daysRented);
+    }
+
+    public Movie getMovie(int movieId) {
+        // Refactor reason: for code that still wants a Movie; it shares the interned title.
+        // The Movie is a detached copy: changing its price code does not change the catalog.
+        // Only possible for the Movie price codes, not for categories only the engine knows.
+        return new Movie(getTitle(movieId), getPriceCode(movieId));
+    }
+
+    long pricingVersion() {
+        return pricingVersion;
+    }
+
+    public int distinctTitles() {
+        return internedTitles.size();
+    }
+
+    private Price priceOf(int movieId) {
+        checkId(movieId);
+        return Price.forCode(priceCodes[movieId]);
+    }
+
+    private void checkPriceCode(int priceCode) {
+        if (chargeEngine != null) {
+            chargeEngine.getCategory(priceCode);
+        } else {
+            Price.forCode(priceCode);
+        }
+    }
+
+    private void checkId(int movieId) {
+        if (movieId < 0 || movieId >= size) {
+            throw new IllegalArgumentException("Unknown movie id: " + movieId);
+        }
+    }
+}
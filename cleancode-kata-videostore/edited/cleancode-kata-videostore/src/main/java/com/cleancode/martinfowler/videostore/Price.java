@@ -3,6 +3,12 @@ package com.cleancode.martinfowler.videostore;
 
 abstract class Price {
 
+    // Refactor reason: Price subclasses hold no state, so one instance per category is shared
+    // by every Movie instead of allocating a new one on each setPriceCode.
+    private static final Price REGULAR = new RegularPrice();
+    private static final Price NEW_RELEASE = new NewReleasePrice();
+    private static final Price CHILDRENS = new ChildrensPrice();
+
     // Refactor reason: pricing and points rules vary by category.
     // Put the variation behind polymorphism so callers don't need switch statements.
     abstract double getCharge(int daysRented);
@@ -16,11 +22,11 @@ abstract class Price {
         // Refactor reason: single mapping point from legacy int codes to behavior.
         switch (priceCode) {
             case Movie.REGULAR:
-                return new RegularPrice();
+                return REGULAR;
             case Movie.NEW_RELEASE:
-                return new NewReleasePrice();
+                return NEW_RELEASE;
             case Movie.CHILDRENS:
-                return new ChildrensPrice();
+                return CHILDRENS;
             default:
                 // Keeps behavior explicit if invalid data gets in.
                 throw new IllegalArgumentException("Unknown price code: " + priceCode);
@@ -0,0 +1,22 @@
+// PricedRental.java
+package com.cleancode.martinfowler.videostore;
+
+// Refactor reason: Customer only needs a rental's title, charge and points, plus what its price
+// depends on so cached totals can be checked. Rental (a Movie) and CatalogRental (a MovieCatalog
+// entry) both answer that, so neither has to pretend to be the other.
+public interface PricedRental {
+
+    String getTitle();
+
+    int getDaysRented();
+
+    double getCharge();
+
+    int getFrequentRenterPoints();
+
+    // What this rental's price depends on (compared by identity), and that source's pricing
+    // version; the version changes whenever a price the rental depends on changes.
+    Object pricingSource();
+
+    long pricingVersion();
+}
@@ -1,7 +1,7 @@
 // Rental.java
 package com.cleancode.martinfowler.videostore;
 
-public class Rental {
+public class Rental implements PricedRental {
 
     // Refactor reason: immutable value-like object, fields don't change after creation.
     private final Movie movie;
@@ -16,17 +16,35 @@ public class Rental {
         return movie;
     }
 
+    @Override
+    public String getTitle() {
+        return movie.getTitle();
+    }
+
+    @Override
     public int getDaysRented() {
         return daysRented;
     }
 
+    @Override
     public double getCharge() {
         // Refactor reason: Rental is the right level to answer "what did this rental cost?"
         return movie.getCharge(daysRented);
     }
 
+    @Override
     public int getFrequentRenterPoints() {
         // Refactor reason: same idea for points, avoids Customer knowing category rules.
         return movie.getFrequentRenterPoints(daysRented);
     }
+
+    @Override
+    public Object pricingSource() {
+        return movie;
+    }
+
+    @Override
+    public long pricingVersion() {
+        return movie.pricingVersion();
+    }
 }
@@ -0,0 +1,153 @@
+// RentalChargeEngine.java
+package com.cleancode.martinfowler.videostore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public final class RentalChargeEngine {
+
+    // Refactor reason: every price category is the same piecewise-linear rule with different numbers:
+    //   charge = baseCharge, plus chargePerExtraDay for each day beyond includedDays
+    //   points = basePoints, plus bonusPoints when rented longer than bonusAfterDays
+    // So categories are data (see rental-categories.properties), not subclasses, and the engine
+    // precomputes both for 0 .. TABLE_DAYS - 1 days; longer rentals use the formula directly.
+    // The formula is evaluated exactly like the Price classes, so results match them bit for bit.
+
+    public static final int TABLE_DAYS = 64;
+    public static final int MAX_CODE = Byte.MAX_VALUE; // codes must fit MovieCatalog's byte column
+
+    private static final String STANDARD_RESOURCE = "rental-categories.properties";
+
+    public record Category(int code, String name, double baseCharge, int includedDays, double chargePerExtraDay,
+                           int basePoints, int bonusPoints, int bonusAfterDays) {
+        public Category {
+            if (code < 0 || code > MAX_CODE) throw new IllegalArgumentException("Bad category code: " + code);
+            if (name == null || name.isBlank()) throw new IllegalArgumentException("Bad category name");
+            if (baseCharge < 0 || chargePerExtraDay < 0 || Double.isNaN(baseCharge) || Double.isNaN(chargePerExtraDay))
+                throw new IllegalArgumentException("Bad charge for " + name);
+            if (includedDays < 0 || bonusAfterDays < 0) throw new IllegalArgumentException("Bad days for " + name);
+            if (basePoints < 0 || bonusPoints < 0) throw new IllegalArgumentException("Bad points for " + name);
+        }
+
+        double charge(int daysRented) {
+            double charge = baseCharge;
+            if (daysRented > includedDays) {
+                charge += (daysRented - includedDays) * chargePerExtraDay;
+            }
+            return charge;
+        }
+
+        int points(int daysRented) {
+            return daysRented > bonusAfterDays ? basePoints + bonusPoints : basePoints;
+        }
+    }
+
+    private final Category[] byCode = new Category[MAX_CODE + 1];
+    private final double[][] charges = new double[MAX_CODE + 1][];
+    private final int[][] points = new int[MAX_CODE + 1][];
+
+    private RentalChargeEngine(List<Category> categories) {
+        for (Category category : categories) {
+            if (byCode[category.code()] != null) {
+                throw new IllegalArgumentException("Duplicate category code: " + category.code());
+            }
+            byCode[category.code()] = category;
+            charges[category.code()] = new double[TABLE_DAYS];
+            points[category.code()] = new int[TABLE_DAYS];
+            for (int days = 0; days < TABLE_DAYS; days++) {
+                charges[category.code()][days] = category.charge(days);
+                points[category.code()][days] = category.points(days);
+            }
+        }
+    }
+
+    public static RentalChargeEngine of(List<Category> categories) {
+        if (categories == null) throw new IllegalArgumentException("categories is null");
+        return new RentalChargeEngine(categories);
+    }
+
+    // The three categories of Movie, with the rates of RegularPrice, NewReleasePrice and ChildrensPrice.
+    public static RentalChargeEngine standard() {
+        try (InputStream in = RentalChargeEngine.class.getResourceAsStream(STANDARD_RESOURCE)) {
+            if (in == null) throw new IllegalStateException("Missing resource " + STANDARD_RESOURCE);
+            Properties properties = new Properties();
+            properties.load(in);
+            return fromProperties(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Reads "categories" (comma-separated names) and, per name, <name>.code, .baseCharge, .includedDays,
+    // .chargePerExtraDay, .basePoints, and optionally .bonusPoints and .bonusAfterDays (default 0).
+    public static RentalChargeEngine fromProperties(Properties properties) {
+        String names = properties.getProperty("categories");
+        if (names == null || names.isBlank()) throw new IllegalArgumentException("No categories configured");
+        List<Category> categories = new ArrayList<>();
+        for (String raw : names.split(",")) {
+            String name = raw.trim();
+            categories.add(new Category(
+                    intProperty(properties, name, "code", null),
+                    name,
+                    doubleProperty(properties, name, "baseCharge"),
+                    intProperty(properties, name, "includedDays", null),
+                    doubleProperty(properties, name, "chargePerExtraDay"),
+                    intProperty(properties, name, "basePoints", null),
+                    intProperty(properties, name, "bonusPoints", 0),
+                    intProperty(properties, name, "bonusAfterDays", 0)));
+        }
+        return new RentalChargeEngine(categories);
+    }
+
+    public boolean hasCategory(int code) {
+        return code >= 0 && code <= MAX_CODE && byCode[code] != null;
+    }
+
+    public Category getCategory(int code) {
+        if (!hasCategory(code)) throw new IllegalArgumentException("Unknown price code: " + code);
+        return byCode[code];
+    }
+
+    public double getCharge(int code, int daysRented) {
+        Category category = getCategory(code);
+        checkDays(daysRented);
+        return daysRented < TABLE_DAYS ? charges[code][daysRented] : category.charge(daysRented);
+    }
+
+    public int getFrequentRenterPoints(int code, int daysRented) {
+        Category category = getCategory(code);
+        checkDays(daysRented);
+        return daysRented < TABLE_DAYS ? points[code][daysRented] : category.points(daysRented);
+    }
+
+    private static void checkDays(int daysRented) {
+        if (daysRented < 0) throw new IllegalArgumentException("Negative days rented: " + daysRented);
+    }
+
+    private static int intProperty(Properties properties, String name, String key, Integer defaultValue) {
+        String value = properties.getProperty(name + "." + key);
+        if (value == null) {
+            if (defaultValue == null) throw new IllegalArgumentException("Missing " + name + "." + key);
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad " + name + "." + key + ": " + value);
+        }
+    }
+
+    private static double doubleProperty(Properties properties, String name, String key) {
+        String value = properties.getProperty(name + "." + key);
+        if (value == null) throw new IllegalArgumentException("Missing " + name + "." + key);
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad " + name + "." + key + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cleancode.martinfowler.videostore;
+
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CustomerTest {
+
+    private static final double DELTA = .001;
+
+    private Customer customer;
+
+    @Before
+    public void setUp() {
+        customer = new Customer("Fred");
+    }
+
+    @Test
+    public void testTotalsAreKeptUpToDateByAddRental() {
+        customer.addRental(new Rental(new Movie("The Cell", Movie.NEW_RELEASE), 3));
+        assertEquals(9.0, customer.getTotalCharge(), DELTA);
+        assertEquals(2, customer.getFrequentRenterPoints());
+
+        customer.addRental(new Rental(new Movie("The Tigger Movie", Movie.CHILDRENS), 4));
+        assertEquals(12.0, customer.getTotalCharge(), DELTA);
+        assertEquals(3, customer.getFrequentRenterPoints());
+    }
+
+    @Test
+    public void testRepeatedStatementsAndRentalsAddedInBetween() {
+        customer.addRental(new Rental(new Movie("Plan 9 from Outer Space", Movie.REGULAR), 1));
+        String first = customer.statement();
+        assertEquals(first, customer.statement());
+
+        customer.addRental(new Rental(new Movie("8 1/2", Movie.REGULAR), 2));
+        customer.addRental(new Rental(new Movie("Eraserhead", Movie.REGULAR), 3));
+
+        assertEquals("Rental Record for Fred\n\tPlan 9 from Outer Space\t2.0\n\t8 1/2\t2.0\n\tEraserhead\t3.5\n" +
+                "You owed 7.5\nYou earned 3 frequent renter points\n", customer.statement());
+    }
+
+    @Test
+    public void testPriceCodeChangeAfterRentingIsReflected() {
+        Movie cell = new Movie("The Cell", Movie.NEW_RELEASE);
+        customer.addRental(new Rental(cell, 3));
+        assertEquals("Rental Record for Fred\n\tThe Cell\t9.0\nYou owed 9.0\nYou earned 2 frequent renter points\n",
+                customer.statement());
+
+        cell.setPriceCode(Movie.REGULAR);
+
+        assertEquals("Rental Record for Fred\n\tThe Cell\t3.5\nYou owed 3.5\nYou earned 1 frequent renter points\n",
+                customer.statement());
+        assertEquals(3.5, customer.getTotalCharge(), DELTA);
+    }
+
+    @Test
+    public void testCatalogPriceCodeChangeIsReflected() {
+        MovieCatalog catalog = new MovieCatalog();
+        int cell = catalog.add("The Cell", Movie.NEW_RELEASE);
+        customer.addRental(new CatalogRental(catalog, cell, 3));
+        customer.statement();
+
+        catalog.setPriceCode(cell, Movie.CHILDRENS);
+
+        assertEquals("Rental Record for Fred\n\tThe Cell\t1.5\nYou owed 1.5\nYou earned 1 frequent renter points\n",
+                customer.statement());
+    }
+
+    @Test
+    public void testOnlyPriceChangesToRentedMoviesReprice() {
+        int[] charges = {0};
+        Movie cell = new Movie("The Cell", Movie.NEW_RELEASE) {
+            @Override
+            public double getCharge(int daysRented) {
+                charges[0]++;
+                return super.getCharge(daysRented);
+            }
+        };
+        Movie other = new Movie("The Tigger Movie", Movie.CHILDRENS);
+        MovieCatalog catalog = new MovieCatalog();
+        int fromCatalog = catalog.add("Eraserhead", Movie.REGULAR);
+        customer.addRental(new Rental(cell, 3));
+        customer.statement();
+        charges[0] = 0;
+
+        other.setPriceCode(Movie.REGULAR);
+        catalog.setPriceCode(fromCatalog, Movie.NEW_RELEASE);
+        customer.statement();
+        assertEquals(0, charges[0]);
+
+        cell.setPriceCode(Movie.REGULAR);
+        assertEquals(3.5, customer.getTotalCharge(), DELTA);
+        assertTrue(charges[0] > 0);
+    }
+}
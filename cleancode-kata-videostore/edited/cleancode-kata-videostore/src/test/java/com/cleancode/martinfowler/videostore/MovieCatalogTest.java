@@ -0,0 +1,96 @@
+package com.cleancode.martinfowler.videostore;
+
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MovieCatalogTest {
+
+    private static final double DELTA = .001;
+
+    private MovieCatalog catalog;
+
+    @Before
+    public void setUp() {
+        catalog = new MovieCatalog();
+    }
+
+    @Test
+    public void testChargesAndPointsMatchMovie() {
+        int[] codes = {Movie.REGULAR, Movie.NEW_RELEASE, Movie.CHILDRENS};
+        for (int code : codes) {
+            int id = catalog.add("Movie " + code, code);
+            Movie movie = new Movie("Movie " + code, code);
+            for (int days = 0; days <= 40; days++) {
+                assertEquals(movie.getCharge(days), catalog.getCharge(id, days), 0);
+                assertEquals(movie.getFrequentRenterPoints(days), catalog.getFrequentRenterPoints(id, days));
+            }
+        }
+    }
+
+    @Test
+    public void testTitlesAreInterned() {
+        int first = catalog.add(new String("The Cell"), Movie.NEW_RELEASE);
+        int second = catalog.add(new String("The Cell"), Movie.REGULAR);
+
+        assertNotEquals(first, second);
+        assertSame(catalog.getTitle(first), catalog.getTitle(second));
+        assertEquals(1, catalog.distinctTitles());
+        assertEquals(2, catalog.size());
+    }
+
+    @Test
+    public void testPriceCodeChangesAreSeenByRentals() {
+        int id = catalog.add("The Cell", Movie.NEW_RELEASE);
+        CatalogRental rental = new CatalogRental(catalog, id, 3);
+        assertEquals(9.0, rental.getCharge(), DELTA);
+
+        catalog.setPriceCode(id, Movie.REGULAR);
+
+        assertEquals(Movie.REGULAR, catalog.getPriceCode(id));
+        assertEquals(3.5, rental.getCharge(), DELTA);
+        assertEquals(1, rental.getFrequentRenterPoints());
+    }
+
+    @Test
+    public void testPricesAreSharedPerCategory() {
+        assertSame(Price.forCode(Movie.REGULAR), Price.forCode(Movie.REGULAR));
+        assertSame(Price.forCode(Movie.CHILDRENS), Price.forCode(Movie.CHILDRENS));
+    }
+
+    @Test
+    public void testStatementFromCatalogRentals() {
+        int cell = catalog.add("The Cell", Movie.NEW_RELEASE);
+        int tigger = catalog.add("The Tigger Movie", Movie.CHILDRENS);
+        Customer customer = new Customer("Fred");
+        customer.addRental(new CatalogRental(catalog, cell, 3));
+        customer.addRental(new CatalogRental(catalog, tigger, 3));
+
+        assertEquals("Rental Record for Fred\n\tThe Cell\t9.0\n\tThe Tigger Movie\t1.5\n" +
+                "You owed 10.5\nYou earned 3 frequent renter points\n", customer.statement());
+        assertEquals("The Cell", new CatalogRental(catalog, cell, 1).getTitle());
+        assertEquals(cell, new CatalogRental(catalog, cell, 1).getMovieId());
+        assertEquals(2, new CatalogRental(catalog, cell, 2).getDaysRented());
+    }
+
+    @Test
+    public void testRejectsUnknownCodesAndIds() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.add("Bad", 7));
+        assertThrows(IllegalArgumentException.class, () -> catalog.add(null, Movie.REGULAR));
+        assertThrows(IllegalArgumentException.class, () -> new CatalogRental(catalog, 0, 1));
+        assertEquals(0, catalog.size());
+    }
+
+    @Test
+    public void testGrowsPastInitialCapacity() {
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, catalog.add("Title " + (i % 100), i % 3));
+        }
+        assertEquals(10_000, catalog.size());
+        assertEquals(100, catalog.distinctTitles());
+        assertEquals("Title 42", catalog.getTitle(9_942));
+        assertEquals(9_942 % 3, catalog.getPriceCode(9_942));
+    }
+}
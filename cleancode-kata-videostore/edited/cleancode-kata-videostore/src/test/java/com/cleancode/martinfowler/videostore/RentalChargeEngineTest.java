@@ -0,0 +1,83 @@
+package com.cleancode.martinfowler.videostore;
+
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class RentalChargeEngineTest {
+
+    private static final double DELTA = .001;
+
+    private final RentalChargeEngine engine = RentalChargeEngine.standard();
+
+    @Test
+    public void testStandardCategoriesMatchPriceClassesExactly() {
+        int[] codes = {Movie.REGULAR, Movie.NEW_RELEASE, Movie.CHILDRENS};
+        for (int code : codes) {
+            Price price = Price.forCode(code);
+            for (int days = 0; days <= 10_000; days++) {
+                assertEquals(Double.doubleToLongBits(price.getCharge(days)),
+                        Double.doubleToLongBits(engine.getCharge(code, days)));
+                assertEquals(price.getFrequentRenterPoints(days), engine.getFrequentRenterPoints(code, days));
+            }
+            assertEquals(price.getCharge(Integer.MAX_VALUE), engine.getCharge(code, Integer.MAX_VALUE), 0);
+        }
+    }
+
+    @Test
+    public void testNewCategoryFromConfiguration() throws Exception {
+        Properties properties = new Properties();
+        properties.load(new StringReader(
+                "categories = WEEKEND\n" +
+                "WEEKEND.code = 7\n" +
+                "WEEKEND.baseCharge = 4.0\n" +
+                "WEEKEND.includedDays = 3\n" +
+                "WEEKEND.chargePerExtraDay = 2.5\n" +
+                "WEEKEND.basePoints = 2\n" +
+                "WEEKEND.bonusPoints = 3\n" +
+                "WEEKEND.bonusAfterDays = 5\n"));
+        RentalChargeEngine weekend = RentalChargeEngine.fromProperties(properties);
+
+        assertEquals(4.0, weekend.getCharge(7, 3), DELTA);
+        assertEquals(9.0, weekend.getCharge(7, 5), DELTA);
+        assertEquals(2, weekend.getFrequentRenterPoints(7, 5));
+        assertEquals(5, weekend.getFrequentRenterPoints(7, 6));
+        assertEquals(4.0 + 97 * 2.5, weekend.getCharge(7, 100), DELTA);
+        assertFalse(weekend.hasCategory(Movie.REGULAR));
+    }
+
+    @Test
+    public void testCatalogPricesThroughEngine() {
+        RentalChargeEngine withWeekend = RentalChargeEngine.of(List.of(
+                engine.getCategory(Movie.REGULAR),
+                new RentalChargeEngine.Category(7, "WEEKEND", 4.0, 3, 2.5, 2, 0, 0)));
+        MovieCatalog catalog = new MovieCatalog(withWeekend);
+        int regular = catalog.add("Eraserhead", Movie.REGULAR);
+        int weekend = catalog.add("Plan 9 from Outer Space", 7);
+
+        Customer customer = new Customer("Fred");
+        customer.addRental(new CatalogRental(catalog, regular, 3));
+        customer.addRental(new CatalogRental(catalog, weekend, 4));
+
+        assertEquals("Rental Record for Fred\n\tEraserhead\t3.5\n\tPlan 9 from Outer Space\t6.5\n" +
+                "You owed 10.0\nYou earned 3 frequent renter points\n", customer.statement());
+        assertThrows(IllegalArgumentException.class, () -> catalog.add("Unknown", Movie.CHILDRENS));
+    }
+
+    @Test
+    public void testRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> engine.getCharge(Movie.REGULAR, -1));
+        assertThrows(IllegalArgumentException.class, () -> engine.getCharge(99, 1));
+        assertThrows(IllegalArgumentException.class, () -> engine.getCharge(-1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RentalChargeEngine.Category(200, "TOO_BIG", 1, 1, 1, 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> RentalChargeEngine.of(List.of(
+                engine.getCategory(Movie.REGULAR), engine.getCategory(Movie.REGULAR))));
+        assertThrows(IllegalArgumentException.class, () -> RentalChargeEngine.fromProperties(new Properties()));
+    }
+}
@@ -0,0 +1,151 @@
+package com.cleancode.martinfowler.videostore;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generates the statements of a whole customer base in parallel, one virtual thread per statement, into
+ * shard files statements-000.txt, statements-001.txt, ... in the output directory.
+ *
+ * The n-th statement of the source goes to shard n % shards. Statements are rendered concurrently and each is
+ * written to its shard whole, in the order rendering finishes. At most maxInFlight statements are taken from the
+ * source and not yet written at any time; the next one is not read until one completes. The total amount is added
+ * up in source order, so it does not depend on which statements finish first.
+ */
+public class BulkStatementJob {
+
+    private final Path outputDirectory;
+    private final int shards;
+    private final int maxInFlight;
+
+    public BulkStatementJob(Path outputDirectory, int shards, int maxInFlight) {
+        if (outputDirectory == null) throw new IllegalArgumentException("outputDirectory is null");
+        if (shards < 1) throw new IllegalArgumentException("shards must be positive");
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be positive");
+        this.outputDirectory = outputDirectory;
+        this.shards = shards;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Result run(Iterator<Statement> statements) throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        Shard[] shardFiles = openShards();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        LongAdder statementCount = new LongAdder();
+        LongAdder frequentRenterPoints = new LongAdder();
+        double totalAmount = 0;
+        long started = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long n = 0;
+            while (failure.get() == null) {
+                inFlight.acquire();
+                if (!statements.hasNext()) {
+                    inFlight.release();
+                    break;
+                }
+                Statement statement = statements.next();
+                Shard shard = shardFiles[(int) (n++ % shards)];
+                totalAmount += statement.getTotal();
+                executor.execute(() -> {
+                    try {
+                        shard.write(render(statement));
+                        statementCount.increment();
+                        frequentRenterPoints.add(statement.getFrequentRenterPoints());
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            closeShards(shardFiles, failure);
+        }
+
+        rethrow(failure.get());
+        return new Result(statementCount.sum(), totalAmount, frequentRenterPoints.sum(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    public Path shardFile(int shard) {
+        return outputDirectory.resolve(String.format("statements-%03d.txt", shard));
+    }
+
+    private String render(Statement statement) throws IOException {
+        StringBuilder text = new StringBuilder();
+        statement.writeTo(text);
+        return text.toString();
+    }
+
+    private Shard[] openShards() throws IOException {
+        Shard[] shardFiles = new Shard[shards];
+        try {
+            for (int i = 0; i < shards; i++) {
+                shardFiles[i] = new Shard(Files.newBufferedWriter(shardFile(i), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            closeShards(shardFiles, new AtomicReference<>(e));
+            throw e;
+        }
+        return shardFiles;
+    }
+
+    private void closeShards(Shard[] shardFiles, AtomicReference<Throwable> failure) {
+        for (Shard shard : shardFiles) {
+            if (shard == null) continue;
+            try {
+                shard.writer.close();
+            } catch (IOException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    private void rethrow(Throwable failure) throws IOException {
+        if (failure == null) return;
+        if (failure instanceof IOException e) throw e;
+        if (failure instanceof RuntimeException e) throw e;
+        if (failure instanceof Error e) throw e;
+        throw new IllegalStateException(failure);
+    }
+
+    // A lock rather than synchronized, so a virtual thread blocked in a write does not pin its carrier thread.
+    private static final class Shard {
+        private final Writer writer;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        Shard(Writer writer) {
+            this.writer = writer;
+        }
+
+        void write(String statementText) throws IOException {
+            lock.lock();
+            try {
+                writer.write(statementText);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public record Result(long statements, double totalAmount, long frequentRenterPoints, Duration elapsed) {
+
+        public double statementsPerSecond() {
+            double seconds = elapsed.toNanos() / 1e9;
+            return seconds == 0 ? 0 : statements / seconds;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.cleancode.martinfowler.videostore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Per-customer totals kept up to date from the rental event stream, so a statement is served from what has
+ * already been added up instead of replaying the customer's rentals.
+ *
+ * Each customer keeps only running totals (amount owed, points, rental count, last rental time) and the statement
+ * lines rendered so far; rentals themselves are not retained. A line is rendered when its event arrives, in the
+ * default format locale at that time. Each customer is updated under its own lock, so events for different
+ * customers are applied in parallel.
+ */
+public class CustomerAggregates implements Consumer<RentalEvent> {
+
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+
+    @Override
+    public void accept(RentalEvent event) {
+        Rental rental = event.toRental();
+        double amount = rental.determineAmount();
+        int points = rental.determineFrequentRenterPoints();
+        Account account = accounts.computeIfAbsent(event.customer(), c -> new Account());
+        account.lock.lock();
+        try {
+            account.amountOwed += amount;
+            account.frequentRenterPoints += points;
+            account.rentalCount++;
+            account.lastRentalMillis = Math.max(account.lastRentalMillis, event.timestampMillis());
+            account.renderer.useLocale(Locale.getDefault(Locale.Category.FORMAT));
+            account.renderer.writeRentalLine(event.title(), amount, account.renderedLines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    public double amountOwed(String customer) {
+        Account account = accounts.get(customer);
+        if (account == null) return 0;
+        account.lock.lock();
+        try {
+            return account.amountOwed;
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    public int frequentRenterPoints(String customer) {
+        Account account = accounts.get(customer);
+        if (account == null) return 0;
+        account.lock.lock();
+        try {
+            return account.frequentRenterPoints;
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    public int rentalCount(String customer) {
+        Account account = accounts.get(customer);
+        if (account == null) return 0;
+        account.lock.lock();
+        try {
+            return account.rentalCount;
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    public long lastRentalMillis(String customer) {
+        Account account = accounts.get(customer);
+        if (account == null) return 0;
+        account.lock.lock();
+        try {
+            return account.lastRentalMillis;
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    public String statement(String customer) {
+        Account account = accounts.get(customer);
+        if (account == null) return new Statement(customer).generate();
+        account.lock.lock();
+        try {
+            StringBuilder text = new StringBuilder(account.renderedLines.length() + 128);
+            account.renderer.useLocale(Locale.getDefault(Locale.Category.FORMAT));
+            account.renderer.writeHeader(customer, text);
+            text.append(account.renderedLines);
+            account.renderer.writeFooter(account.amountOwed, account.frequentRenterPoints, text);
+            return text.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    public Set<String> customers() {
+        return Set.copyOf(accounts.keySet());
+    }
+
+    // A lock rather than synchronized, so a virtual thread replaying or appending events does not pin its carrier.
+    private static final class Account {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final StatementRenderer renderer = new StatementRenderer();
+        private final StringBuilder renderedLines = new StringBuilder();
+        private double amountOwed;
+        private int frequentRenterPoints;
+        private int rentalCount;
+        private long lastRentalMillis;
+    }
+}
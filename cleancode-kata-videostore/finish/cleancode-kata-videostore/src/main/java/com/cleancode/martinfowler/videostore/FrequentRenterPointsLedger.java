@@ -0,0 +1,120 @@
+package com.cleancode.martinfowler.videostore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Frequent renter points per customer, posted concurrently from many checkout threads, with a live top-K
+ * leaderboard.
+ *
+ * Each customer's points are a LongAdder, so posting never takes a shared lock. The leaderboard is guarded by a
+ * lock, but a post only takes it when the customer's new total reaches the leaderboard's lowest score (the floor,
+ * read without locking); once the board is full that is rare. Points only grow, so every customer that belongs on
+ * the board crosses the floor on some post and gets there.
+ *
+ * Leaderboard order is points descending, then customer name ascending.
+ */
+public class FrequentRenterPointsLedger {
+
+    private static final Comparator<Entry> LEADERBOARD_ORDER =
+            Comparator.comparingLong(Entry::points).reversed().thenComparing(Entry::customer);
+
+    private final int k;
+    private final ConcurrentHashMap<String, LongAdder> points = new ConcurrentHashMap<>();
+
+    private final Object leaderboardLock = new Object();
+    private final TreeSet<Entry> leaderboard = new TreeSet<>(LEADERBOARD_ORDER);
+    private final Map<String, Entry> onLeaderboard = new HashMap<>();
+    private volatile long floor = Long.MIN_VALUE;
+
+    public FrequentRenterPointsLedger(int k) {
+        if (k < 1) throw new IllegalArgumentException("k must be positive");
+        this.k = k;
+    }
+
+    public void post(String customer, Rental rental) {
+        post(customer, rental.determineFrequentRenterPoints());
+    }
+
+    public void post(String customer, int earnedPoints) {
+        if (customer == null) throw new IllegalArgumentException("customer is null");
+        if (earnedPoints < 0) throw new IllegalArgumentException("negative points");
+        LongAdder customerPoints = points.computeIfAbsent(customer, c -> new LongAdder());
+        customerPoints.add(earnedPoints);
+        long total = customerPoints.sum();
+        if (total >= floor) {
+            offer(customer, total);
+        }
+    }
+
+    public long pointsOf(String customer) {
+        LongAdder customerPoints = points.get(customer);
+        return customerPoints == null ? 0 : customerPoints.sum();
+    }
+
+    public List<Entry> topK() {
+        synchronized (leaderboardLock) {
+            return List.copyOf(leaderboard);
+        }
+    }
+
+    /**
+     * Copies every customer's points, and ranks the snapshot's top K from that copy rather than from the live
+     * leaderboard, so the two always agree. Posts that complete before the call are included; posts running
+     * concurrently may or may not be.
+     */
+    public Snapshot snapshot() {
+        Map<String, Long> all = new HashMap<>(points.size() * 2);
+        TreeSet<Entry> top = new TreeSet<>(LEADERBOARD_ORDER);
+        for (Map.Entry<String, LongAdder> e : points.entrySet()) {
+            long p = e.getValue().sum();
+            all.put(e.getKey(), p);
+            top.add(new Entry(e.getKey(), p));
+            if (top.size() > k) top.pollLast();
+        }
+        return new Snapshot(Collections.unmodifiableMap(all), List.copyOf(top));
+    }
+
+    private void offer(String customer, long total) {
+        synchronized (leaderboardLock) {
+            Entry current = onLeaderboard.get(customer);
+            if (current != null) {
+                if (current.points() >= total) return;   // a concurrent post already recorded more
+                leaderboard.remove(current);
+            }
+            Entry entry = new Entry(customer, total);
+            leaderboard.add(entry);
+            onLeaderboard.put(customer, entry);
+            if (leaderboard.size() > k) {
+                onLeaderboard.remove(leaderboard.pollLast().customer());
+            }
+            floor = leaderboard.size() < k ? Long.MIN_VALUE : leaderboard.last().points();
+        }
+    }
+
+    public record Entry(String customer, long points) {
+    }
+
+    public record Snapshot(Map<String, Long> points, List<Entry> topK) {
+
+        public long totalPoints() {
+            long total = 0;
+            for (long p : points.values()) total += p;
+            return total;
+        }
+
+        public List<Entry> ranked() {
+            List<Entry> ranked = new ArrayList<>(points.size());
+            points.forEach((customer, p) -> ranked.add(new Entry(customer, p)));
+            ranked.sort(LEADERBOARD_ORDER);
+            return ranked;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.cleancode.martinfowler.videostore;
+
+public record RentalEvent(String customer, String title, int category, int daysRented, long timestampMillis) {
+
+    public static final int REGULAR = 0;
+    public static final int NEW_RELEASE = 1;
+    public static final int CHILDREN = 2;
+
+    public RentalEvent {
+        if (customer == null) throw new IllegalArgumentException("customer is null");
+        if (title == null) throw new IllegalArgumentException("title is null");
+        if (category < REGULAR || category > CHILDREN) throw new IllegalArgumentException("unknown category " + category);
+    }
+
+    public static RentalEvent of(String customer, Movie movie, int daysRented, long timestampMillis) {
+        return new RentalEvent(customer, movie.getTitle(), categoryOf(movie), daysRented, timestampMillis);
+    }
+
+    public Rental toRental() {
+        return new Rental(toMovie(), daysRented);
+    }
+
+    private Movie toMovie() {
+        return switch (category) {
+            case REGULAR -> new RegularMovie(title);
+            case NEW_RELEASE -> new NewReleaseMovie(title);
+            default -> new ChildrenMovie(title);
+        };
+    }
+
+    private static int categoryOf(Movie movie) {
+        if (movie.getClass() == RegularMovie.class) return REGULAR;
+        if (movie.getClass() == NewReleaseMovie.class) return NEW_RELEASE;
+        if (movie.getClass() == ChildrenMovie.class) return CHILDREN;
+        throw new IllegalArgumentException("cannot log movies of " + movie.getClass());
+    }
+}
@@ -0,0 +1,263 @@
+package com.cleancode.martinfowler.videostore;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, partitioned log of rental events.
+ *
+ * A customer's events all go to partition floorMod(customer.hashCode(), partitions), file rentals-NN.log in the log
+ * directory, so they stay in order. Each record is an int length and the CRC-32C of the body, followed by the body:
+ * the event's fields. Every appended
+ * event is also handed to the consumer, under the partition's lock, so the consumer sees each customer's events one
+ * at a time and in log order. An append whose write or consumer fails is taken back out of the partition.
+ *
+ * open() replays the existing partitions in parallel, one thread per partition, before accepting appends. A record
+ * cut short or garbled by a crash at the end of a partition (it runs to the end of the file, its length or checksum
+ * is wrong, and no whole record follows it) is dropped and the file truncated to the last whole record. Any other
+ * bad record is corruption, not a torn write, and open() fails instead of discarding the records behind it.
+ * Appends reach the operating system when append returns; sync() forces them to disk.
+ */
+public class RentalEventLog implements Closeable {
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;   // length, CRC-32C of the body
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Partition[] partitions;
+    private final Consumer<RentalEvent> consumer;
+
+    private RentalEventLog(Partition[] partitions, Consumer<RentalEvent> consumer) {
+        this.partitions = partitions;
+        this.consumer = consumer;
+    }
+
+    public static RentalEventLog open(Path directory, int partitionCount, Consumer<RentalEvent> consumer)
+            throws IOException, InterruptedException {
+        if (directory == null) throw new IllegalArgumentException("directory is null");
+        if (partitionCount < 1) throw new IllegalArgumentException("partitions must be positive");
+        if (consumer == null) throw new IllegalArgumentException("consumer is null");
+        Files.createDirectories(directory);
+
+        List<Future<Partition>> replays = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int p = 0; p < partitionCount; p++) {
+                Path file = directory.resolve(String.format("rentals-%02d.log", p));
+                replays.add(executor.submit(() -> Partition.replay(file, consumer)));
+            }
+        }
+
+        // Every replay has finished here. If any failed, the partitions that did open are closed before the first
+        // failure is rethrown, whatever its type.
+        Partition[] partitions = new Partition[partitionCount];
+        Throwable failure = null;
+        for (int p = 0; p < partitionCount; p++) {
+            try {
+                partitions[p] = replays.get(p).get();
+            } catch (ExecutionException e) {
+                if (failure == null) failure = e.getCause();
+            }
+        }
+        if (failure != null) {
+            for (Partition partition : partitions) {
+                if (partition == null) continue;
+                try {
+                    partition.channel.close();
+                } catch (IOException e) {
+                    failure.addSuppressed(e);
+                }
+            }
+            throw asIOException(failure);
+        }
+        return new RentalEventLog(partitions, consumer);
+    }
+
+    public void append(RentalEvent event) throws IOException {
+        partitions[Math.floorMod(event.customer().hashCode(), partitions.length)].append(event, consumer);
+    }
+
+    public void sync() throws IOException {
+        for (Partition partition : partitions) partition.channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Partition partition : partitions) {
+            try {
+                partition.channel.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    // cause as an IOException to throw; unchecked causes are rethrown as they are.
+    private static IOException asIOException(Throwable cause) {
+        if (cause instanceof IOException e) return e;
+        if (cause instanceof RuntimeException e) throw e;
+        if (cause instanceof Error e) throw e;
+        return new IOException(cause);
+    }
+
+    private static final class Partition {
+        private final FileChannel channel;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Partition(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        static Partition replay(Path file, Consumer<RentalEvent> consumer) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                long fileBytes = channel.size();
+                long validBytes = 0;
+                InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(0)), 1 << 16);
+                DataInputStream data = new DataInputStream(in);
+                byte[] body;
+                while ((body = readRecord(data, fileBytes - validBytes, file, validBytes)) != null) {
+                    consumer.accept(decode(body));
+                    validBytes += HEADER_BYTES + body.length;
+                }
+                if (fileBytes > validBytes) channel.truncate(validBytes);
+                channel.position(validBytes);
+                return new Partition(channel);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        // If the write fails part-way or the consumer throws, the partition is cut back to where the record
+        // started, so neither a partial record nor an event the consumer never applied stays in the log.
+        void append(RentalEvent event, Consumer<RentalEvent> consumer) throws IOException {
+            ByteBuffer record = ByteBuffer.wrap(encode(event));
+            lock.lock();
+            try {
+                long start = channel.position();
+                try {
+                    while (record.hasRemaining()) channel.write(record);
+                    consumer.accept(event);
+                } catch (IOException | RuntimeException | Error e) {
+                    try {
+                        channel.truncate(start);
+                        channel.position(start);
+                    } catch (IOException rollback) {
+                        e.addSuppressed(rollback);
+                    }
+                    throw e;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static byte[] encode(RentalEvent event) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);   // length and checksum, filled in below
+            out.writeInt(0);
+            out.writeLong(event.timestampMillis());
+            out.writeUTF(event.customer());
+            out.writeUTF(event.title());
+            out.writeByte(event.category());
+            out.writeInt(event.daysRented());
+            byte[] record = bytes.toByteArray();
+            int length = record.length - HEADER_BYTES;
+            ByteBuffer.wrap(record).putInt(0, length).putInt(Integer.BYTES, checksum(record, HEADER_BYTES, length));
+            return record;
+        }
+
+        // The body of the next whole record, or null at the end of the partition or at a torn last record; remaining
+        // is the number of file bytes from this record on. A bad record that does not run to the end of the file
+        // fails the replay.
+        private static byte[] readRecord(DataInputStream in, long remaining, Path file, long offset)
+                throws IOException {
+            if (remaining < HEADER_BYTES) return null;   // end of the partition, or a header cut short
+            int length = in.readInt();
+            int checksum = in.readInt();
+            long available = remaining - HEADER_BYTES;
+            if (length <= 0 || length > MAX_RECORD_BYTES) {
+                if (available == 0) return null;   // a garbled header is the last thing in the file
+                throw new IOException("corrupt record length " + length + " at offset " + offset + " in " + file);
+            }
+            if (length > available) {
+                // Cut short by the end of the file, unless the length itself is what is damaged: then the bytes
+                // after the header still hold whole records.
+                byte[] tail = new byte[(int) available];   // less than length, so at most MAX_RECORD_BYTES
+                if (!readTail(in, tail) || !containsWholeRecord(tail, 0)) return null;
+                throw new IOException("corrupt record length " + length + " at offset " + offset + " in " + file);
+            }
+            byte[] body = new byte[length];
+            if (!readTail(in, body)) return null;
+            if (checksum(body, 0, length) != checksum) {
+                if (length == available && !containsWholeRecord(body, 1)) return null;
+                throw new IOException("corrupt record at offset " + offset + " in " + file);
+            }
+            return body;
+        }
+
+        // False if the file shrank while replaying; the rest is then treated as torn.
+        private static boolean readTail(DataInputStream in, byte[] bytes) throws IOException {
+            try {
+                in.readFully(bytes);
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        // True if a whole record with a matching checksum starts at some offset from `from` on in bytes. A torn
+        // append leaves only part of one record behind it, so finding one means the record before it is corrupt.
+        // Only runs on a damaged record at replay, over less than MAX_RECORD_BYTES.
+        private static boolean containsWholeRecord(byte[] bytes, int from) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int p = from; p + HEADER_BYTES < bytes.length; p++) {
+                int length = buffer.getInt(p);
+                if (length <= 0 || length > bytes.length - p - HEADER_BYTES) continue;
+                if (checksum(bytes, p + HEADER_BYTES, length) == buffer.getInt(p + Integer.BYTES)) return true;
+            }
+            return false;
+        }
+
+        private static int checksum(byte[] bytes, int offset, int length) {
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, offset, length);
+            return (int) crc.getValue();
+        }
+
+        private static RentalEvent decode(byte[] body) throws IOException {
+            DataInputStream fields = new DataInputStream(new ByteArrayInputStream(body));
+            long timestampMillis = fields.readLong();
+            String customer = fields.readUTF();
+            String title = fields.readUTF();
+            int category = fields.readByte();
+            int daysRented = fields.readInt();
+            return new RentalEvent(customer, title, category, daysRented, timestampMillis);
+        }
+    }
+}
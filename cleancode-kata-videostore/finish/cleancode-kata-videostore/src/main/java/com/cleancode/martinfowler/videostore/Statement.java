@@ -1,7 +1,10 @@
 package com.cleancode.martinfowler.videostore;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class Statement {
 
@@ -9,6 +12,10 @@ public class Statement {
     private List<Rental> rentals = new ArrayList<>();
     private double totalAmount;
     private int frequentRenterPoints;
+    private final StatementRenderer renderer = new StatementRenderer();
+    private final StringBuilder renderedText = new StringBuilder();
+    private int renderedRentals;
+    private Locale renderedLocale;
 
     public Statement(String customerName) {
         this.customerName = customerName;
@@ -16,6 +23,8 @@ public class Statement {
 
     public void addRental(Rental rental) {
         rentals.add(rental);
+        totalAmount += rental.determineAmount();
+        frequentRenterPoints += rental.determineFrequentRenterPoints();
     }
 
     public double getTotal() {
@@ -27,46 +36,37 @@ public class Statement {
     }
 
     public String generate() {
-        clearTotals();
-        String statementText = createHeader();
-        statementText += createRentalLines();
-        statementText += createFooter();
-        return statementText;
-    }
-
-    private void clearTotals() {
-        totalAmount = 0;
-        frequentRenterPoints = 0;
-    }
-
-    private String createHeader() {
-        return String.format("Rental Record for %s\n", customerName);
-    }
-
-    private String createRentalLines() {
-        String rentalLinesText = "";
-        for (Rental rental : rentals) {
-            rentalLinesText += createRentalLine(rental);
+        StringBuilder statementText = new StringBuilder();
+        try {
+            writeTo(statementText);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return rentalLinesText;
+        return statementText.toString();
     }
 
-    private String createRentalLine(Rental rental) {
-        double rentalAmount = rental.determineAmount();
-        frequentRenterPoints += rental.determineFrequentRenterPoints();
-        totalAmount += rentalAmount;
-
-        return formatRentalLine(rental, rentalAmount);
+    public void writeTo(Appendable out) throws IOException {
+        renderNewRentals();
+        out.append(renderedText);
+        renderer.writeFooter(totalAmount, frequentRenterPoints, out);
     }
 
-    private String formatRentalLine(Rental rental, double rentalAmount) {
-        return String.format("\t%s\t%.1f\n", rental.getTitle(), rentalAmount);
+    private void renderNewRentals() throws IOException {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (!locale.equals(renderedLocale)) {
+            clearRenderedText(locale);
+        }
+        for (; renderedRentals < rentals.size(); renderedRentals++) {
+            Rental rental = rentals.get(renderedRentals);
+            renderer.writeRentalLine(rental.getTitle(), rental.determineAmount(), renderedText);
+        }
     }
 
-    private String createFooter() {
-        return String.format(
-                "You owed %.1f\n" +
-                        "You earned %d frequent renter points\n",
-                totalAmount, frequentRenterPoints);
+    private void clearRenderedText(Locale locale) throws IOException {
+        renderer.useLocale(locale);
+        renderedLocale = locale;
+        renderedRentals = 0;
+        renderedText.setLength(0);
+        renderer.writeHeader(customerName, renderedText);
     }
 }
\ No newline at end of file
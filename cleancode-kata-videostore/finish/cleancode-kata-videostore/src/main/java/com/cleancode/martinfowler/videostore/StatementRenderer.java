@@ -0,0 +1,90 @@
+package com.cleancode.martinfowler.videostore;
+
+import java.io.IOException;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+public class StatementRenderer {
+
+    private static final double MAX_FAST_AMOUNT_TENTHS = 1e15;
+
+    private final char[] digits = new char[20];
+    private Locale locale;
+    private char decimalSeparator;
+    private boolean asciiDigits;
+
+    public Totals render(String customerName, Iterable<Rental> rentals, Appendable out) throws IOException {
+        useLocale(Locale.getDefault(Locale.Category.FORMAT));
+        double totalAmount = 0;
+        int frequentRenterPoints = 0;
+
+        writeHeader(customerName, out);
+        for (Rental rental : rentals) {
+            double rentalAmount = rental.determineAmount();
+            frequentRenterPoints += rental.determineFrequentRenterPoints();
+            totalAmount += rentalAmount;
+            writeRentalLine(rental.getTitle(), rentalAmount, out);
+        }
+        writeFooter(totalAmount, frequentRenterPoints, out);
+        return new Totals(totalAmount, frequentRenterPoints);
+    }
+
+    void writeHeader(String customerName, Appendable out) throws IOException {
+        out.append("Rental Record for ").append(String.valueOf(customerName)).append('\n');
+    }
+
+    void writeRentalLine(String title, double rentalAmount, Appendable out) throws IOException {
+        out.append('\t').append(String.valueOf(title)).append('\t');
+        writeAmount(rentalAmount, out);
+        out.append('\n');
+    }
+
+    void writeFooter(double totalAmount, int frequentRenterPoints, Appendable out) throws IOException {
+        out.append("You owed ");
+        writeAmount(totalAmount, out);
+        out.append("\nYou earned ");
+        writePoints(frequentRenterPoints, out);
+        out.append(" frequent renter points\n");
+    }
+
+    void useLocale(Locale formatLocale) {
+        if (formatLocale.equals(locale)) return;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(formatLocale);
+        locale = formatLocale;
+        decimalSeparator = symbols.getDecimalSeparator();
+        asciiDigits = symbols.getZeroDigit() == '0';
+    }
+
+    // Same text as String.format("%d", points).
+    private void writePoints(int points, Appendable out) throws IOException {
+        if (asciiDigits && points >= 0) out.append(Integer.toString(points));
+        else out.append(String.format(locale, "%d", points));
+    }
+
+    // Same text as String.format("%.1f", amount). Amounts that are exact tenths (all the price rules produce)
+    // are written digit by digit; anything else goes through the Formatter.
+    private void writeAmount(double amount, Appendable out) throws IOException {
+        double tenths = amount * 10;
+        boolean exactTenths = Double.doubleToRawLongBits(amount) >= 0
+                && tenths < MAX_FAST_AMOUNT_TENTHS
+                && tenths == Math.rint(tenths)
+                && tenths / 10 == amount;
+        if (!asciiDigits || !exactTenths) {
+            out.append(String.format(locale, "%.1f", amount));
+            return;
+        }
+        long value = (long) tenths;
+        int pos = digits.length;
+        digits[--pos] = (char) ('0' + value % 10);
+        digits[--pos] = decimalSeparator;
+        value /= 10;
+        do {
+            digits[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = pos; i < digits.length; i++) out.append(digits[i]);
+    }
+
+    public record Totals(double amount, int frequentRenterPoints) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.cleancode.martinfowler.videostore;
+
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BulkStatementJobTest {
+
+    private static final double DELTA = .001;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEveryStatementIsWrittenToItsShardWithAggregatedTotals() throws Exception {
+        List<String> expected = new ArrayList<>();
+        double expectedAmount = 0;
+        long expectedPoints = 0;
+        for (int i = 0; i < 2_000; i++) {
+            Statement statement = customer(i);
+            expected.add(statement.generate());
+            expectedAmount += statement.getTotal();
+            expectedPoints += statement.getFrequentRenterPoints();
+        }
+        Path output = folder.getRoot().toPath().resolve("statements");
+        BulkStatementJob job = new BulkStatementJob(output, 4, 64);
+
+        BulkStatementJob.Result result = job.run(customers(2_000));
+
+        assertEquals(2_000, result.statements());
+        assertEquals(expectedAmount, result.totalAmount(), 0.0); // summed in source order, like expectedAmount
+        assertEquals(expectedPoints, result.frequentRenterPoints());
+        assertTrue(result.statementsPerSecond() > 0);
+
+        List<String> written = new ArrayList<>();
+        for (int shard = 0; shard < 4; shard++) {
+            List<String> inShard = split(Files.readString(job.shardFile(shard)));
+            assertEquals(500, inShard.size());
+            for (String text : inShard) assertTrue(text.startsWith("Rental Record for Customer "));
+            written.addAll(inShard);
+        }
+        Collections.sort(expected);
+        Collections.sort(written);
+        assertEquals(expected, written);
+    }
+
+    @Test
+    public void testNoMoreThanMaxInFlightStatementsAreTakenFromTheSource() throws Exception {
+        AtomicInteger taken = new AtomicInteger();
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger mostLive = new AtomicInteger();
+        Iterator<Statement> slowStatements = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return taken.get() < 40;
+            }
+
+            @Override
+            public Statement next() {
+                int live = taken.incrementAndGet() - written.get();
+                mostLive.accumulateAndGet(live, Math::max);
+                return new Statement("Customer " + taken.get()) {
+                    @Override
+                    public void writeTo(Appendable out) throws IOException {
+                        try {
+                            Thread.sleep(2);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        super.writeTo(out);
+                        written.incrementAndGet();
+                    }
+                };
+            }
+        };
+        BulkStatementJob job = new BulkStatementJob(folder.getRoot().toPath(), 2, 3);
+
+        assertEquals(40, job.run(slowStatements).statements());
+        assertTrue("live statements: " + mostLive.get(), mostLive.get() <= 3);
+    }
+
+    @Test
+    public void testRenderingFailureIsRethrown() throws Exception {
+        Statement broken = new Statement("Broken");
+        broken.addRental(new Rental(new RegularMovie("Broken") {
+            @Override
+            public String getTitle() {
+                throw new IllegalStateException("title unavailable");
+            }
+        }, 1));
+        BulkStatementJob job = new BulkStatementJob(folder.getRoot().toPath(), 2, 4);
+
+        try {
+            job.run(List.of(customer(1), broken, customer(2)).iterator());
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            assertEquals("title unavailable", expected.getMessage());
+        }
+    }
+
+    private static Iterator<Statement> customers(int count) {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Statement next() {
+                return customer(next++);
+            }
+        };
+    }
+
+    private static Statement customer(int i) {
+        Statement statement = new Statement("Customer " + i);
+        for (int r = 0; r < i % 7; r++) {
+            statement.addRental(new Rental(new RegularMovie("Regular " + r), 1 + r));
+            statement.addRental(new Rental(new NewReleaseMovie("New Release " + r), 1 + (i + r) % 4));
+            statement.addRental(new Rental(new ChildrenMovie("Children " + r), 2 + r));
+        }
+        return statement;
+    }
+
+    private static List<String> split(String shardText) {
+        List<String> statements = new ArrayList<>();
+        int start = 0;
+        String end = " frequent renter points\n";
+        int at;
+        while ((at = shardText.indexOf(end, start)) >= 0) {
+            statements.add(shardText.substring(start, at + end.length()));
+            start = at + end.length();
+        }
+        assertEquals(shardText.length(), start);
+        return statements;
+    }
+}
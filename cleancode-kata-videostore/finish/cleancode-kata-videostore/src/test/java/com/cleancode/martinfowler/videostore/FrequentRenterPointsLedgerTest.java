@@ -0,0 +1,122 @@
+package com.cleancode.martinfowler.videostore;
+
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class FrequentRenterPointsLedgerTest {
+
+    @Test
+    public void testPointsComeFromRentals() {
+        FrequentRenterPointsLedger ledger = new FrequentRenterPointsLedger(3);
+
+        ledger.post("Fred", new Rental(new NewReleaseMovie("New Release 1"), 3));
+        ledger.post("Fred", new Rental(new RegularMovie("Regular Movie 1"), 3));
+        ledger.post("Wilma", new Rental(new ChildrenMovie("Children Movie"), 1));
+
+        assertEquals(3, ledger.pointsOf("Fred"));
+        assertEquals(1, ledger.pointsOf("Wilma"));
+        assertEquals(0, ledger.pointsOf("Barney"));
+        assertEquals(List.of(new FrequentRenterPointsLedger.Entry("Fred", 3),
+                new FrequentRenterPointsLedger.Entry("Wilma", 1)), ledger.topK());
+    }
+
+    @Test
+    public void testLeaderboardKeepsTheKHighestWithNameTieBreak() {
+        FrequentRenterPointsLedger ledger = new FrequentRenterPointsLedger(2);
+
+        ledger.post("Carol", 5);
+        ledger.post("Alice", 5);
+        ledger.post("Bob", 5);
+        ledger.post("Dave", 1);
+
+        assertEquals(List.of(new FrequentRenterPointsLedger.Entry("Alice", 5),
+                new FrequentRenterPointsLedger.Entry("Bob", 5)), ledger.topK());
+
+        ledger.post("Dave", 10);
+
+        assertEquals(List.of(new FrequentRenterPointsLedger.Entry("Dave", 11),
+                new FrequentRenterPointsLedger.Entry("Alice", 5)), ledger.topK());
+    }
+
+    @Test
+    public void testConcurrentPostsMatchSequentialTotals() throws Exception {
+        FrequentRenterPointsLedger ledger = new FrequentRenterPointsLedger(10);
+        int threads = 16;
+        int postsPerThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> posted = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            posted.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                long[] perCustomer = new long[500];
+                start.await();
+                for (int i = 0; i < postsPerThread; i++) {
+                    int customer = (int) Math.min(499, Math.abs(random.nextGaussian()) * 120);
+                    int points = 1 + random.nextInt(2);
+                    ledger.post("Customer " + customer, points);
+                    perCustomer[customer] += points;
+                }
+                return perCustomer;
+            }));
+        }
+        start.countDown();
+        long[] expected = new long[500];
+        for (Future<long[]> f : posted) {
+            long[] perCustomer = f.get();
+            for (int c = 0; c < 500; c++) expected[c] += perCustomer[c];
+        }
+        executor.shutdown();
+
+        FrequentRenterPointsLedger.Snapshot snapshot = ledger.snapshot();
+        long expectedTotal = 0;
+        for (int c = 0; c < 500; c++) {
+            assertEquals(expected[c], ledger.pointsOf("Customer " + c));
+            expectedTotal += expected[c];
+        }
+        assertEquals(expectedTotal, snapshot.totalPoints());
+        assertEquals(snapshot.ranked().subList(0, 10), ledger.topK());
+    }
+
+    @Test
+    public void testSnapshotTopKAgreesWithItsPointsUnderConcurrentPosts() throws Exception {
+        FrequentRenterPointsLedger ledger = new FrequentRenterPointsLedger(5);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> posters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            posters.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 50_000; i++) ledger.post("Customer " + random.nextInt(40), 1);
+            }));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            FrequentRenterPointsLedger.Snapshot snapshot = ledger.snapshot();
+            List<FrequentRenterPointsLedger.Entry> ranked = snapshot.ranked();
+            assertEquals(ranked.subList(0, Math.min(5, ranked.size())), snapshot.topK());
+        }
+        for (Future<?> f : posters) f.get();
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRejectsBadPosts() {
+        FrequentRenterPointsLedger ledger = new FrequentRenterPointsLedger(1);
+
+        assertThrows(IllegalArgumentException.class, () -> ledger.post(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> ledger.post("Fred", -1));
+        assertThrows(IllegalArgumentException.class, () -> new FrequentRenterPointsLedger(0));
+    }
+}
@@ -0,0 +1,229 @@
+package com.cleancode.martinfowler.videostore;
+
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RentalEventLogTest {
+
+    private static final double DELTA = .001;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAggregatesMatchAStatementBuiltFromTheSameRentals() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        CustomerAggregates aggregates = new CustomerAggregates();
+        Statement expected = new Statement("Customer Name");
+        try (RentalEventLog log = RentalEventLog.open(directory, 4, aggregates)) {
+            rent(log, expected, new NewReleaseMovie("New Release 1"), 3);
+            rent(log, expected, new RegularMovie("Regular Movie 1"), 4);
+            rent(log, expected, new ChildrenMovie("Children Movie"), 5);
+        }
+
+        assertEquals(expected.generate(), aggregates.statement("Customer Name"));
+        assertEquals(expected.getTotal(), aggregates.amountOwed("Customer Name"), DELTA);
+        assertEquals(expected.getFrequentRenterPoints(), aggregates.frequentRenterPoints("Customer Name"));
+        assertEquals(3, aggregates.rentalCount("Customer Name"));
+        assertEquals(3, aggregates.lastRentalMillis("Customer Name"));
+    }
+
+    @Test
+    public void testReopeningReplaysTheLogIntoTheSameAggregates() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        CustomerAggregates live = new CustomerAggregates();
+        try (RentalEventLog log = RentalEventLog.open(directory, 4, live)) {
+            for (int i = 0; i < 200; i++) {
+                log.append(event(i));
+            }
+            log.sync();
+        }
+
+        CustomerAggregates replayed = new CustomerAggregates();
+        try (RentalEventLog log = RentalEventLog.open(directory, 4, replayed)) {
+            assertEquals(live.customers(), replayed.customers());
+            for (String customer : live.customers()) {
+                assertEquals(live.statement(customer), replayed.statement(customer));
+                assertEquals(live.rentalCount(customer), replayed.rentalCount(customer));
+            }
+
+            log.append(event(200));
+        }
+        assertEquals(live.rentalCount("Customer 0") + 1, replayed.rentalCount("Customer 0"));
+    }
+
+    @Test
+    public void testTornRecordAtTheEndIsDroppedAndOverwritten() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RentalEventLog log = RentalEventLog.open(directory, 1, event -> { })) {
+            log.append(event(0));
+            log.append(event(10));
+        }
+        Path partition = directory.resolve("rentals-00.log");
+        long size = Files.size(partition);
+        try (FileChannel channel = FileChannel.open(partition, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        CustomerAggregates aggregates = new CustomerAggregates();
+        try (RentalEventLog log = RentalEventLog.open(directory, 1, aggregates)) {
+            assertEquals(1, aggregates.rentalCount("Customer 0"));
+            log.append(event(20));
+        }
+
+        CustomerAggregates replayed = new CustomerAggregates();
+        RentalEventLog.open(directory, 1, replayed).close();
+        assertEquals(2, replayed.rentalCount("Customer 0"));
+        assertEquals(aggregates.statement("Customer 0"), replayed.statement("Customer 0"));
+    }
+
+    @Test
+    public void testGarbledLastRecordIsDropped() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RentalEventLog log = RentalEventLog.open(directory, 1, event -> { })) {
+            log.append(event(0));
+            log.append(event(10));
+        }
+        Path partition = directory.resolve("rentals-00.log");
+        flipByte(partition, Files.size(partition) - 1);
+
+        CustomerAggregates aggregates = new CustomerAggregates();
+        RentalEventLog.open(directory, 1, aggregates).close();
+
+        assertEquals(1, aggregates.rentalCount("Customer 0"));
+    }
+
+    @Test
+    public void testCorruptRecordBeforeTheEndFailsInsteadOfTruncating() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RentalEventLog log = RentalEventLog.open(directory, 1, event -> { })) {
+            log.append(event(0));
+            log.append(event(10));
+        }
+        Path partition = directory.resolve("rentals-00.log");
+        long size = Files.size(partition);
+        flipByte(partition, 10);   // inside the first record's body
+
+        assertThrows(IOException.class, () -> RentalEventLog.open(directory, 1, event -> { }));
+        assertEquals(size, Files.size(partition));
+    }
+
+    @Test
+    public void testCorruptLengthOfAnEarlierRecordFailsInsteadOfTruncating() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (RentalEventLog log = RentalEventLog.open(directory, 1, event -> { })) {
+            for (int i = 0; i < 10; i++) log.append(event(i));
+        }
+        Path partition = directory.resolve("rentals-00.log");
+        long size = Files.size(partition);
+        try (FileChannel channel = FileChannel.open(partition, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 1000), 0);   // longer than what follows
+        }
+
+        assertThrows(IOException.class, () -> RentalEventLog.open(directory, 1, event -> { }));
+        assertEquals(size, Files.size(partition));
+    }
+
+    @Test
+    public void testAppendWhoseConsumerFailsIsTakenBackOut() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        CustomerAggregates aggregates = new CustomerAggregates();
+        try (RentalEventLog log = RentalEventLog.open(directory, 1, event -> {
+            if (event.timestampMillis() == 10) throw new IllegalStateException("rejected");
+            aggregates.accept(event);
+        })) {
+            log.append(event(0));
+            assertThrows(IllegalStateException.class, () -> log.append(event(10)));
+            log.append(event(20));
+        }
+
+        CustomerAggregates replayed = new CustomerAggregates();
+        RentalEventLog.open(directory, 1, replayed).close();
+        assertEquals(2, replayed.rentalCount("Customer 0"));
+        assertEquals(aggregates.statement("Customer 0"), replayed.statement("Customer 0"));
+    }
+
+    @Test
+    public void testUnknownCustomerHasAnEmptyStatement() {
+        CustomerAggregates aggregates = new CustomerAggregates();
+
+        assertEquals(new Statement("Nobody").generate(), aggregates.statement("Nobody"));
+        assertEquals(0, aggregates.amountOwed("Nobody"), DELTA);
+        assertEquals(0, aggregates.rentalCount("Nobody"));
+    }
+
+    @Test
+    public void testRejectsMoviesWithoutACategory() {
+        Movie custom = new RegularMovie("Custom") {
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> RentalEvent.of("Fred", custom, 1, 0));
+    }
+
+    @Test
+    public void testConcurrentAppendsKeepEveryCustomersTotals() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        CustomerAggregates aggregates = new CustomerAggregates();
+        try (RentalEventLog log = RentalEventLog.open(directory, 8, aggregates)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int first = t * 1_000;
+                threads.add(Thread.startVirtualThread(() -> {
+                    for (int i = first; i < first + 1_000; i++) {
+                        try {
+                            log.append(event(i));
+                        } catch (Exception e) {
+                            throw new AssertionError(e);
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) thread.join();
+        }
+
+        CustomerAggregates replayed = new CustomerAggregates();
+        RentalEventLog.open(directory, 8, replayed).close();
+        for (int c = 0; c < 10; c++) {
+            String customer = "Customer " + c;
+            assertEquals(800, aggregates.rentalCount(customer));
+            assertEquals(aggregates.amountOwed(customer), replayed.amountOwed(customer), DELTA);
+            assertEquals(aggregates.frequentRenterPoints(customer), replayed.frequentRenterPoints(customer));
+        }
+    }
+
+    private static void flipByte(Path file, long position) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0x5a)).rewind();
+            channel.write(b, position);
+        }
+    }
+
+    private static void rent(RentalEventLog log, Statement expected, Movie movie, int days) throws Exception {
+        expected.addRental(new Rental(movie, days));
+        log.append(RentalEvent.of("Customer Name", movie, days, days - 2));
+    }
+
+    private static RentalEvent event(int i) {
+        Movie movie = switch (i % 3) {
+            case 0 -> new RegularMovie("Regular " + i);
+            case 1 -> new NewReleaseMovie("New Release " + i);
+            default -> new ChildrenMovie("Children " + i);
+        };
+        return RentalEvent.of("Customer " + i % 10, movie, 1 + i % 5, i);
+    }
+}
@@ -0,0 +1,141 @@
+package com.cleancode.martinfowler.videostore;
+
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StatementRendererTest {
+
+    private static final double DELTA = .001;
+
+    private final Locale defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+    }
+
+    @Test
+    public void testOutputMatchesFormattedStatement() throws IOException {
+        List<Rental> rentals = randomRentals(new Random(1), 500);
+
+        StringWriter out = new StringWriter();
+        StatementRenderer.Totals totals = new StatementRenderer().render("Customer", rentals, out);
+
+        assertEquals(formattedStatement("Customer", rentals), out.toString());
+        assertEquals(referenceTotal(rentals), totals.amount(), 0);
+    }
+
+    @Test
+    public void testAmountsThatAreNotExactTenthsMatchFormat() throws IOException {
+        double[] amounts = {0.05, 0.15, 0.25, 1.45, 2.675, 0.1 + 0.2, -0.0, -1.5, 1e20, Double.NaN, 1234567.85};
+        List<Rental> rentals = new ArrayList<>();
+        for (double amount : amounts) {
+            rentals.add(new Rental(fixedAmountMovie("Odd " + amount, amount), 1));
+        }
+
+        StringBuilder out = new StringBuilder();
+        new StatementRenderer().render("Customer", rentals, out);
+
+        assertEquals(formattedStatement("Customer", rentals), out.toString());
+    }
+
+    @Test
+    public void testFollowsDefaultFormatLocale() throws IOException {
+        List<Rental> rentals = randomRentals(new Random(2), 20);
+        StatementRenderer renderer = new StatementRenderer();
+
+        for (Locale locale : new Locale[]{Locale.GERMANY, Locale.US, Locale.forLanguageTag("ar-EG")}) {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+            StringBuilder out = new StringBuilder();
+            renderer.render("Customer", rentals, out);
+            assertEquals(locale.toString(), formattedStatement("Customer", rentals), out.toString());
+        }
+    }
+
+    @Test
+    public void testStatementWritesToWriterAndKeepsTotals() throws IOException {
+        Statement statement = new Statement("Customer");
+        statement.addRental(new Rental(new RegularMovie("Regular Movie 1"), 1));
+        statement.addRental(new Rental(new NewReleaseMovie("New Release 1"), 3));
+
+        StringWriter out = new StringWriter();
+        statement.writeTo(out);
+
+        assertEquals(statement.generate(), out.toString());
+        assertEquals(11.0, statement.getTotal(), DELTA);
+        assertEquals(3, statement.getFrequentRenterPoints());
+    }
+
+    @Test
+    public void testLargeStatementIsRenderedInOnePass() {
+        Statement statement = new Statement("Customer");
+        List<Rental> rentals = randomRentals(new Random(3), 50_000);
+        rentals.forEach(statement::addRental);
+
+        String text = statement.generate();
+
+        assertEquals(formattedStatement("Customer", rentals), text);
+        assertEquals(referenceTotal(rentals), statement.getTotal(), 0);
+    }
+
+    private static List<Rental> randomRentals(Random random, int count) {
+        List<Rental> rentals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int daysRented = 1 + random.nextInt(30);
+            switch (random.nextInt(3)) {
+                case 0 -> rentals.add(new Rental(new RegularMovie("Regular " + i), daysRented));
+                case 1 -> rentals.add(new Rental(new NewReleaseMovie("New Release " + i), daysRented));
+                default -> rentals.add(new Rental(new ChildrenMovie("Children " + i), daysRented));
+            }
+        }
+        return rentals;
+    }
+
+    private static Movie fixedAmountMovie(String title, double amount) {
+        return new Movie(title) {
+            @Override
+            public double determineAmount(int daysRented) {
+                return amount;
+            }
+
+            @Override
+            public int determineFrequentRenterPoints(int daysRented) {
+                return 1;
+            }
+        };
+    }
+
+    private static double referenceTotal(List<Rental> rentals) {
+        double total = 0;
+        for (Rental rental : rentals) total += rental.determineAmount();
+        return total;
+    }
+
+    // The statement text as Statement.generate originally built it, with String.format throughout.
+    private static String formattedStatement(String customerName, List<Rental> rentals) {
+        StringBuilder text = new StringBuilder(String.format("Rental Record for %s\n", customerName));
+        double totalAmount = 0;
+        int frequentRenterPoints = 0;
+        for (Rental rental : rentals) {
+            double rentalAmount = rental.determineAmount();
+            frequentRenterPoints += rental.determineFrequentRenterPoints();
+            totalAmount += rentalAmount;
+            text.append(String.format("\t%s\t%.1f\n", rental.getTitle(), rentalAmount));
+        }
+        text.append(String.format(
+                "You owed %.1f\n" +
+                        "You earned %d frequent renter points\n",
+                totalAmount, frequentRenterPoints));
+        return text.toString();
+    }
+}
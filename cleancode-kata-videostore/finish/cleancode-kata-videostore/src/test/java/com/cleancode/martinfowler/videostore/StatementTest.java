@@ -0,0 +1,106 @@
+package com.cleancode.martinfowler.videostore;
+
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class StatementTest {
+
+    private static final double DELTA = .001;
+
+    private final Locale defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+
+    private Statement statement;
+    private CountingMovie countingMovie;
+
+    @Before
+    public void setUp() {
+        Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+        statement = new Statement("Customer");
+        countingMovie = new CountingMovie("Regular Movie 1");
+    }
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+    }
+
+    @Test
+    public void testTotalsAreKeptUpToDateByAddRental() {
+        statement.addRental(new Rental(new NewReleaseMovie("New Release 1"), 3));
+        assertEquals(9.0, statement.getTotal(), DELTA);
+        assertEquals(2, statement.getFrequentRenterPoints());
+
+        statement.addRental(new Rental(new ChildrenMovie("Children Movie"), 4));
+        assertEquals(12.0, statement.getTotal(), DELTA);
+        assertEquals(3, statement.getFrequentRenterPoints());
+    }
+
+    @Test
+    public void testRepeatedGenerateReusesRenderedLines() {
+        statement.addRental(new Rental(countingMovie, 3));
+        String first = statement.generate();
+        int callsAfterFirst = countingMovie.amountCalls;
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(first, statement.generate());
+        }
+
+        assertEquals(callsAfterFirst, countingMovie.amountCalls);
+    }
+
+    @Test
+    public void testRentalsAddedAfterGenerateAreAppended() {
+        statement.addRental(new Rental(new RegularMovie("Regular Movie 1"), 1));
+        statement.generate();
+        statement.addRental(new Rental(new RegularMovie("Regular Movie 2"), 2));
+        statement.addRental(new Rental(new RegularMovie("Regular Movie 3"), 3));
+
+        assertEquals(
+                "Rental Record for Customer\n" +
+                        "\tRegular Movie 1\t2.0\n" +
+                        "\tRegular Movie 2\t2.0\n" +
+                        "\tRegular Movie 3\t3.5\n" +
+                        "You owed 7.5\n" +
+                        "You earned 3 frequent renter points\n",
+                statement.generate());
+    }
+
+    @Test
+    public void testLocaleChangeRendersLinesAgain() {
+        statement.addRental(new Rental(new RegularMovie("Regular Movie 3"), 3));
+        assertEquals(
+                "Rental Record for Customer\n\tRegular Movie 3\t3.5\nYou owed 3.5\nYou earned 1 frequent renter points\n",
+                statement.generate());
+
+        Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+
+        assertEquals(
+                "Rental Record for Customer\n\tRegular Movie 3\t3,5\nYou owed 3,5\nYou earned 1 frequent renter points\n",
+                statement.generate());
+    }
+
+    private static final class CountingMovie extends Movie {
+        private int amountCalls;
+
+        CountingMovie(String title) {
+            super(title);
+        }
+
+        @Override
+        public double determineAmount(int daysRented) {
+            amountCalls++;
+            return 2;
+        }
+
+        @Override
+        public int determineFrequentRenterPoints(int daysRented) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BankAccount;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ordered walk over every account in a batch, used by the POST-CHECKS and SUMMARY steps.
+ *
+ * A List<BankAccount> is the usual source. TieredAccountStore is the other one: it streams cold accounts from disk
+ * instead of keeping them all on the heap, so an account handed to an action may be a short-lived copy. Code that
+ * mutates an account during a walk must call writeBack() so the change reaches the backing storage.
+ */
+interface AccountSource {
+
+    // Visit every account in account order.
+    void forEach(Consumer<BankAccount> action);
+
+    // Visit every account in reverse account order.
+    void forEachReversed(Consumer<BankAccount> action);
+
+    // Persist a mutation made to an account obtained from this source (no-op for in-heap sources).
+    default void writeBack(BankAccount account) {
+    }
+
+    /**************************************************
+       Method Name: of
+       Returns: AccountSource
+       Input: accounts
+       Precondition: accounts is non-null
+       Task: Adapt an in-heap account list (list order is account order).
+       **************************************************/
+    static AccountSource of(List<BankAccount> accounts) {
+        return new AccountSource() {
+            @Override
+            public void forEach(Consumer<BankAccount> action) {
+                for (BankAccount a : accounts) action.accept(a);
+            }
+
+            @Override
+            public void forEachReversed(Consumer<BankAccount> action) {
+                for (int i = accounts.size() - 1; i >= 0; i--) action.accept(accounts.get(i));
+            }
+        };
+    }
+}
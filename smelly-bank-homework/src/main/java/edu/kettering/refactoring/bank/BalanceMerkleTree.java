@@ -0,0 +1,170 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BankAccount;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merkle tree over the (balance, flagged) state of a fixed set of accounts, for reconciling two account books.
+ *
+ * Leaves are the accounts in account order (padded to a power of two); each inner node hashes its two children.
+ * As a BatchListener the tree follows processDailyBatch: every accountUpdated() rehashes one leaf and its path to
+ * the root, so the root always describes the current state without rescanning the book.
+ *
+ * Two trees built over the same account ids in the same order (two copies of a book, or our copy and the ledger's
+ * copy of one shard) are compared with diff(): equal roots mean equal books, otherwise only subtrees whose hashes
+ * differ are descended, so k differing accounts cost O(k log n) hash comparisons instead of a full scan.
+ *
+ * Hashes are 64-bit and not cryptographic; they catch accidental divergence, not a forged ledger. Single writer:
+ * only the batch thread may drive the listener callbacks, and diff() must not run concurrently with a batch.
+ */
+final class BalanceMerkleTree implements BatchListener {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long LEFT = 0xC2B2AE3D27D4EB4FL;
+    private static final long RIGHT = 0x165667B19E3779F9L;
+
+    /**
+     * Result of diff(): the accounts whose state differs, and the number of node hashes compared to find them.
+     */
+    static final class Diff {
+        private final List<String> accountIds;
+        private final int comparisons;
+
+        private Diff(List<String> accountIds, int comparisons) {
+            this.accountIds = Collections.unmodifiableList(accountIds);
+            this.comparisons = comparisons;
+        }
+
+        // Differing account ids, in account order.
+        public List<String> accountIds() { return accountIds; }
+
+        // Node hashes compared, root included.
+        public int comparisons() { return comparisons; }
+
+        public boolean isEmpty() { return accountIds.isEmpty(); }
+    }
+
+    private final String[] ids;
+    private final long[] idHashes;
+    private final long layoutHash;   // hash of the id order, so diff() can check layouts in O(1)
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final int leafCount;
+    private final long[] nodes;   // heap layout: root at 1, children of i at 2i and 2i+1, leaves from leafCount
+
+    /**************************************************
+       Method Name: BalanceMerkleTree
+       Returns: N/A (constructor)
+       Input: accounts
+       Precondition: accounts is non-null with unique ids
+       Task: Fix the leaf order from the accounts' order and hash the current state bottom-up.
+       **************************************************/
+    BalanceMerkleTree(AccountSource accounts) {
+        List<String> order = new ArrayList<>();
+        List<BankAccount> initial = new ArrayList<>();
+        accounts.forEach(a -> {
+            if (slotById.putIfAbsent(a.id(), order.size()) != null) {
+                throw new IllegalArgumentException("duplicate account " + a.id());
+            }
+            order.add(a.id());
+            initial.add(a);
+        });
+        this.ids = order.toArray(new String[0]);
+        this.idHashes = new long[ids.length];
+        long layout = SEED + ids.length;
+        for (int i = 0; i < ids.length; i++) {
+            idHashes[i] = hashId(ids[i]);
+            layout = hashInner(layout, idHashes[i]);
+        }
+        this.layoutHash = layout;
+
+        int leaves = 1;
+        while (leaves < ids.length) leaves <<= 1;
+        this.leafCount = leaves;
+        this.nodes = new long[2 * leaves];
+        for (int i = 0; i < initial.size(); i++) {
+            BankAccount a = initial.get(i);
+            nodes[leaves + i] = hashLeaf(idHashes[i], a.balance(), a.flagged());
+        }
+        for (int n = leaves - 1; n >= 1; n--) {
+            nodes[n] = hashInner(nodes[2 * n], nodes[2 * n + 1]);
+        }
+    }
+
+    // Root hash; equal roots mean equal books (up to hash collisions).
+    long root() {
+        return nodes[1];
+    }
+
+    // Number of accounts covered by the tree.
+    int size() {
+        return ids.length;
+    }
+
+    @Override
+    public void accountUpdated(BankAccount account) {
+        Integer slot = slotById.get(account.id());
+        if (slot == null) throw new IllegalStateException("account not in tree: " + account.id());
+        int n = leafCount + slot;
+        nodes[n] = hashLeaf(idHashes[slot], account.balance(), account.flagged());
+        for (n >>= 1; n >= 1; n >>= 1) {
+            nodes[n] = hashInner(nodes[2 * n], nodes[2 * n + 1]);
+        }
+    }
+
+    /**************************************************
+       Method Name: diff
+       Returns: Diff
+       Input: other
+       Precondition: other covers the same account ids in the same order (checked by layout hash, not id by id)
+       Task: Compare root-first and descend only into subtrees whose hashes differ.
+       **************************************************/
+    Diff diff(BalanceMerkleTree other) {
+        if (ids.length != other.ids.length || layoutHash != other.layoutHash) {
+            throw new IllegalArgumentException("trees cover different accounts");
+        }
+        List<String> differing = new ArrayList<>();
+        int comparisons = diff(other, 1, differing);
+        return new Diff(differing, comparisons);
+    }
+
+    private int diff(BalanceMerkleTree other, int n, List<String> differing) {
+        if (nodes[n] == other.nodes[n]) return 1;
+        if (n >= leafCount) {
+            differing.add(ids[n - leafCount]);
+            return 1;
+        }
+        return 1 + diff(other, 2 * n, differing) + diff(other, 2 * n + 1, differing);
+    }
+
+    private static long hashId(String id) {
+        long h = SEED;
+        for (int i = 0; i < id.length(); i++) {
+            h = (h ^ id.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long hashLeaf(long idHash, double balance, boolean flagged) {
+        long h = idHash ^ (Double.doubleToLongBits(balance) * LEFT);
+        return mix(flagged ? h ^ RIGHT : h);
+    }
+
+    private static long hashInner(long left, long right) {
+        return mix(left * LEFT + right * RIGHT + SEED);
+    }
+
+    // 64-bit finalizer from MurmurHash3.
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE53E6B1AL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
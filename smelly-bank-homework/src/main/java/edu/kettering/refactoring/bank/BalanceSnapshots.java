@@ -0,0 +1,191 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BankAccount;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-version balance store for reading accounts while processDailyBatch is mutating them.
+ *
+ * The batch mutates BankAccount.bal and flagged in place, so reading the live objects mid-batch shows a half-applied
+ * day. This store is a BatchListener: the batch thread publishes immutable versions of (balance, flagged) per
+ * account, and readers pin a version and read from it without ever touching the live accounts.
+ *
+ * - readCommitted() sees the last end-of-batch state (or the initial state before the first batch).
+ * - readLatest() sees the newest in-batch checkpoint, taken every checkpointInterval transactions in sequential
+ *   mode, or the committed state when it is newer.
+ *
+ * Neither side takes a lock. Publishing is a write to a volatile reference and reading is a read of it; a replaced
+ * version stays reachable for as long as a reader holds its Snapshot and is then left to the garbage collector.
+ *
+ * Single writer: only the batch thread may drive the listener callbacks. Every published version is a full copy of
+ * the account map, so each checkpoint and each commit costs O(accounts) time and memory regardless of how many
+ * accounts changed. A small checkpointInterval gives fresher reads at a proportionally higher batch cost.
+ */
+final class BalanceSnapshots implements BatchListener {
+
+    // Immutable per-account state inside a version.
+    static final class AccountState {
+        private final String id;
+        private final double balance;
+        private final boolean flagged;
+
+        AccountState(String id, double balance, boolean flagged) {
+            this.id = id;
+            this.balance = balance;
+            this.flagged = flagged;
+        }
+
+        public String id() { return id; }
+
+        public double balance() { return balance; }
+
+        public boolean flagged() { return flagged; }
+    }
+
+    private static final class Version {
+        final long number;
+        final boolean committed;
+        final Map<String, AccountState> states;
+
+        Version(long number, boolean committed, Map<String, AccountState> states) {
+            this.number = number;
+            this.committed = committed;
+            this.states = states;
+        }
+    }
+
+    /**
+     * A read-only view of one version. Closing it only ends this reader's use of the view.
+     */
+    final class Snapshot implements AutoCloseable {
+        private final Version version;
+        private boolean closed;
+
+        private Snapshot(Version version) {
+            this.version = version;
+        }
+
+        // Version number; increases with every checkpoint and commit.
+        public long version() { return version.number; }
+
+        // True if this is an end-of-batch (or initial) state rather than an in-batch checkpoint.
+        public boolean committed() { return version.committed; }
+
+        // State of one account, or null if the account is not in this version.
+        public AccountState account(String id) {
+            ensureOpen();
+            return version.states.get(id);
+        }
+
+        // Balance of one account in this version.
+        public double balance(String id) {
+            AccountState state = account(id);
+            if (state == null) throw new IllegalArgumentException("unknown account " + id);
+            return state.balance();
+        }
+
+        // All account states in this version (unmodifiable).
+        public Map<String, AccountState> accounts() {
+            ensureOpen();
+            return version.states;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private void ensureOpen() {
+            if (closed) throw new IllegalStateException("snapshot closed");
+        }
+    }
+
+    private final int checkpointInterval;
+    private volatile Version committed;
+    private volatile Version latest;
+
+    // Batch-thread state.
+    private final Map<String, BankAccount> dirty = new LinkedHashMap<>();
+    private int sinceCheckpoint;
+    private long nextVersion;
+
+    /**************************************************
+       Method Name: BalanceSnapshots
+       Returns: N/A (constructor)
+       Input: accounts, checkpointInterval
+       Precondition: accounts is non-null; checkpointInterval >= 0 (0 = publish only at end of batch)
+       Task: Publish the initial committed version from the current account state.
+       **************************************************/
+    BalanceSnapshots(List<BankAccount> accounts, int checkpointInterval) {
+        if (checkpointInterval < 0) throw new IllegalArgumentException("checkpointInterval < 0");
+        this.checkpointInterval = checkpointInterval;
+        Version initial = new Version(nextVersion++, true, copyOf(AccountSource.of(accounts)));
+        this.committed = initial;
+        this.latest = initial;
+    }
+
+    /**************************************************
+       Method Name: readCommitted
+       Returns: Snapshot
+       Input: none
+       Precondition: none
+       Task: Return a view of the last end-of-batch version.
+       **************************************************/
+    Snapshot readCommitted() {
+        return new Snapshot(committed);
+    }
+
+    /**************************************************
+       Method Name: readLatest
+       Returns: Snapshot
+       Input: none
+       Precondition: none
+       Task: Return a view of the newest version, which may be an in-batch checkpoint.
+       **************************************************/
+    Snapshot readLatest() {
+        return new Snapshot(latest);
+    }
+
+    @Override
+    public void accountUpdated(BankAccount account) {
+        dirty.put(account.id(), account);
+    }
+
+    @Override
+    public void transactionCompleted() {
+        if (checkpointInterval > 0 && ++sinceCheckpoint >= checkpointInterval) {
+            Map<String, AccountState> states = new HashMap<>(latest.states);
+            for (BankAccount a : dirty.values()) {
+                states.put(a.id(), stateOf(a));
+            }
+            publish(new Version(nextVersion++, false, Collections.unmodifiableMap(states)));
+        }
+    }
+
+    @Override
+    public void batchCommitted(AccountSource accounts) {
+        publish(new Version(nextVersion++, true, copyOf(accounts)));
+    }
+
+    private void publish(Version next) {
+        dirty.clear();
+        sinceCheckpoint = 0;
+        latest = next;      // first, so latest is never older than committed
+        if (next.committed) committed = next;
+    }
+
+    private static Map<String, AccountState> copyOf(AccountSource accounts) {
+        Map<String, AccountState> states = new HashMap<>();
+        accounts.forEach(a -> states.put(a.id(), stateOf(a)));
+        return Collections.unmodifiableMap(states);
+    }
+
+    private static AccountState stateOf(BankAccount account) {
+        return new AccountState(account.id(), account.balance(), account.flagged());
+    }
+}
@@ -0,0 +1,56 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BankAccount;
+
+/**
+ * Observer for account mutations made by processDailyBatch.
+ *
+ * All callbacks run on the batch thread, in the order the batch makes its changes. Listeners must not mutate
+ * accounts; they exist so that side structures (snapshots, checksums, ...) can follow the batch without the batch
+ * knowing about them.
+ */
+interface BatchListener {
+
+    // Shared no-op listener, used when a BatchConfig does not set one.
+    BatchListener NONE = new BatchListener() {
+    };
+
+    // An account's balance and/or flag may have changed (called after the change is complete).
+    default void accountUpdated(BankAccount account) {
+    }
+
+    // Sequential mode only: every transaction up to this one is fully applied (a consistent in-batch point).
+    default void transactionCompleted() {
+    }
+
+    // APPLY and POST-CHECKS are finished; accounts hold the end-of-batch state.
+    default void batchCommitted(AccountSource accounts) {
+    }
+
+    /**************************************************
+       Method Name: of
+       Returns: BatchListener
+       Input: listeners
+       Precondition: listeners and its elements are non-null
+       Task: Combine several listeners into one that forwards each callback in the given order.
+       **************************************************/
+    static BatchListener of(BatchListener... listeners) {
+        BatchListener[] copy = listeners.clone();
+        return new BatchListener() {
+            @Override
+            public void accountUpdated(BankAccount account) {
+                for (BatchListener l : copy) l.accountUpdated(account);
+            }
+
+            @Override
+            public void transactionCompleted() {
+                for (BatchListener l : copy) l.transactionCompleted();
+            }
+
+            @Override
+            public void batchCommitted(AccountSource accounts) {
+                for (BatchListener l : copy) l.batchCommitted(accounts);
+            }
+        };
+    }
+}
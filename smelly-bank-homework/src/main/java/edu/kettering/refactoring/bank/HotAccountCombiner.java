@@ -0,0 +1,224 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.ApplyOutcome;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BankAccount;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Flat-combining poster for one hot account (payroll, merchant settlement, ...).
+ *
+ * With a per-account lock, thousands of concurrent postings to the same account form a convoy: each thread waits
+ * for the lock just to add one number. Here a posting thread enqueues its request and then either waits for it to
+ * be answered or, if nobody is combining, becomes the combiner itself. The combiner drains the queue in arrival
+ * order, checks each request against a running balance (canWithdraw, so the checking overdraft and savings rules
+ * are the same as in the batch), nets the accepted amounts, and writes BankAccount.bal once per round.
+ *
+ * When nobody is combining and nothing is queued, a posting applies itself directly under the combining flag
+ * without allocating a queue node, so an uncontended account costs one CAS per posting rather than a queue round
+ * trip.
+ *
+ * Rounds run on whichever posting thread combines, so the combiner never calls its BatchListener itself (listeners
+ * are promised the batch thread). Instead the thread that owns the listener calls deliverUpdates(), which reports
+ * the account once if any round has written it since the previous delivery.
+ *
+ * While an account is in combining mode, every posting to it must go through its combiner.
+ */
+final class HotAccountCombiner {
+
+    private static final int DEFAULT_MAX_COMBINE = 256;
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    // A pending DEPOSIT or WITHDRAW; outcome is written once by the combiner that answers it.
+    private static final class Request {
+        final boolean deposit;
+        final double amount;
+        volatile ApplyOutcome outcome;
+
+        Request(boolean deposit, double amount) {
+            this.deposit = deposit;
+            this.amount = amount;
+        }
+    }
+
+    private final BankAccount account;
+    private final BatchListener listener;
+    private final ConcurrentLinkedQueue<Request> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean combining = new AtomicBoolean();
+
+    // Combiner-only state (guarded by the combining flag).
+    private final Request[] round;
+    private final ApplyOutcome[] roundOutcomes;
+
+    // Written only by the combiner, readable at any time.
+    private volatile long rounds;
+    private volatile long combinedRequests;
+
+    // Listener-thread state: the round count last reported by deliverUpdates.
+    private long deliveredRounds;
+
+    /**************************************************
+       Method Name: HotAccountCombiner
+       Returns: N/A (constructor)
+       Input: account
+       Precondition: account is non-null
+       Task: Create a combiner with the default round size and no listener.
+       **************************************************/
+    HotAccountCombiner(BankAccount account) {
+        this(account, DEFAULT_MAX_COMBINE, BatchListener.NONE);
+    }
+
+    /**************************************************
+       Method Name: HotAccountCombiner
+       Returns: N/A (constructor)
+       Input: account, maxCombine, listener
+       Precondition: account/listener are non-null; maxCombine > 0
+       Task: Create a combiner that answers at most maxCombine requests per round and reports each round's update.
+       **************************************************/
+    HotAccountCombiner(BankAccount account, int maxCombine, BatchListener listener) {
+        if (maxCombine <= 0) throw new IllegalArgumentException("maxCombine <= 0");
+        this.account = account;
+        this.listener = listener;
+        this.round = new Request[maxCombine];
+        this.roundOutcomes = new ApplyOutcome[maxCombine];
+    }
+
+    /**************************************************
+       Method Name: deposit
+       Returns: ApplyOutcome (always APPLIED)
+       Input: amount
+       Precondition: amount is numeric
+       Task: Post a deposit and wait until a combiner has applied it.
+       **************************************************/
+    ApplyOutcome deposit(double amount) {
+        ApplyOutcome direct = tryApplyDirectly(true, amount);
+        return direct != null ? direct : submit(new Request(true, amount));
+    }
+
+    /**************************************************
+       Method Name: withdraw
+       Returns: ApplyOutcome (APPLIED or DECLINED)
+       Input: amount
+       Precondition: amount is non-negative
+       Task: Post a withdrawal and wait until a combiner has checked it in arrival order.
+       **************************************************/
+    ApplyOutcome withdraw(double amount) {
+        ApplyOutcome direct = tryApplyDirectly(false, amount);
+        return direct != null ? direct : submit(new Request(false, amount));
+    }
+
+    /**************************************************
+       Method Name: deliverUpdates
+       Returns: boolean (true if the listener was called)
+       Input: none
+       Precondition: called only from the thread that drives the listener (the batch thread)
+       Task: Report the account to the listener once if any round has written it since the last delivery.
+       **************************************************/
+    boolean deliverUpdates() {
+        long r = rounds;
+        if (r == deliveredRounds) {
+            return false;
+        }
+        deliveredRounds = r;
+        listener.accountUpdated(account);
+        return true;
+    }
+
+    // Account this combiner posts to.
+    BankAccount account() { return account; }
+
+    // Number of combining rounds so far.
+    long rounds() { return rounds; }
+
+    // Average number of requests answered per round.
+    double averageRoundSize() {
+        long r = rounds;
+        return r == 0 ? 0.0 : (double) combinedRequests / r;
+    }
+
+    // Uncontended fast path: null if another poster is combining or requests are already queued ahead of this one.
+    private ApplyOutcome tryApplyDirectly(boolean deposit, double amount) {
+        if (!pending.isEmpty() || combining.get() || !combining.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            if (!pending.isEmpty()) {
+                return null;
+            }
+            double balance = account.bal;
+            ApplyOutcome outcome;
+            if (deposit) {
+                account.bal = balance + amount;
+                outcome = ApplyOutcome.APPLIED;
+            } else if (SmellyBankHomeworkShorter.canWithdraw(account, balance, amount)) {
+                account.bal = balance - amount;
+                outcome = ApplyOutcome.APPLIED;
+            } else {
+                return ApplyOutcome.DECLINED;
+            }
+            rounds = rounds + 1;
+            combinedRequests = combinedRequests + 1;
+            return outcome;
+        } finally {
+            combining.set(false);
+        }
+    }
+
+    private ApplyOutcome submit(Request request) {
+        pending.add(request);
+        int spins = 0;
+        while (true) {
+            ApplyOutcome outcome = request.outcome;
+            if (outcome != null) {
+                return outcome;
+            }
+            if (!combining.get() && combining.compareAndSet(false, true)) {
+                try {
+                    combine();
+                } finally {
+                    combining.set(false);
+                }
+                continue;
+            }
+            if (++spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void combine() {
+        double balance = account.bal;
+        int n = 0;
+        Request request;
+        while (n < round.length && (request = pending.poll()) != null) {
+            ApplyOutcome outcome;
+            if (request.deposit) {
+                balance += request.amount;
+                outcome = ApplyOutcome.APPLIED;
+            } else if (SmellyBankHomeworkShorter.canWithdraw(account, balance, request.amount)) {
+                balance -= request.amount;
+                outcome = ApplyOutcome.APPLIED;
+            } else {
+                outcome = ApplyOutcome.DECLINED;
+            }
+            round[n] = request;
+            roundOutcomes[n] = outcome;
+            n++;
+        }
+        if (n == 0) {
+            return;
+        }
+
+        // One write for the whole round, then release the waiters (their volatile read sees the new balance).
+        account.bal = balance;
+        for (int i = 0; i < n; i++) {
+            round[i].outcome = roundOutcomes[i];
+            round[i] = null;
+        }
+        rounds = rounds + 1;
+        combinedRequests = combinedRequests + n;
+    }
+}
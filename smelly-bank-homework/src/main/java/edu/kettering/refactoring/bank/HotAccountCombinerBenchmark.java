@@ -0,0 +1,96 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BankAccount;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.CheckingAccount;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput of postings to a single hot account at 1, 8 and 64 threads: HotAccountCombiner versus a plain
+ * per-account lock around the same rules. Each thread alternates DEPOSIT 1.00 and WITHDRAW 1.00 for a fixed time.
+ *
+ * Usage: java -cp target/classes edu.kettering.refactoring.bank.HotAccountCombinerBenchmark [seconds]
+ */
+public class HotAccountCombinerBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 8, 64};
+
+    // Operation under test; returns nothing, the outcome is not interesting here.
+    private interface Poster {
+        void post(boolean deposit);
+    }
+
+    /**************************************************
+       Method Name: main
+       Returns: void
+       Input: args (optional measurement seconds per run)
+       Precondition: numeric arg if present
+       Task: Run both posting strategies at each thread count and print operations per second.
+       **************************************************/
+    public static void main(String[] args) throws InterruptedException {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2.0;
+        long millis = (long) (seconds * 1000);
+
+        System.out.printf(Locale.US, "%-10s %8s %16s %12s%n", "mode", "threads", "ops/s", "avg round");
+        for (int threads : THREAD_COUNTS) {
+            BankAccount locked = new CheckingAccount("P-1", "Payroll", 1_000_000, 0);
+            run("lock", threads, millis / 4, post -> lockedPost(locked, post));   // warm-up
+            double lockOps = run("lock", threads, millis, post -> lockedPost(locked, post));
+            System.out.printf(Locale.US, "%-10s %8d %,16.0f %12s%n", "lock", threads, lockOps, "-");
+
+            HotAccountCombiner combiner = new HotAccountCombiner(new CheckingAccount("P-2", "Payroll", 1_000_000, 0));
+            Poster combined = post -> {
+                if (post) combiner.deposit(1.0); else combiner.withdraw(1.0);
+            };
+            run("combining", threads, millis / 4, combined);
+            double combinedOps = run("combining", threads, millis, combined);
+            System.out.printf(Locale.US, "%-10s %8d %,16.0f %12.1f%n", "combining", threads, combinedOps,
+                    combiner.averageRoundSize());
+        }
+    }
+
+    private static void lockedPost(BankAccount account, boolean deposit) {
+        synchronized (account) {
+            if (deposit) {
+                account.bal += 1.0;
+            } else if (SmellyBankHomeworkShorter.canWithdraw(account, 1.0)) {
+                account.bal -= 1.0;
+            }
+        }
+    }
+
+    private static double run(String name, int threads, long millis, Poster poster) throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long local = 0;
+                while (!stop.get()) {
+                    poster.post((local & 1) == 0);
+                    local++;
+                }
+                ops.add(local);
+            }, name + "-" + t);
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ops.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Refactoring Homework: Bank Accounts (Checking/Savings)
@@ -130,6 +131,9 @@ public class SmellyBankHomeworkShorter {
         final String currency;
         final int digits;
         final boolean rounding;
+        final ExecutionMode executionMode;
+        final TypePartitionedExecutor partitionedExecutor;
+        final BatchListener listener;
 
         /**************************************************
            Method Name: BatchConfig
@@ -146,6 +150,22 @@ public class SmellyBankHomeworkShorter {
                 String currency,
                 int digits,
                 boolean rounding
+        ) {
+            this(includeZeroAmountTxns, flagLargeTxnThreshold, vipBalanceThreshold, debug, currency, digits, rounding,
+                    ExecutionMode.SEQUENTIAL, TypePartitionedExecutor.DEFAULT, BatchListener.NONE);
+        }
+
+        private BatchConfig(
+                boolean includeZeroAmountTxns,
+                double flagLargeTxnThreshold,
+                double vipBalanceThreshold,
+                boolean debug,
+                String currency,
+                int digits,
+                boolean rounding,
+                ExecutionMode executionMode,
+                TypePartitionedExecutor partitionedExecutor,
+                BatchListener listener
         ) {
             this.includeZeroAmountTxns = includeZeroAmountTxns;
             this.flagLargeTxnThreshold = flagLargeTxnThreshold;
@@ -154,6 +174,45 @@ public class SmellyBankHomeworkShorter {
             this.currency = currency;
             this.digits = digits;
             this.rounding = rounding;
+            this.executionMode = executionMode;
+            this.partitionedExecutor = partitionedExecutor;
+            this.listener = listener;
+        }
+
+        /**************************************************
+           Method Name: withExecutionMode
+           Returns: BatchConfig
+           Input: mode
+           Precondition: mode is non-null
+           Task: Copy this config with a different apply/post-check execution mode (report output is unchanged).
+           **************************************************/
+        BatchConfig withExecutionMode(ExecutionMode mode) {
+            return new BatchConfig(includeZeroAmountTxns, flagLargeTxnThreshold, vipBalanceThreshold, debug,
+                    currency, digits, rounding, mode, partitionedExecutor, listener);
+        }
+
+        /**************************************************
+           Method Name: withPartitionedExecutor
+           Returns: BatchConfig
+           Input: executor
+           Precondition: executor is non-null
+           Task: Copy this config with the type loops used when the execution mode is TYPE_PARTITIONED.
+           **************************************************/
+        BatchConfig withPartitionedExecutor(TypePartitionedExecutor executor) {
+            return new BatchConfig(includeZeroAmountTxns, flagLargeTxnThreshold, vipBalanceThreshold, debug,
+                    currency, digits, rounding, executionMode, executor, listener);
+        }
+
+        /**************************************************
+           Method Name: withListener
+           Returns: BatchConfig
+           Input: batchListener
+           Precondition: batchListener is non-null
+           Task: Copy this config with a listener that observes account mutations and the end-of-batch commit.
+           **************************************************/
+        BatchConfig withListener(BatchListener batchListener) {
+            return new BatchConfig(includeZeroAmountTxns, flagLargeTxnThreshold, vipBalanceThreshold, debug,
+                    currency, digits, rounding, executionMode, partitionedExecutor, batchListener);
         }
     }
 
@@ -198,9 +257,20 @@ public class SmellyBankHomeworkShorter {
            **************************************************/
         void recordProjectedAnnualInterest(BankAccount account) {
             if (account instanceof SavingsAccount s) {
-                projectedAnnualInterestTotal += s.balance() * s.rate();
+                recordProjectedAnnualInterest(s.balance() * s.rate());
             }
         }
+
+        /**************************************************
+           Method Name: recordProjectedAnnualInterest
+           Returns: void
+           Input: projected
+           Precondition: projected was computed by a loop that already knows the account type
+           Task: Accumulate an interest value without re-checking the account type.
+           **************************************************/
+        void recordProjectedAnnualInterest(double projected) {
+            projectedAnnualInterestTotal += projected;
+        }
     }
 
     enum ApplyOutcome {
@@ -209,6 +279,12 @@ public class SmellyBankHomeworkShorter {
         SKIPPED_UNKNOWN_KIND
     }
 
+    // How the APPLY and POST-CHECKS steps walk the batch. Both modes produce the same report.
+    enum ExecutionMode {
+        SEQUENTIAL,        // one loop over all transactions in input order
+        TYPE_PARTITIONED   // one loop per account type (see TypePartitionedExecutor)
+    }
+
     /**************************************************
        Method Name: main
        Returns: void
@@ -290,7 +366,7 @@ public class SmellyBankHomeworkShorter {
        Precondition: accounts/inputTxns/config are non-null
        Task: Coordinate the batch steps: filter txns, apply txns, run post-checks, and build summaries/totals.
        **************************************************/
-    private static String processDailyBatch(List<BankAccount> accounts, List<Txn> inputTxns, BatchConfig config) {
+    static String processDailyBatch(List<BankAccount> accounts, List<Txn> inputTxns, BatchConfig config) {
         StringBuilder out = new StringBuilder();
         out.append("=== BANK BATCH REPORT ===\n");
 
@@ -303,8 +379,128 @@ public class SmellyBankHomeworkShorter {
         // 3) Apply each transaction and build the APPLY section of the report
         BatchStats stats = new BatchStats();
         out.append("\n-- APPLY --\n");
+        boolean partitioned = config.executionMode == ExecutionMode.TYPE_PARTITIONED;
+        if (partitioned) {
+            config.partitionedExecutor.applyTransactions(out, accountById, txns, stats, config);
+        } else {
+            applyTransactions(out, accountById::get, txns, stats, config);
+        }
+
+        // 4) Post-check all accounts for invalid balances and flag them as needed
+        AccountSource source = AccountSource.of(accounts);
+        if (partitioned) {
+            config.partitionedExecutor.runPostChecks(out, accounts, config.listener);
+        } else {
+            runPostChecks(out, source, config.listener);
+        }
+        config.listener.batchCommitted(source);
+
+        // 5) Summaries and totals sections, matching original ordering/format
+        appendSummaries(out, source, stats, config);
+
+        return out.toString();
+    }
+
+    /**************************************************
+       Method Name: processDailyBatch
+       Returns: String (full batch report)
+       Input: store, inputTxns, config
+       Precondition: store/inputTxns/config are non-null
+       Task: Same batch and report over a TieredAccountStore. No id index is built: accounts are faulted in by the
+             apply loop, and POST-CHECKS/SUMMARY stream cold accounts from disk. Always uses the sequential loop.
+       **************************************************/
+    static String processDailyBatch(TieredAccountStore store, List<Txn> inputTxns, BatchConfig config) {
+        StringBuilder out = new StringBuilder();
+        out.append("=== BANK BATCH REPORT ===\n");
+
+        List<Txn> txns = filterTransactions(inputTxns, config, out);
+
+        BatchStats stats = new BatchStats();
+        out.append("\n-- APPLY --\n");
+        applyTransactions(out, store::get, txns, stats, config);
+
+        runPostChecks(out, store, config.listener);
+        config.listener.batchCommitted(store);
+        appendSummaries(out, store, stats, config);
+
+        store.flush();
+        return out.toString();
+    }
+
+    /**************************************************
+       Method Name: processDailyBatch
+       Returns: String (full batch report)
+       Input: accounts, txns, config
+       Precondition: accounts/txns/config are non-null
+       Task: Same batch and report as the List<Txn> version, reading a columnar TxnColumns batch directly.
+             Columnar batches always use the sequential apply loop.
+       **************************************************/
+    static String processDailyBatch(List<BankAccount> accounts, TxnColumns txns, BatchConfig config) {
+        StringBuilder out = new StringBuilder();
+        out.append("=== BANK BATCH REPORT ===\n");
+
+        // 1) Resolve each distinct account handle once instead of hashing the id on every row
+        Map<String, BankAccount> accountById = indexAccountsById(accounts);
+        BankAccount[] accountByHandle = new BankAccount[txns.accountCount()];
+        for (int h = 0; h < accountByHandle.length; h++) {
+            accountByHandle[h] = accountById.get(txns.accountId(h));
+        }
+
+        // 2) Filter pass: only the debug lines are needed, rows are skipped again in the apply loop
+        if (!config.includeZeroAmountTxns && config.debug) {
+            for (int i = 0; i < txns.size(); i++) {
+                if (txns.amountCents(i) == 0) {
+                    out.append("[dbg] filtered zero txn for ").append(txns.accountId(txns.accountHandle(i))).append("\n");
+                }
+            }
+        }
+
+        // 3) Apply each row and build the APPLY section of the report
+        BatchStats stats = new BatchStats();
+        out.append("\n-- APPLY --\n");
+        for (int i = 0; i < txns.size(); i++) {
+            if (!config.includeZeroAmountTxns && txns.amountCents(i) == 0) {
+                continue;
+            }
+            BankAccount account = accountByHandle[txns.accountHandle(i)];
+            if (account == null) {
+                stats.recordSkipped();
+                appendUnknownAccountDebug(out, config, txns.accountId(txns.accountHandle(i)));
+                continue;
+            }
+
+            double amount = txns.amount(i);
+            byte kind = txns.kindCode(i);
+            appendTransactionHeader(out, account, txns.kindName(kind), amount, txns.memo(txns.memoId(i)), config);
+            ApplyOutcome outcome = applyTransaction(account, kind, amount, stats);
+            appendOutcomeDetails(out, account.balance(), outcome, config);
+            applyFlagsAndNotes(out, account, account.balance(), amount, config);
+            out.append("\n");
+
+            config.listener.accountUpdated(account);
+            config.listener.transactionCompleted();
+        }
+
+        // 4) and 5) are identical to the List<Txn> version
+        AccountSource source = AccountSource.of(accounts);
+        runPostChecks(out, source, config.listener);
+        config.listener.batchCommitted(source);
+        appendSummaries(out, source, stats, config);
+
+        return out.toString();
+    }
+
+    /**************************************************
+       Method Name: applyTransactions
+       Returns: void
+       Input: out, accountLookup, txns, stats, config
+       Precondition: all inputs are non-null; txns are already filtered; accountLookup returns null for unknown ids
+       Task: Sequential APPLY step: apply each transaction in input order and print its report lines.
+       **************************************************/
+    private static void applyTransactions(
+            StringBuilder out, Function<String, BankAccount> accountLookup, List<Txn> txns, BatchStats stats, BatchConfig config) {
         for (Txn txn : txns) {
-            BankAccount account = accountById.get(txn.acctId);
+            BankAccount account = accountLookup.apply(txn.acctId);
             if (account == null) {
                 // Unknown account id, match original behavior: count as skipped and optionally debug print
                 stats.recordSkipped();
@@ -317,22 +513,16 @@ public class SmellyBankHomeworkShorter {
 
             // Apply business rules (deposit/withdraw/decline), and then print the outcome line
             ApplyOutcome outcome = applyTransaction(account, txn, stats);
-            appendOutcomeDetails(out, account, outcome, config);
+            appendOutcomeDetails(out, account.balance(), outcome, config);
 
             // Apply "flag large txn" and "VIP note" reporting behaviors
-            applyFlagsAndNotes(out, account, txn, config);
+            applyFlagsAndNotes(out, account, account.balance(), txn.amt, config);
             out.append("\n");
-        }
-
-        // 4) Post-check all accounts for invalid balances and flag them as needed
-        runPostChecks(out, accounts);
 
-        // 5) Summaries and totals sections, matching original ordering/format
-        appendSummaryA(out, accounts, config);
-        appendTotals(out, stats, config);
-        appendSummaryB(out, accounts, config);
-
-        return out.toString();
+            // Every transaction before this point is fully applied, so listeners may checkpoint here
+            config.listener.accountUpdated(account);
+            config.listener.transactionCompleted();
+        }
     }
 
     /**************************************************
@@ -376,7 +566,7 @@ public class SmellyBankHomeworkShorter {
        Precondition: out/config/acctId are non-null
        Task: Print the original debug line for unknown accounts (only when debug is enabled).
        **************************************************/
-    private static void appendUnknownAccountDebug(StringBuilder out, BatchConfig config, String acctId) {
+    static void appendUnknownAccountDebug(StringBuilder out, BatchConfig config, String acctId) {
         if (config.debug) {
             out.append("[dbg] unknown ").append(acctId).append("\n");
         }
@@ -389,11 +579,23 @@ public class SmellyBankHomeworkShorter {
        Precondition: out/account/txn/config are non-null
        Task: Print the transaction header line exactly as the original report formatting expects.
        **************************************************/
-    private static void appendTransactionHeader(StringBuilder out, BankAccount account, Txn txn, BatchConfig config) {
-        out.append(txn.kind).append(" acct=").append(account.id())
+    static void appendTransactionHeader(StringBuilder out, BankAccount account, Txn txn, BatchConfig config) {
+        appendTransactionHeader(out, account, txn.kind, txn.amt, txn.memo, config);
+    }
+
+    /**************************************************
+       Method Name: appendTransactionHeader
+       Returns: void
+       Input: out, account, kind, amount, memo, config
+       Precondition: out/account/kind/memo/config are non-null
+       Task: Same header line, from already-decoded transaction fields (used by columnar batches).
+       **************************************************/
+    static void appendTransactionHeader(
+            StringBuilder out, BankAccount account, String kind, double amount, String memo, BatchConfig config) {
+        out.append(kind).append(" acct=").append(account.id())
                 .append(" owner=").append(account.owner())
-                .append(" amt=").append(fmt(txn.amt, config.digits, config.rounding)).append(" ").append(config.currency)
-                .append(" memo=").append(txn.memo).append("\n");
+                .append(" amt=").append(fmt(amount, config.digits, config.rounding)).append(" ").append(config.currency)
+                .append(" memo=").append(memo).append("\n");
     }
 
     /**************************************************
@@ -404,20 +606,31 @@ public class SmellyBankHomeworkShorter {
        Task: Apply the transaction rules (deposit/withdraw) and update stats. Unknown kinds are skipped.
        **************************************************/
     private static ApplyOutcome applyTransaction(BankAccount account, Txn txn, BatchStats stats) {
-        if ("DEPOSIT".equals(txn.kind)) {
-            account.bal += txn.amt;
-            stats.recordApplied(txn.amt);
+        return applyTransaction(account, TxnColumns.kindCodeOf(txn.kind), txn.amt, stats);
+    }
+
+    /**************************************************
+       Method Name: applyTransaction
+       Returns: ApplyOutcome
+       Input: account, kindCode, amount, stats
+       Precondition: account/stats are non-null; kindCode is a TxnColumns kind code
+       Task: Apply the transaction rules for an already-decoded kind code and update stats.
+       **************************************************/
+    private static ApplyOutcome applyTransaction(BankAccount account, byte kindCode, double amount, BatchStats stats) {
+        if (kindCode == TxnColumns.KIND_DEPOSIT) {
+            account.bal += amount;
+            stats.recordApplied(amount);
             stats.recordProjectedAnnualInterest(account);
             return ApplyOutcome.APPLIED;
         }
 
-        if ("WITHDRAW".equals(txn.kind)) {
-            if (!canWithdraw(account, txn.amt)) {
+        if (kindCode == TxnColumns.KIND_WITHDRAW) {
+            if (!canWithdraw(account, amount)) {
                 stats.recordSkipped();
                 return ApplyOutcome.DECLINED;
             }
-            account.bal -= txn.amt;
-            stats.recordApplied(txn.amt);
+            account.bal -= amount;
+            stats.recordApplied(amount);
             stats.recordProjectedAnnualInterest(account);
             return ApplyOutcome.APPLIED;
         }
@@ -433,8 +646,19 @@ public class SmellyBankHomeworkShorter {
        Precondition: account is non-null; amount is non-negative
        Task: Enforce withdrawal rules: checking allows overdraft, savings cannot go negative.
        **************************************************/
-    private static boolean canWithdraw(BankAccount account, double amount) {
-        double newBalance = account.bal - amount;
+    static boolean canWithdraw(BankAccount account, double amount) {
+        return canWithdraw(account, account.bal, amount);
+    }
+
+    /**************************************************
+       Method Name: canWithdraw
+       Returns: boolean
+       Input: account, balance, amount
+       Precondition: account is non-null; balance is the balance to check against (may not be account.bal yet)
+       Task: Same withdrawal rules against a running balance, for callers that net several requests first.
+       **************************************************/
+    static boolean canWithdraw(BankAccount account, double balance, double amount) {
+        double newBalance = balance - amount;
         if (account instanceof CheckingAccount c) {
             return newBalance >= -c.overdraft();
         }
@@ -444,13 +668,13 @@ public class SmellyBankHomeworkShorter {
     /**************************************************
        Method Name: appendOutcomeDetails
        Returns: void
-       Input: out, account, outcome, config
-       Precondition: out/account/outcome/config are non-null
+       Input: out, balance, outcome, config
+       Precondition: out/outcome/config are non-null; balance is the account balance right after this txn
        Task: Print the post-apply line ("newBal" or "DECLINED" or "SKIP...") exactly as the original did.
        **************************************************/
-    private static void appendOutcomeDetails(StringBuilder out, BankAccount account, ApplyOutcome outcome, BatchConfig config) {
+    static void appendOutcomeDetails(StringBuilder out, double balance, ApplyOutcome outcome, BatchConfig config) {
         switch (outcome) {
-            case APPLIED -> out.append("  newBal=").append(fmt(account.bal, config.digits, config.rounding)).append("\n");
+            case APPLIED -> out.append("  newBal=").append(fmt(balance, config.digits, config.rounding)).append("\n");
             case DECLINED -> out.append("  DECLINED\n");
             case SKIPPED_UNKNOWN_KIND -> out.append("  SKIP unknown kind\n");
         }
@@ -459,16 +683,16 @@ public class SmellyBankHomeworkShorter {
     /**************************************************
        Method Name: applyFlagsAndNotes
        Returns: void
-       Input: out, account, txn, config
-       Precondition: out/account/txn/config are non-null
+       Input: out, account, balance, amount, config
+       Precondition: out/account/config are non-null; balance is the account balance right after this txn
        Task: Apply/report "large transaction" flags and "VIP NOTE" messages.
        **************************************************/
-    private static void applyFlagsAndNotes(StringBuilder out, BankAccount account, Txn txn, BatchConfig config) {
-        if (Math.abs(txn.amt) >= config.flagLargeTxnThreshold) {
+    static void applyFlagsAndNotes(StringBuilder out, BankAccount account, double balance, double amount, BatchConfig config) {
+        if (Math.abs(amount) >= config.flagLargeTxnThreshold) {
             account.setFlagged(true);
             out.append("  ** FLAG large txn **\n");
         }
-        if (account.balance() >= config.vipBalanceThreshold) {
+        if (balance >= config.vipBalanceThreshold) {
             out.append("  VIP NOTE\n");
         }
     }
@@ -476,25 +700,48 @@ public class SmellyBankHomeworkShorter {
     /**************************************************
        Method Name: runPostChecks
        Returns: void
-       Input: out, accounts
-       Precondition: out/accounts are non-null
+       Input: out, accounts, listener
+       Precondition: out/accounts/listener are non-null
        Task: Scan all accounts and flag any that violate their balance constraints.
        **************************************************/
-    private static void runPostChecks(StringBuilder out, List<BankAccount> accounts) {
+    private static void runPostChecks(StringBuilder out, AccountSource accounts, BatchListener listener) {
         out.append("-- POST-CHECKS --\n");
-        for (BankAccount a : accounts) {
-            if (a instanceof CheckingAccount c) {
-                if (a.balance() < -c.overdraft()) {
-                    a.setFlagged(true);
-                    out.append("Flag ").append(a.id()).append(" beyond overdraft\n");
-                }
-            } else {
-                if (a.balance() < 0) {
-                    a.setFlagged(true);
-                    out.append("Flag ").append(a.id()).append(" negative savings\n");
-                }
+        accounts.forEach(a -> {
+            String violation = postCheckViolation(a);
+            if (violation != null) {
+                a.setFlagged(true);
+                accounts.writeBack(a);
+                out.append("Flag ").append(a.id()).append(" ").append(violation).append("\n");
+                listener.accountUpdated(a);
             }
+        });
+    }
+
+    /**************************************************
+       Method Name: postCheckViolation
+       Returns: String (report reason, or null when the account is fine)
+       Input: account
+       Precondition: account is non-null
+       Task: Decide whether an account violates its balance constraint after the batch.
+       **************************************************/
+    static String postCheckViolation(BankAccount account) {
+        if (account instanceof CheckingAccount c) {
+            return account.balance() < -c.overdraft() ? "beyond overdraft" : null;
         }
+        return account.balance() < 0 ? "negative savings" : null;
+    }
+
+    /**************************************************
+       Method Name: appendSummaries
+       Returns: void
+       Input: out, accounts, stats, config
+       Precondition: out/accounts/stats/config are non-null
+       Task: Print SUMMARY A, TOTALS and SUMMARY B in the original order.
+       **************************************************/
+    private static void appendSummaries(StringBuilder out, AccountSource accounts, BatchStats stats, BatchConfig config) {
+        appendSummaryA(out, accounts, config);
+        appendTotals(out, stats, config);
+        appendSummaryB(out, accounts, config);
     }
 
     /**************************************************
@@ -504,14 +751,13 @@ public class SmellyBankHomeworkShorter {
        Precondition: out/accounts/config are non-null
        Task: Print the first account summary block in forward order.
        **************************************************/
-    private static void appendSummaryA(StringBuilder out, List<BankAccount> accounts, BatchConfig config) {
+    private static void appendSummaryA(StringBuilder out, AccountSource accounts, BatchConfig config) {
         out.append("\n-- SUMMARY A --\n");
-        for (BankAccount a : accounts) {
+        accounts.forEach(a ->
             out.append(a.id()).append(" ").append(a.type()).append(" ").append(a.owner())
                     .append(" bal=").append(fmt(a.balance(), config.digits, config.rounding))
                     .append(a.flagged() ? " [FLAG]" : "")
-                    .append("\n");
-        }
+                    .append("\n"));
     }
 
     /**************************************************
@@ -535,16 +781,14 @@ public class SmellyBankHomeworkShorter {
        Precondition: out/accounts/config are non-null
        Task: Print the second account summary block in reverse order.
        **************************************************/
-    private static void appendSummaryB(StringBuilder out, List<BankAccount> accounts, BatchConfig config) {
+    private static void appendSummaryB(StringBuilder out, AccountSource accounts, BatchConfig config) {
         out.append("\n-- SUMMARY B --\n");
-        for (int i = accounts.size() - 1; i >= 0; i--) {
-            BankAccount a = accounts.get(i);
+        accounts.forEachReversed(a ->
             out.append("[").append(a.type()).append("] ").append(a.owner())
                     .append(" id=").append(a.id())
                     .append(" bal=").append(fmt(a.balance(), config.digits, config.rounding))
                     .append(a.flagged() ? " *" : "")
-                    .append("\n");
-        }
+                    .append("\n"));
     }
 
     /**************************************************
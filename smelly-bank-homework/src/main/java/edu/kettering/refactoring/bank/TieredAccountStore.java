@@ -0,0 +1,280 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BankAccount;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.CheckingAccount;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.SavingsAccount;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Two-tier account storage: a bounded LRU set of hot BankAccount objects on the heap, and every account as a
+ * fixed-size record in a memory-mapped file.
+ *
+ * get() faults a cold account in from its record and makes it hot; the least recently used hot account is written
+ * back to its record when the hot set is full. forEach()/forEachReversed() walk all records in account order without
+ * making anything hot: hot accounts are handed out as-is, cold ones as short-lived copies, so a full SUMMARY pass
+ * keeps at most the hot set on the heap. The id -> record index is kept on the heap.
+ *
+ * Record layout (RECORD_SIZE bytes): type, flagged, balance, overdraft-or-rate, id (length + UTF-8), owner (length +
+ * UTF-8). Only CheckingAccount and SavingsAccount can be stored. Not thread-safe: one batch thread at a time.
+ *
+ * The file is kept between runs: opening an existing file reloads its accounts (records are written contiguously,
+ * so the first record with no type ends the list). It is mapped in segments of at most segmentRecords records, each
+ * addressed with a long file offset, so the file is not limited by the 2 GiB size of one mapping. The store holds at
+ * most Integer.MAX_VALUE accounts, and the heap id index bounds it well below that in practice.
+ */
+final class TieredAccountStore implements AccountSource, Closeable {
+
+    static final int RECORD_SIZE = 128;
+    static final int MAX_ID_BYTES = 32;
+    static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;   // 128 MiB per mapping
+
+    private static final byte TYPE_CHECKING = 1;
+    private static final byte TYPE_SAVINGS = 2;
+
+    private static final int OFF_TYPE = 0;
+    private static final int OFF_FLAGGED = 1;
+    private static final int OFF_BALANCE = 2;
+    private static final int OFF_PARAM = 10;
+    private static final int OFF_ID = 18;
+    private static final int OFF_OWNER = OFF_ID + 2 + MAX_ID_BYTES;
+
+    static final int MAX_OWNER_BYTES = RECORD_SIZE - OFF_OWNER - 2;
+
+    private final FileChannel channel;
+    private final int segmentRecords;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long capacity;
+    private int size;
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Map<Integer, BankAccount> hotBySlot = new HashMap<>();   // lookup without touching LRU order
+    private final LinkedHashMap<Integer, BankAccount> lru;
+    private long faults;
+
+    /**************************************************
+       Method Name: TieredAccountStore
+       Returns: N/A (constructor)
+       Input: file, initialCapacity, hotCapacity
+       Precondition: file is writable; initialCapacity > 0; hotCapacity > 0
+       Task: Open (or create) the backing file with the default segment size.
+       **************************************************/
+    TieredAccountStore(Path file, int initialCapacity, int hotCapacity) {
+        this(file, initialCapacity, hotCapacity, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**************************************************
+       Method Name: TieredAccountStore
+       Returns: N/A (constructor)
+       Input: file, initialCapacity, hotCapacity, segmentRecords
+       Precondition: file is writable; initialCapacity, hotCapacity and segmentRecords are > 0
+       Task: Open (or create) the backing file, reload any accounts it holds and map room for initialCapacity records.
+       **************************************************/
+    TieredAccountStore(Path file, int initialCapacity, int hotCapacity, int segmentRecords) {
+        if (initialCapacity <= 0 || hotCapacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        if (segmentRecords <= 0 || segmentRecords > Integer.MAX_VALUE / RECORD_SIZE) {
+            throw new IllegalArgumentException("segmentRecords out of range: " + segmentRecords);
+        }
+        this.segmentRecords = segmentRecords;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            map(Math.max(initialCapacity, channel.size() / RECORD_SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        reload();
+        this.lru = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BankAccount> eldest) {
+                if (size() <= hotCapacity) return false;
+                writeRecord(eldest.getKey(), eldest.getValue());
+                hotBySlot.remove(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**************************************************
+       Method Name: add
+       Returns: void
+       Input: account
+       Precondition: account is a CheckingAccount or SavingsAccount with a new id
+       Task: Append an account as a cold record (account order is insertion order).
+       **************************************************/
+    void add(BankAccount account) {
+        if (slotById.containsKey(account.id())) throw new IllegalArgumentException("duplicate account " + account.id());
+        byte type;
+        double param;
+        if (account instanceof CheckingAccount c) {
+            type = TYPE_CHECKING;
+            param = c.overdraft();
+        } else if (account instanceof SavingsAccount s) {
+            type = TYPE_SAVINGS;
+            param = s.rate();
+        } else {
+            throw new IllegalArgumentException("unsupported account type " + account.getClass().getSimpleName());
+        }
+        byte[] id = encode(account.id(), MAX_ID_BYTES);
+        byte[] owner = encode(account.owner(), MAX_OWNER_BYTES);
+        if (size == Integer.MAX_VALUE) throw new IllegalStateException("store is full");
+        if (size == capacity) map(Math.min(capacity * 2, Integer.MAX_VALUE));
+
+        int slot = size++;
+        ByteBuffer r = record(slot);
+        putString(r, OFF_ID, id);
+        putString(r, OFF_OWNER, owner);
+        r.putDouble(OFF_PARAM, param);
+        writeRecord(slot, account);
+        r.put(OFF_TYPE, type);   // last: a typed record is in use when the file is reopened
+        slotById.put(account.id(), slot);
+    }
+
+    /**************************************************
+       Method Name: get
+       Returns: BankAccount (or null for an unknown id)
+       Input: id
+       Precondition: id is non-null
+       Task: Return the hot account for id, faulting it in from disk (and maybe evicting the LRU account) if cold.
+       **************************************************/
+    BankAccount get(String id) {
+        Integer slot = slotById.get(id);
+        if (slot == null) return null;
+        BankAccount hot = lru.get(slot);
+        if (hot != null) return hot;
+        BankAccount account = readRecord(slot);
+        faults++;
+        hotBySlot.put(slot, account);
+        lru.put(slot, account);
+        return account;
+    }
+
+    @Override
+    public void forEach(Consumer<BankAccount> action) {
+        for (int slot = 0; slot < size; slot++) action.accept(peek(slot));
+    }
+
+    @Override
+    public void forEachReversed(Consumer<BankAccount> action) {
+        for (int slot = size - 1; slot >= 0; slot--) action.accept(peek(slot));
+    }
+
+    @Override
+    public void writeBack(BankAccount account) {
+        Integer slot = slotById.get(account.id());
+        if (slot != null && hotBySlot.get(slot) != account) {
+            writeRecord(slot, account);   // hot accounts are written on eviction or flush
+        }
+    }
+
+    /**************************************************
+       Method Name: flush
+       Returns: void
+       Input: none
+       Precondition: none
+       Task: Write every hot account back to its record and force the mapping to disk. Hot accounts stay hot.
+       **************************************************/
+    void flush() {
+        for (Map.Entry<Integer, BankAccount> e : hotBySlot.entrySet()) {
+            writeRecord(e.getKey(), e.getValue());
+        }
+        for (MappedByteBuffer segment : segments) segment.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // Number of stored accounts.
+    int size() { return size; }
+
+    // Number of accounts currently on the heap.
+    int hotCount() { return hotBySlot.size(); }
+
+    // Number of times get() had to read an account from disk.
+    long faults() { return faults; }
+
+    private BankAccount peek(int slot) {
+        BankAccount hot = hotBySlot.get(slot);
+        return hot != null ? hot : readRecord(slot);
+    }
+
+    private BankAccount readRecord(int slot) {
+        ByteBuffer r = record(slot);
+        String id = getString(r, OFF_ID);
+        String owner = getString(r, OFF_OWNER);
+        double balance = r.getDouble(OFF_BALANCE);
+        double param = r.getDouble(OFF_PARAM);
+        BankAccount account = r.get(OFF_TYPE) == TYPE_CHECKING
+                ? new CheckingAccount(id, owner, balance, param)
+                : new SavingsAccount(id, owner, balance, param);
+        account.setFlagged(r.get(OFF_FLAGGED) != 0);
+        return account;
+    }
+
+    private void writeRecord(int slot, BankAccount account) {
+        record(slot).putDouble(OFF_BALANCE, account.balance()).put(OFF_FLAGGED, (byte) (account.flagged() ? 1 : 0));
+    }
+
+    private ByteBuffer record(int slot) {
+        return segments.get(slot / segmentRecords).slice((slot % segmentRecords) * RECORD_SIZE, RECORD_SIZE);
+    }
+
+    // Rebuild the id index from the records already in the file.
+    private void reload() {
+        while (size < capacity && record(size).get(OFF_TYPE) != 0) {
+            String id = getString(record(size), OFF_ID);
+            slotById.put(id, size);
+            size++;
+        }
+    }
+
+    // Grow the mapped range to newCapacity records: remap the last, partial segment and add new ones.
+    private void map(long newCapacity) {
+        try {
+            int first = segments.isEmpty() ? 0 : segments.size() - 1;
+            for (int i = first; (long) i * segmentRecords < newCapacity; i++) {
+                long start = (long) i * segmentRecords;
+                long records = Math.min(segmentRecords, newCapacity - start);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, start * RECORD_SIZE,
+                        records * RECORD_SIZE);
+                if (i < segments.size()) segments.set(i, segment); else segments.add(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        capacity = newCapacity;
+    }
+
+    private static byte[] encode(String value, int maxBytes) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) throw new IllegalArgumentException("value too long for record: " + value);
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer r, int offset, byte[] bytes) {
+        r.putShort(offset, (short) bytes.length).put(offset + 2, bytes);
+    }
+
+    private static String getString(ByteBuffer r, int offset) {
+        byte[] bytes = new byte[r.getShort(offset)];
+        r.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
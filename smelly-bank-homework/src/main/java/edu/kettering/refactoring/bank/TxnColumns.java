@@ -0,0 +1,246 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.Txn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar, dictionary-encoded transaction batch.
+ *
+ * A Txn object carries three String references and a double per row. Account ids, kinds and memos repeat heavily,
+ * so large batches are mostly duplicate strings and object headers. Here each row is four primitives:
+ * - int account handle (index into the account id dictionary)
+ * - byte kind code (DEPOSIT and WITHDRAW are fixed codes; other kinds are kept so they can still be reported)
+ * - long amount in cents
+ * - int memo id (index into the memo dictionary)
+ *
+ * processDailyBatch(List<BankAccount>, TxnColumns, BatchConfig) reads these columns directly.
+ */
+final class TxnColumns {
+
+    static final byte KIND_DEPOSIT = 0;
+    static final byte KIND_WITHDRAW = 1;
+    // Returned by kindCodeOf() for kinds that are not DEPOSIT/WITHDRAW; never stored in a batch.
+    static final byte KIND_OTHER = -1;
+
+    private static final int MAX_KINDS = Byte.MAX_VALUE + 1;
+
+    private final Dictionary accountIds = new Dictionary();
+    private final Dictionary kinds = new Dictionary();
+    private final Dictionary memos = new Dictionary();
+
+    private int[] accountHandles;
+    private byte[] kindCodes;
+    private long[] amountCents;
+    private int[] memoIds;
+    private int size;
+
+    /**************************************************
+       Method Name: TxnColumns
+       Returns: N/A (constructor)
+       Input: expectedRows
+       Precondition: expectedRows >= 0
+       Task: Create an empty batch with room for expectedRows rows before the columns grow.
+       **************************************************/
+    TxnColumns(int expectedRows) {
+        int capacity = Math.max(expectedRows, 16);
+        accountHandles = new int[capacity];
+        kindCodes = new byte[capacity];
+        amountCents = new long[capacity];
+        memoIds = new int[capacity];
+        kinds.intern("DEPOSIT");
+        kinds.intern("WITHDRAW");
+    }
+
+    /**************************************************
+       Method Name: of
+       Returns: TxnColumns
+       Input: txns
+       Precondition: txns is non-null; every amount is a whole number of cents
+       Task: Encode an object batch into columns (row order is kept).
+       **************************************************/
+    static TxnColumns of(List<Txn> txns) {
+        TxnColumns columns = new TxnColumns(txns.size());
+        for (Txn txn : txns) {
+            columns.add(txn.acctId, txn.kind, toCents(txn.amt), txn.memo);
+        }
+        return columns;
+    }
+
+    /**************************************************
+       Method Name: add
+       Returns: int (row index)
+       Input: acctId, kind, cents, memo
+       Precondition: acctId/kind/memo are non-null
+       Task: Append one row, interning the account id, kind and memo.
+       **************************************************/
+    int add(String acctId, String kind, long cents, String memo) {
+        int kindCode = kinds.intern(kind);
+        if (kindCode >= MAX_KINDS) {
+            throw new IllegalStateException("too many distinct transaction kinds");
+        }
+        if (size == accountHandles.length) {
+            int capacity = size * 2;
+            accountHandles = Arrays.copyOf(accountHandles, capacity);
+            kindCodes = Arrays.copyOf(kindCodes, capacity);
+            amountCents = Arrays.copyOf(amountCents, capacity);
+            memoIds = Arrays.copyOf(memoIds, capacity);
+        }
+        accountHandles[size] = accountIds.intern(acctId);
+        kindCodes[size] = (byte) kindCode;
+        amountCents[size] = cents;
+        memoIds[size] = memos.intern(memo);
+        return size++;
+    }
+
+    // Kind code for a kind string: KIND_DEPOSIT, KIND_WITHDRAW or KIND_OTHER.
+    static byte kindCodeOf(String kind) {
+        if ("DEPOSIT".equals(kind)) return KIND_DEPOSIT;
+        if ("WITHDRAW".equals(kind)) return KIND_WITHDRAW;
+        return KIND_OTHER;
+    }
+
+    // Number of rows.
+    int size() { return size; }
+
+    // Account handle of a row.
+    int accountHandle(int row) { return accountHandles[row]; }
+
+    // Number of distinct account ids (handles are 0 .. accountCount() - 1).
+    int accountCount() { return accountIds.size(); }
+
+    // Account id for a handle.
+    String accountId(int handle) { return accountIds.get(handle); }
+
+    // Kind code of a row. Codes other than KIND_DEPOSIT/KIND_WITHDRAW are unknown kinds.
+    byte kindCode(int row) { return kindCodes[row]; }
+
+    // Kind string for a kind code.
+    String kindName(byte code) { return kinds.get(code); }
+
+    // Amount of a row in cents.
+    long amountCents(int row) { return amountCents[row]; }
+
+    // Amount of a row as the double a Txn would carry (exact for whole-cent amounts).
+    double amount(int row) { return amountCents[row] / 100.0; }
+
+    // Memo id of a row.
+    int memoId(int row) { return memoIds[row]; }
+
+    // Number of distinct memos.
+    int memoCount() { return memos.size(); }
+
+    // Memo text for a memo id.
+    String memo(int memoId) { return memos.get(memoId); }
+
+    /**************************************************
+       Method Name: estimatedBytes
+       Returns: long
+       Input: none
+       Precondition: none
+       Task: Estimate the heap used by this batch (columns trimmed to size, plus the three dictionaries).
+       **************************************************/
+    long estimatedBytes() {
+        long columns = HeapEstimate.array(size, 4) + HeapEstimate.array(size, 1)
+                + HeapEstimate.array(size, 8) + HeapEstimate.array(size, 4);
+        return HeapEstimate.object(4 * HeapEstimate.REF + 4) + columns
+                + accountIds.estimatedBytes() + kinds.estimatedBytes() + memos.estimatedBytes();
+    }
+
+    /**************************************************
+       Method Name: estimatedBytes
+       Returns: long
+       Input: txns
+       Precondition: txns is non-null
+       Task: Estimate the heap used by the same batch as a List<Txn>, counting each distinct String instance once.
+       **************************************************/
+    static long estimatedBytes(List<Txn> txns) {
+        long bytes = HeapEstimate.object(HeapEstimate.REF + 8) + HeapEstimate.array(txns.size(), HeapEstimate.REF);
+        Map<String, Boolean> seen = new IdentityHashMap<>();
+        for (Txn txn : txns) {
+            bytes += HeapEstimate.object(3 * HeapEstimate.REF + 8);
+            bytes += stringBytesOnce(txn.acctId, seen) + stringBytesOnce(txn.kind, seen) + stringBytesOnce(txn.memo, seen);
+        }
+        return bytes;
+    }
+
+    private static long stringBytesOnce(String s, Map<String, Boolean> seen) {
+        return seen.put(s, Boolean.TRUE) == null ? HeapEstimate.string(s) : 0;
+    }
+
+    private static long toCents(double amount) {
+        long cents = Math.round(amount * 100);
+        if (cents / 100.0 != amount) {
+            throw new IllegalArgumentException("amount is not a whole number of cents: " + amount);
+        }
+        return cents;
+    }
+
+    // String <-> dense int id dictionary.
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int intern(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        String get(int id) {
+            return values.get(id);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        long estimatedBytes() {
+            long bytes = HeapEstimate.object(2 * HeapEstimate.REF)
+                    + HeapEstimate.array(values.size(), HeapEstimate.REF)             // ArrayList backing array
+                    + HeapEstimate.array(Integer.highestOneBit(Math.max(1, values.size()) * 2), HeapEstimate.REF)
+                    + (long) values.size() * HeapEstimate.HASH_NODE;                 // HashMap table and nodes
+            for (String value : values) {
+                bytes += HeapEstimate.string(value);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Object layout estimates for a 64-bit JVM with compressed oops and compact (Latin-1) strings:
+     * 12-byte object headers, 16-byte array headers, 4-byte references, 8-byte alignment.
+     */
+    static final class HeapEstimate {
+        static final int REF = 4;
+        static final int HASH_NODE = 32 + 16;   // HashMap.Node plus the boxed Integer value
+
+        private HeapEstimate() {
+        }
+
+        static long object(int fieldBytes) {
+            return align(12 + fieldBytes);
+        }
+
+        static long array(long length, int elementBytes) {
+            return align(16 + length * elementBytes);
+        }
+
+        static long string(String s) {
+            return object(REF + 4 + 1 + 1) + array(s.length(), 1);   // value, hash, coder, hashIsZero
+        }
+
+        private static long align(long bytes) {
+            return (bytes + 7) & ~7L;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.Txn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Reports the heap saved by TxnColumns over List<Txn> on a realistic memo distribution.
+ *
+ * Rows are generated the way a parser would produce them: every Txn gets its own String instances, memos follow a
+ * skewed distribution over a small set of common texts, and a small share of rows carry a unique memo (check
+ * numbers, references). Sizes are layout estimates (see TxnColumns.HeapEstimate), not heap measurements.
+ *
+ * Usage: java -cp target/classes edu.kettering.refactoring.bank.TxnColumnsMemoryReport [rows] [accounts]
+ */
+public class TxnColumnsMemoryReport {
+
+    private static final String[] COMMON_MEMOS = {
+            "ATM withdrawal", "Cash deposit", "Card purchase", "Payroll deposit", "Online transfer",
+            "Billpay", "Mobile check deposit", "Monthly fee", "Interest payment", "Wire transfer"
+    };
+    private static final double UNIQUE_MEMO_SHARE = 0.02;
+
+    /**************************************************
+       Method Name: main
+       Returns: void
+       Input: args (optional row count and account count)
+       Precondition: numeric args if present
+       Task: Generate a batch, encode it as columns and print both heap estimates.
+       **************************************************/
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        List<Txn> txns = realisticBatch(rows, accounts, 42L);
+        long objectBytes = TxnColumns.estimatedBytes(txns);
+        TxnColumns columns = TxnColumns.of(txns);
+        long columnBytes = columns.estimatedBytes();
+
+        System.out.printf(Locale.US, "rows=%d accounts=%d distinctMemos=%d%n", rows, columns.accountCount(), columns.memoCount());
+        System.out.printf(Locale.US, "List<Txn>  : %,d bytes (%.1f bytes/row)%n", objectBytes, (double) objectBytes / rows);
+        System.out.printf(Locale.US, "TxnColumns : %,d bytes (%.1f bytes/row)%n", columnBytes, (double) columnBytes / rows);
+        System.out.printf(Locale.US, "saved      : %,d bytes (%.1f%%)%n",
+                objectBytes - columnBytes, 100.0 * (objectBytes - columnBytes) / objectBytes);
+    }
+
+    /**************************************************
+       Method Name: realisticBatch
+       Returns: List<Txn>
+       Input: rows, accounts, seed
+       Precondition: rows >= 0; accounts > 0
+       Task: Build a reproducible batch with parser-style (non-shared) strings and a skewed memo distribution.
+       **************************************************/
+    static List<Txn> realisticBatch(int rows, int accounts, long seed) {
+        Random random = new Random(seed);
+        List<Txn> txns = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String acctId = (random.nextBoolean() ? "C-" : "S-") + (100_000 + random.nextInt(accounts));
+            boolean deposit = random.nextInt(3) == 0;
+            String memo;
+            if (random.nextDouble() < UNIQUE_MEMO_SHARE) {
+                memo = "Check #" + (1_000_000 + i);
+            } else {
+                // Roughly Zipf: memo k is chosen about half as often as memo k-1
+                int k = Math.min(Integer.numberOfTrailingZeros(random.nextInt() | (1 << (COMMON_MEMOS.length - 1))),
+                        COMMON_MEMOS.length - 1);
+                memo = new String(COMMON_MEMOS[k]);
+            }
+            long cents = 100 + random.nextInt(50_000);
+            txns.add(new Txn(acctId, new String(deposit ? "DEPOSIT" : "WITHDRAW"), cents / 100.0, memo));
+        }
+        return txns;
+    }
+}
@@ -0,0 +1,322 @@
+package edu.kettering.refactoring.bank;
+
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.ApplyOutcome;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BankAccount;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BatchConfig;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.BatchStats;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.CheckingAccount;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.SavingsAccount;
+import edu.kettering.refactoring.bank.SmellyBankHomeworkShorter.Txn;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Type-partitioned APPLY and POST-CHECKS steps (ExecutionMode.TYPE_PARTITIONED).
+ *
+ * The sequential loop sends every account type through the same canWithdraw / post-check / interest call sites,
+ * so with a mixed population those sites stay polymorphic. Here the batch is grouped by account class and each
+ * group runs through a loop written for that class only. Each loop records its results per transaction position,
+ * and the report is stitched back together in input order afterwards, so per-account order, stats accumulation
+ * order and the report text are identical to the sequential mode.
+ *
+ * Listeners are told about every touched account during the stitch pass, but transactionCompleted() is never
+ * called: while the type loops run there is no point at which a prefix of the batch is fully applied.
+ *
+ * Each executor holds its own loops and never changes. DEFAULT has the Checking and Savings loops; withLoop() returns
+ * a copy with a loop for another account type, which a batch uses through BatchConfig.withPartitionedExecutor().
+ * Types without a loop fall back to a generic loop that uses the shared helpers in SmellyBankHomeworkShorter.
+ */
+final class TypePartitionedExecutor {
+
+    private static final TypeLoop GENERIC = new GenericLoop();
+
+    static final TypePartitionedExecutor DEFAULT = new TypePartitionedExecutor(Map.of(
+            CheckingAccount.class, new CheckingLoop(),
+            SavingsAccount.class, new SavingsLoop()));
+
+    private final Map<Class<? extends BankAccount>, TypeLoop> loops;
+
+    private TypePartitionedExecutor(Map<Class<? extends BankAccount>, TypeLoop> loops) {
+        this.loops = loops;
+    }
+
+    /**
+     * A loop specialized for one account class. Every position handed to a loop targets an account of exactly
+     * the class it was registered for, so implementations may cast without checking.
+     */
+    interface TypeLoop {
+
+        // Apply slots.txns at the given positions (in order) and record outcome/balance/interest per position.
+        void apply(ApplySlots slots, int[] positions, int count);
+
+        // Check accounts at the given positions; flag violators and record the report reason per position.
+        void postCheck(List<BankAccount> accounts, int[] positions, int count, String[] violations);
+    }
+
+    // Per-transaction results written by the type loops and read back by the stitch pass.
+    static final class ApplySlots {
+        final List<Txn> txns;
+        final BankAccount[] targets;
+        final ApplyOutcome[] outcomes;
+        final double[] balances;
+        final double[] interest;
+
+        /**************************************************
+           Method Name: ApplySlots
+           Returns: N/A (constructor)
+           Input: txns, targets
+           Precondition: targets[i] is the resolved account for txns.get(i), or null when unknown
+           Task: Allocate one result slot per filtered transaction.
+           **************************************************/
+        ApplySlots(List<Txn> txns, BankAccount[] targets) {
+            this.txns = txns;
+            this.targets = targets;
+            this.outcomes = new ApplyOutcome[targets.length];
+            this.balances = new double[targets.length];
+            this.interest = new double[targets.length];
+        }
+    }
+
+    /**************************************************
+       Method Name: withLoop
+       Returns: TypePartitionedExecutor
+       Input: type, loop
+       Precondition: type/loop are non-null
+       Task: Copy this executor with the specialized loop for an account class (exact class match, not subclasses).
+       **************************************************/
+    <A extends BankAccount> TypePartitionedExecutor withLoop(Class<A> type, TypeLoop loop) {
+        Map<Class<? extends BankAccount>, TypeLoop> copy = new HashMap<>(loops);
+        copy.put(Objects.requireNonNull(type), Objects.requireNonNull(loop));
+        return new TypePartitionedExecutor(Map.copyOf(copy));
+    }
+
+    /**************************************************
+       Method Name: applyTransactions
+       Returns: void
+       Input: out, accountById, txns, stats, config
+       Precondition: all inputs are non-null; txns are already filtered
+       Task: Partitioned APPLY step: run each type loop, then print the report lines in input order.
+       **************************************************/
+    void applyTransactions(
+            StringBuilder out, Map<String, BankAccount> accountById, List<Txn> txns, BatchStats stats, BatchConfig config) {
+        int n = txns.size();
+        BankAccount[] targets = new BankAccount[n];
+        Map<Class<?>, Positions> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            BankAccount account = accountById.get(txns.get(i).acctId);
+            targets[i] = account;
+            if (account != null) {
+                groups.computeIfAbsent(account.getClass(), k -> new Positions()).add(i);
+            }
+        }
+
+        ApplySlots slots = new ApplySlots(txns, targets);
+        for (Map.Entry<Class<?>, Positions> group : groups.entrySet()) {
+            Positions positions = group.getValue();
+            loopFor(group.getKey()).apply(slots, positions.items, positions.size);
+        }
+
+        for (int i = 0; i < n; i++) {
+            Txn txn = txns.get(i);
+            BankAccount account = targets[i];
+            if (account == null) {
+                stats.recordSkipped();
+                SmellyBankHomeworkShorter.appendUnknownAccountDebug(out, config, txn.acctId);
+                continue;
+            }
+
+            SmellyBankHomeworkShorter.appendTransactionHeader(out, account, txn, config);
+            ApplyOutcome outcome = slots.outcomes[i];
+            if (outcome == ApplyOutcome.APPLIED) {
+                stats.recordApplied(txn.amt);
+                stats.recordProjectedAnnualInterest(slots.interest[i]);
+            } else {
+                stats.recordSkipped();
+            }
+            SmellyBankHomeworkShorter.appendOutcomeDetails(out, slots.balances[i], outcome, config);
+            SmellyBankHomeworkShorter.applyFlagsAndNotes(out, account, slots.balances[i], txn.amt, config);
+            out.append("\n");
+            config.listener.accountUpdated(account);
+        }
+    }
+
+    /**************************************************
+       Method Name: runPostChecks
+       Returns: void
+       Input: out, accounts, listener
+       Precondition: out/accounts/listener are non-null
+       Task: Partitioned POST-CHECKS step: check each type group, then print flags in account order.
+       **************************************************/
+    void runPostChecks(StringBuilder out, List<BankAccount> accounts, BatchListener listener) {
+        out.append("-- POST-CHECKS --\n");
+        int n = accounts.size();
+        Map<Class<?>, Positions> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.computeIfAbsent(accounts.get(i).getClass(), k -> new Positions()).add(i);
+        }
+
+        String[] violations = new String[n];
+        for (Map.Entry<Class<?>, Positions> group : groups.entrySet()) {
+            Positions positions = group.getValue();
+            loopFor(group.getKey()).postCheck(accounts, positions.items, positions.size, violations);
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (violations[i] != null) {
+                out.append("Flag ").append(accounts.get(i).id()).append(" ").append(violations[i]).append("\n");
+                listener.accountUpdated(accounts.get(i));
+            }
+        }
+    }
+
+    private TypeLoop loopFor(Class<?> type) {
+        TypeLoop loop = loops.get(type);
+        return loop != null ? loop : GENERIC;
+    }
+
+    // Growable int list of batch positions belonging to one account class.
+    private static final class Positions {
+        int[] items = new int[16];
+        int size;
+
+        void add(int position) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = position;
+        }
+    }
+
+    private static final class CheckingLoop implements TypeLoop {
+
+        @Override
+        public void apply(ApplySlots slots, int[] positions, int count) {
+            for (int i = 0; i < count; i++) {
+                int p = positions[i];
+                Txn txn = slots.txns.get(p);
+                CheckingAccount account = (CheckingAccount) slots.targets[p];
+                ApplyOutcome outcome;
+                if ("DEPOSIT".equals(txn.kind)) {
+                    account.bal += txn.amt;
+                    outcome = ApplyOutcome.APPLIED;
+                } else if ("WITHDRAW".equals(txn.kind)) {
+                    if (account.bal - txn.amt >= -account.overdraft()) {
+                        account.bal -= txn.amt;
+                        outcome = ApplyOutcome.APPLIED;
+                    } else {
+                        outcome = ApplyOutcome.DECLINED;
+                    }
+                } else {
+                    outcome = ApplyOutcome.SKIPPED_UNKNOWN_KIND;
+                }
+                slots.outcomes[p] = outcome;
+                slots.balances[p] = account.bal;
+            }
+        }
+
+        @Override
+        public void postCheck(List<BankAccount> accounts, int[] positions, int count, String[] violations) {
+            for (int i = 0; i < count; i++) {
+                int p = positions[i];
+                CheckingAccount account = (CheckingAccount) accounts.get(p);
+                if (account.bal < -account.overdraft()) {
+                    account.setFlagged(true);
+                    violations[p] = "beyond overdraft";
+                }
+            }
+        }
+    }
+
+    private static final class SavingsLoop implements TypeLoop {
+
+        @Override
+        public void apply(ApplySlots slots, int[] positions, int count) {
+            for (int i = 0; i < count; i++) {
+                int p = positions[i];
+                Txn txn = slots.txns.get(p);
+                SavingsAccount account = (SavingsAccount) slots.targets[p];
+                ApplyOutcome outcome;
+                if ("DEPOSIT".equals(txn.kind)) {
+                    account.bal += txn.amt;
+                    outcome = ApplyOutcome.APPLIED;
+                } else if ("WITHDRAW".equals(txn.kind)) {
+                    if (account.bal - txn.amt >= 0) {
+                        account.bal -= txn.amt;
+                        outcome = ApplyOutcome.APPLIED;
+                    } else {
+                        outcome = ApplyOutcome.DECLINED;
+                    }
+                } else {
+                    outcome = ApplyOutcome.SKIPPED_UNKNOWN_KIND;
+                }
+                slots.outcomes[p] = outcome;
+                slots.balances[p] = account.bal;
+                if (outcome == ApplyOutcome.APPLIED) {
+                    slots.interest[p] = account.bal * account.rate();
+                }
+            }
+        }
+
+        @Override
+        public void postCheck(List<BankAccount> accounts, int[] positions, int count, String[] violations) {
+            for (int i = 0; i < count; i++) {
+                int p = positions[i];
+                SavingsAccount account = (SavingsAccount) accounts.get(p);
+                if (account.bal < 0) {
+                    account.setFlagged(true);
+                    violations[p] = "negative savings";
+                }
+            }
+        }
+    }
+
+    // Fallback for account classes without a registered loop: same rules through the shared (polymorphic) helpers.
+    private static final class GenericLoop implements TypeLoop {
+
+        @Override
+        public void apply(ApplySlots slots, int[] positions, int count) {
+            for (int i = 0; i < count; i++) {
+                int p = positions[i];
+                Txn txn = slots.txns.get(p);
+                BankAccount account = slots.targets[p];
+                ApplyOutcome outcome;
+                if ("DEPOSIT".equals(txn.kind)) {
+                    account.bal += txn.amt;
+                    outcome = ApplyOutcome.APPLIED;
+                } else if ("WITHDRAW".equals(txn.kind)) {
+                    if (SmellyBankHomeworkShorter.canWithdraw(account, txn.amt)) {
+                        account.bal -= txn.amt;
+                        outcome = ApplyOutcome.APPLIED;
+                    } else {
+                        outcome = ApplyOutcome.DECLINED;
+                    }
+                } else {
+                    outcome = ApplyOutcome.SKIPPED_UNKNOWN_KIND;
+                }
+                slots.outcomes[p] = outcome;
+                slots.balances[p] = account.bal;
+                if (outcome == ApplyOutcome.APPLIED && account instanceof SavingsAccount s) {
+                    slots.interest[p] = s.bal * s.rate();
+                }
+            }
+        }
+
+        @Override
+        public void postCheck(List<BankAccount> accounts, int[] positions, int count, String[] violations) {
+            for (int i = 0; i < count; i++) {
+                int p = positions[i];
+                BankAccount account = accounts.get(p);
+                String violation = SmellyBankHomeworkShorter.postCheckViolation(account);
+                if (violation != null) {
+                    account.setFlagged(true);
+                    violations[p] = violation;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package edu.kettering.refactoring.bank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BalanceMerkleTreeTest {
+
+    // ---------- Helpers ----------
+    private List<SmellyBankHomeworkShorter.BankAccount> book(int n) {
+        List<SmellyBankHomeworkShorter.BankAccount> accounts = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (i % 2 == 0) accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-" + i, "Owner " + i, 100 + i, 50));
+            else accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-" + i, "Owner " + i, 1000 + i, 0.02));
+        }
+        return accounts;
+    }
+
+    private BalanceMerkleTree treeOf(List<SmellyBankHomeworkShorter.BankAccount> accounts) {
+        return new BalanceMerkleTree(AccountSource.of(accounts));
+    }
+
+    // ---------- Batch tracking tests ----------
+
+    @Test
+    void batchUpdates_shouldMatchTreeBuiltFromScratch() {
+        var accounts = book(4);
+        var tree = treeOf(accounts);
+        var config = new SmellyBankHomeworkShorter.BatchConfig(false, 1000.0, 5000.0, true, "USD", 2, false)
+                .withListener(tree);
+        var txns = List.of(
+                new SmellyBankHomeworkShorter.Txn("C-0", "WITHDRAW", 175, "Rent"),
+                new SmellyBankHomeworkShorter.Txn("S-1", "DEPOSIT", 10, "Cash deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-2", "WITHDRAW", 500, "Declined"));
+
+        long before = tree.root();
+        SmellyBankHomeworkShorter.processDailyBatch(accounts, txns, config);
+
+        assertNotEquals(before, tree.root());
+        assertEquals(treeOf(accounts).root(), tree.root());
+    }
+
+    // ---------- Diff tests ----------
+
+    @Test
+    void diff_shouldBeEmptyForEqualBooks() {
+        var diff = treeOf(book(1000)).diff(treeOf(book(1000)));
+
+        assertTrue(diff.isEmpty());
+        assertEquals(1, diff.comparisons());
+    }
+
+    @Test
+    void diff_shouldLocateSingleAccountInLogarithmicComparisons() {
+        var ours = book(1000);
+        var theirs = book(1000);
+        var ourTree = treeOf(ours);
+        var theirTree = treeOf(theirs);
+
+        theirs.get(617).bal += 0.01;
+        theirTree.accountUpdated(theirs.get(617));
+
+        var diff = ourTree.diff(theirTree);
+        assertEquals(List.of("S-617"), diff.accountIds());
+        assertTrue(diff.comparisons() <= 2 * 10 + 1, "comparisons=" + diff.comparisons());
+    }
+
+    @Test
+    void diff_shouldReportFlagOnlyChangesInAccountOrder() {
+        var ours = book(10);
+        var theirs = book(10);
+        var theirTree = treeOf(theirs);
+
+        theirs.get(7).setFlagged(true);
+        theirTree.accountUpdated(theirs.get(7));
+        theirs.get(2).bal = -5;
+        theirTree.accountUpdated(theirs.get(2));
+
+        assertEquals(List.of("C-2", "S-7"), treeOf(ours).diff(theirTree).accountIds());
+    }
+
+    @Test
+    void diff_shouldRejectDifferentAccountLayouts() {
+        assertThrows(IllegalArgumentException.class, () -> treeOf(book(4)).diff(treeOf(book(5))));
+
+        var reordered = book(4);
+        reordered.add(0, reordered.remove(3));
+        assertThrows(IllegalArgumentException.class, () -> treeOf(book(4)).diff(treeOf(reordered)));
+    }
+}
@@ -0,0 +1,129 @@
+package edu.kettering.refactoring.bank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class BalanceSnapshotsTest {
+
+    private static final SmellyBankHomeworkShorter.BatchConfig CONFIG =
+            new SmellyBankHomeworkShorter.BatchConfig(false, 1000.0, 5000.0, false, "USD", 2, true);
+
+    // ---------- Helpers ----------
+    private List<SmellyBankHomeworkShorter.BankAccount> twoAccounts() {
+        return twoAccounts(500);
+    }
+
+    private List<SmellyBankHomeworkShorter.BankAccount> twoAccounts(double eachBalance) {
+        List<SmellyBankHomeworkShorter.BankAccount> accounts = new ArrayList<>();
+        accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-100", "A. Chen", eachBalance, 100));
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-200", "B. Patel", eachBalance, 0.02));
+        return accounts;
+    }
+
+    // Pairs of (withdraw from C-100, deposit to S-200): the total only matches the start after each complete pair.
+    private List<SmellyBankHomeworkShorter.Txn> transfers(int pairs) {
+        List<SmellyBankHomeworkShorter.Txn> txns = new ArrayList<>();
+        for (int i = 0; i < pairs; i++) {
+            txns.add(new SmellyBankHomeworkShorter.Txn("C-100", "WITHDRAW", 1, "transfer out"));
+            txns.add(new SmellyBankHomeworkShorter.Txn("S-200", "DEPOSIT", 1, "transfer in"));
+        }
+        return txns;
+    }
+
+    // ---------- Version visibility tests ----------
+
+    @Test
+    void readCommitted_duringBatch_shouldSeePreBatchState() {
+        var accounts = twoAccounts();
+        var store = new BalanceSnapshots(accounts, 2);
+        AtomicReference<Double> seenCommitted = new AtomicReference<>();
+        AtomicReference<Double> seenLatest = new AtomicReference<>();
+        BatchListener probe = new BatchListener() {
+            int completed;
+
+            @Override
+            public void transactionCompleted() {
+                if (++completed == 4) {
+                    try (var committed = store.readCommitted(); var latest = store.readLatest()) {
+                        seenCommitted.set(committed.balance("C-100"));
+                        seenLatest.set(latest.balance("C-100"));
+                    }
+                }
+            }
+        };
+
+        SmellyBankHomeworkShorter.processDailyBatch(accounts, transfers(3), CONFIG.withListener(BatchListener.of(store, probe)));
+
+        assertEquals(500.0, seenCommitted.get(), 1e-9);
+        assertEquals(498.0, seenLatest.get(), 1e-9);
+        try (var committed = store.readCommitted()) {
+            assertTrue(committed.committed());
+            assertEquals(497.0, committed.balance("C-100"), 1e-9);
+            assertEquals(503.0, committed.balance("S-200"), 1e-9);
+        }
+    }
+
+    @Test
+    void committedVersion_shouldIncludePostCheckFlags() {
+        List<SmellyBankHomeworkShorter.BankAccount> accounts = new ArrayList<>();
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-900", "Z. Neg", -5, 0.01));
+        var store = new BalanceSnapshots(accounts, 0);
+
+        SmellyBankHomeworkShorter.processDailyBatch(accounts, List.of(), CONFIG.withListener(store));
+
+        try (var committed = store.readCommitted()) {
+            assertTrue(committed.account("S-900").flagged());
+        }
+    }
+
+    // ---------- Replaced version tests ----------
+
+    @Test
+    void replacedVersion_shouldStayReadableUntilReaderCloses() {
+        var accounts = twoAccounts();
+        var store = new BalanceSnapshots(accounts, 1);
+        var held = store.readCommitted();
+
+        SmellyBankHomeworkShorter.processDailyBatch(accounts, transfers(2), CONFIG.withListener(store));
+
+        assertEquals(500.0, held.balance("C-100"), 1e-9);
+        try (var committed = store.readCommitted()) {
+            assertTrue(committed.version() > held.version());
+            assertEquals(498.0, committed.balance("C-100"), 1e-9);
+        }
+        held.close();
+        assertThrows(IllegalStateException.class, () -> held.balance("C-100"));
+    }
+
+    // ---------- Concurrency tests ----------
+
+    @Test
+    void concurrentReaders_shouldOnlySeeCompleteTransferPairs() throws Exception {
+        var accounts = twoAccounts(10_000);
+        var store = new BalanceSnapshots(accounts, 2);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                try (var s = store.readLatest()) {
+                    double sum = s.balance("C-100") + s.balance("S-200");
+                    if (sum != 20_000.0) failure.compareAndSet(null, "v" + s.version() + " sum=" + sum);
+                }
+            }
+        });
+        reader.start();
+        SmellyBankHomeworkShorter.processDailyBatch(accounts, transfers(5_000), CONFIG.withListener(store));
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,109 @@
+package edu.kettering.refactoring.bank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class HotAccountCombinerTest {
+
+    // ---------- Helpers ----------
+    private static void runThreads(int threads, Runnable body) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(body);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    // ---------- Ordering tests ----------
+
+    @Test
+    void singleThread_shouldCheckRulesInArrivalOrder() {
+        var savings = new SmellyBankHomeworkShorter.SavingsAccount("S-1", "Merchant", 100, 0.01);
+        var combiner = new HotAccountCombiner(savings);
+
+        assertEquals(SmellyBankHomeworkShorter.ApplyOutcome.DECLINED, combiner.withdraw(150));
+        assertEquals(SmellyBankHomeworkShorter.ApplyOutcome.APPLIED, combiner.deposit(100));
+        assertEquals(SmellyBankHomeworkShorter.ApplyOutcome.APPLIED, combiner.withdraw(150));
+        assertEquals(50.0, savings.balance(), 1e-9);
+    }
+
+    @Test
+    void checkingAccount_shouldAllowOverdraftOnly() {
+        var checking = new SmellyBankHomeworkShorter.CheckingAccount("C-1", "Payroll", 0, 100);
+        var combiner = new HotAccountCombiner(checking);
+
+        assertEquals(SmellyBankHomeworkShorter.ApplyOutcome.APPLIED, combiner.withdraw(100));
+        assertEquals(SmellyBankHomeworkShorter.ApplyOutcome.DECLINED, combiner.withdraw(0.01));
+        assertEquals(-100.0, checking.balance(), 1e-9);
+    }
+
+    // ---------- Concurrency tests ----------
+
+    @Test
+    void concurrentDeposits_shouldAllBeApplied() throws InterruptedException {
+        var checking = new SmellyBankHomeworkShorter.CheckingAccount("C-1", "Payroll", 0, 0);
+        var combiner = new HotAccountCombiner(checking);
+
+        runThreads(8, () -> {
+            for (int i = 0; i < 10_000; i++) combiner.deposit(1);
+        });
+
+        assertEquals(80_000.0, checking.balance(), 0.0);
+        assertTrue(combiner.rounds() <= 80_000);
+    }
+
+    @Test
+    void concurrentWithdrawals_shouldNeverBreakSavingsRule() throws InterruptedException {
+        var savings = new SmellyBankHomeworkShorter.SavingsAccount("S-1", "Settlement", 1000, 0.01);
+        var combiner = new HotAccountCombiner(savings, 32, BatchListener.NONE);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+
+        runThreads(16, () -> {
+            for (int i = 0; i < 100; i++) {
+                if (combiner.withdraw(1) == SmellyBankHomeworkShorter.ApplyOutcome.APPLIED) applied.incrementAndGet();
+                else declined.incrementAndGet();
+            }
+        });
+
+        assertEquals(1000, applied.get());
+        assertEquals(600, declined.get());
+        assertEquals(0.0, savings.balance(), 0.0);
+    }
+
+    // ---------- Listener tests ----------
+
+    @Test
+    void listener_shouldOnlyBeCalledFromDeliverUpdates() throws InterruptedException {
+        var checking = new SmellyBankHomeworkShorter.CheckingAccount("C-1", "Payroll", 0, 0);
+        List<Thread> callers = new ArrayList<>();
+        BatchListener listener = new BatchListener() {
+            @Override
+            public void accountUpdated(SmellyBankHomeworkShorter.BankAccount account) {
+                callers.add(Thread.currentThread());
+            }
+        };
+        var combiner = new HotAccountCombiner(checking, 16, listener);
+
+        assertFalse(combiner.deliverUpdates());
+        runThreads(8, () -> {
+            for (int i = 0; i < 1_000; i++) combiner.deposit(1);
+        });
+        assertTrue(callers.isEmpty());
+
+        assertTrue(combiner.deliverUpdates());
+        assertFalse(combiner.deliverUpdates());
+        assertEquals(List.of(Thread.currentThread()), callers);
+        assertEquals(8_000.0, checking.balance(), 0.0);
+    }
+}
@@ -0,0 +1,163 @@
+package edu.kettering.refactoring.bank;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class TieredAccountStoreTest {
+
+    @TempDir
+    Path dir;
+
+    // ---------- Helpers ----------
+    private List<SmellyBankHomeworkShorter.BankAccount> baseAccounts() {
+        List<SmellyBankHomeworkShorter.BankAccount> accounts = new ArrayList<>();
+        accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-100", "A. Chen", 250, 100));
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-200", "B. Patel", 1200, 0.02));
+        accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-300", "C. Rivera", 40, 50));
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-400", "D. Smith", 9000, 0.03));
+        return accounts;
+    }
+
+    private List<SmellyBankHomeworkShorter.Txn> mixedTxns() {
+        return List.of(
+                new SmellyBankHomeworkShorter.Txn("C-100", "WITHDRAW", 75, "ATM withdrawal"),
+                new SmellyBankHomeworkShorter.Txn("C-300", "WITHDRAW", 120, "Billpay overdraft test"),
+                new SmellyBankHomeworkShorter.Txn("S-200", "WITHDRAW", 1300, "Savings overdraft test"),
+                new SmellyBankHomeworkShorter.Txn("X-999", "DEPOSIT", 5, "Cash deposit"),
+                new SmellyBankHomeworkShorter.Txn("S-400", "DEPOSIT", 1500, "Bonus deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "DEPOSIT", 0, "Cash deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "TRANSFER", 10, "Unknown kind"),
+                new SmellyBankHomeworkShorter.Txn("S-200", "DEPOSIT", 200.25, "Cash deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "DEPOSIT", 25, "Cash deposit")
+        );
+    }
+
+    private TieredAccountStore storeOf(List<SmellyBankHomeworkShorter.BankAccount> accounts, int hotCapacity) {
+        var store = new TieredAccountStore(dir.resolve("accounts-" + hotCapacity + ".dat"), 1, hotCapacity);
+        for (var account : accounts) store.add(account);
+        return store;
+    }
+
+    // ---------- Report equivalence tests ----------
+
+    @Test
+    void tieredBatch_shouldProduceSameReportAsAccountList() throws Exception {
+        for (int hotCapacity = 1; hotCapacity <= 4; hotCapacity++) {
+            var config = new SmellyBankHomeworkShorter.BatchConfig(true, 1000.0, 5000.0, true, "USD", 2, true);
+
+            String fromList = SmellyBankHomeworkShorter.processDailyBatch(baseAccounts(), mixedTxns(), config);
+            try (var store = storeOf(baseAccounts(), hotCapacity)) {
+                String fromStore = SmellyBankHomeworkShorter.processDailyBatch(store, mixedTxns(), config);
+
+                assertEquals(fromList, fromStore, "hotCapacity=" + hotCapacity);
+            }
+        }
+    }
+
+    // ---------- Tiering tests ----------
+
+    @Test
+    void hotSet_shouldStayWithinCapacityAndPersistEvictedAccounts() throws Exception {
+        try (var store = storeOf(baseAccounts(), 2)) {
+            var config = new SmellyBankHomeworkShorter.BatchConfig(false, 1000.0, 5000.0, true, "USD", 2, false);
+
+            SmellyBankHomeworkShorter.processDailyBatch(store, mixedTxns(), config);
+
+            assertTrue(store.hotCount() <= 2);
+            assertEquals(4, store.size());
+
+            List<SmellyBankHomeworkShorter.BankAccount> seen = new ArrayList<>();
+            store.forEach(seen::add);
+            assertTrue(store.hotCount() <= 2);
+            assertEquals(List.of("C-100", "S-200", "C-300", "S-400"), seen.stream().map(a -> a.id()).toList());
+            var expected = baseAccounts();
+            SmellyBankHomeworkShorter.processDailyBatch(expected, mixedTxns(), config);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).balance(), seen.get(i).balance(), 0.0);
+                assertEquals(expected.get(i).flagged(), seen.get(i).flagged());
+            }
+        }
+    }
+
+    @Test
+    void get_shouldFaultColdAccountsInOnce() throws Exception {
+        try (var store = storeOf(baseAccounts(), 2)) {
+            var first = store.get("S-200");
+
+            assertSame(first, store.get("S-200"));
+            assertEquals(1, store.faults());
+            assertNull(store.get("X-999"));
+
+            store.get("C-100");
+            store.get("C-300");   // evicts S-200
+            first.bal += 1;       // stale copy: must not reach disk
+            var again = store.get("S-200");
+
+            assertNotSame(first, again);
+            assertEquals(1200.0, again.balance(), 1e-9);
+            assertEquals(4, store.faults());
+        }
+    }
+
+    @Test
+    void add_shouldRejectOversizedAndDuplicateAccounts() throws Exception {
+        try (var store = storeOf(List.of(), 1)) {
+            var oversized = new SmellyBankHomeworkShorter.CheckingAccount("C-1", "x".repeat(TieredAccountStore.MAX_OWNER_BYTES + 1), 0, 0);
+
+            assertThrows(IllegalArgumentException.class, () -> store.add(oversized));
+            store.add(new SmellyBankHomeworkShorter.CheckingAccount("C-1", "Owner", 0, 0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> store.add(new SmellyBankHomeworkShorter.CheckingAccount("C-1", "Owner", 0, 0)));
+        }
+    }
+
+    @Test
+    void add_shouldFitOwnerOfExactlyMaxBytes() throws Exception {
+        String longest = "\u00e9".repeat(TieredAccountStore.MAX_OWNER_BYTES / 2);   // two UTF-8 bytes each
+        try (var store = storeOf(List.of(), 1)) {
+            store.add(new SmellyBankHomeworkShorter.CheckingAccount("C-1", "x".repeat(TieredAccountStore.MAX_OWNER_BYTES), 1, 0));
+            store.add(new SmellyBankHomeworkShorter.SavingsAccount("S-2", longest, 2, 0.01));
+            store.add(new SmellyBankHomeworkShorter.CheckingAccount("C-3", "Next", 3, 0));
+
+            assertEquals("x".repeat(TieredAccountStore.MAX_OWNER_BYTES), store.get("C-1").owner());
+            assertEquals(longest, store.get("S-2").owner());
+            assertEquals("C-3", store.get("C-3").id());
+            assertEquals(3.0, store.get("C-3").balance(), 0.0);
+        }
+    }
+
+    // ---------- Persistence tests ----------
+
+    @Test
+    void reopen_shouldKeepAccountsAcrossSegments() throws Exception {
+        Path file = dir.resolve("reopen.dat");
+        try (var store = new TieredAccountStore(file, 1, 2, 4)) {
+            for (int i = 0; i < 10; i++) {
+                store.add(new SmellyBankHomeworkShorter.CheckingAccount("C-" + i, "Owner " + i, i, 0));
+            }
+            store.get("C-7").bal += 100;   // hot: reaches disk on close
+            store.get("C-2").setFlagged(true);
+        }
+
+        try (var store = new TieredAccountStore(file, 1, 2, 4)) {
+            assertEquals(10, store.size());
+            assertEquals(107.0, store.get("C-7").balance(), 0.0);
+            assertTrue(store.get("C-2").flagged());
+            assertThrows(IllegalArgumentException.class,
+                    () -> store.add(new SmellyBankHomeworkShorter.CheckingAccount("C-3", "Owner", 0, 0)));
+
+            store.add(new SmellyBankHomeworkShorter.SavingsAccount("S-10", "Owner 10", 10, 0.01));
+            List<String> ids = new ArrayList<>();
+            store.forEach(a -> ids.add(a.id()));
+            assertEquals(11, ids.size());
+            assertEquals("S-10", ids.get(10));
+        }
+    }
+}
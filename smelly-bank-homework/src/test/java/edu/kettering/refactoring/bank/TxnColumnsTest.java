@@ -0,0 +1,86 @@
+package edu.kettering.refactoring.bank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class TxnColumnsTest {
+
+    // ---------- Helpers ----------
+    private List<SmellyBankHomeworkShorter.BankAccount> baseAccounts() {
+        List<SmellyBankHomeworkShorter.BankAccount> accounts = new ArrayList<>();
+        accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-100", "A. Chen", 250, 100));
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-200", "B. Patel", 1200, 0.02));
+        accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-300", "C. Rivera", 40, 50));
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-400", "D. Smith", 9000, 0.03));
+        return accounts;
+    }
+
+    private List<SmellyBankHomeworkShorter.Txn> mixedTxns() {
+        return List.of(
+                new SmellyBankHomeworkShorter.Txn("C-100", "WITHDRAW", 75, "ATM withdrawal"),
+                new SmellyBankHomeworkShorter.Txn("C-300", "WITHDRAW", 120, "Billpay overdraft test"),
+                new SmellyBankHomeworkShorter.Txn("S-200", "WITHDRAW", 1300, "Savings overdraft test"),
+                new SmellyBankHomeworkShorter.Txn("X-999", "DEPOSIT", 5, "Cash deposit"),
+                new SmellyBankHomeworkShorter.Txn("S-400", "DEPOSIT", 1500, "Bonus deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "DEPOSIT", 0, "Cash deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "TRANSFER", 10, "Unknown kind"),
+                new SmellyBankHomeworkShorter.Txn("S-200", "DEPOSIT", 200.25, "Cash deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "DEPOSIT", 25, "Cash deposit")
+        );
+    }
+
+    // ---------- Report equivalence tests ----------
+
+    @Test
+    void columnarBatch_shouldProduceSameReportAsTxnList() {
+        for (boolean includeZero : new boolean[]{false, true}) {
+            var config = new SmellyBankHomeworkShorter.BatchConfig(includeZero, 1000.0, 5000.0, true, "USD", 2, true);
+
+            String fromObjects = SmellyBankHomeworkShorter.processDailyBatch(baseAccounts(), mixedTxns(), config);
+            String fromColumns = SmellyBankHomeworkShorter.processDailyBatch(baseAccounts(), TxnColumns.of(mixedTxns()), config);
+
+            assertEquals(fromObjects, fromColumns);
+        }
+    }
+
+    // ---------- Encoding tests ----------
+
+    @Test
+    void encoding_shouldDictionaryEncodeRepeatedValues() {
+        TxnColumns columns = TxnColumns.of(mixedTxns());
+
+        assertEquals(9, columns.size());
+        assertEquals(5, columns.accountCount());
+        assertEquals(6, columns.memoCount());
+        assertEquals(columns.memoId(3), columns.memoId(8));
+        assertEquals(TxnColumns.KIND_WITHDRAW, columns.kindCode(0));
+        assertEquals(TxnColumns.KIND_DEPOSIT, columns.kindCode(3));
+        assertEquals("TRANSFER", columns.kindName(columns.kindCode(6)));
+        assertEquals(20025, columns.amountCents(7));
+        assertEquals(200.25, columns.amount(7), 0.0);
+    }
+
+    @Test
+    void encoding_shouldRejectFractionalCents() {
+        var txns = List.of(new SmellyBankHomeworkShorter.Txn("C-100", "DEPOSIT", 0.125, "odd"));
+
+        assertThrows(IllegalArgumentException.class, () -> TxnColumns.of(txns));
+    }
+
+    // ---------- Memory tests ----------
+
+    @Test
+    void realisticBatch_shouldUseMuchLessMemoryAsColumns() {
+        var txns = TxnColumnsMemoryReport.realisticBatch(50_000, 5_000, 7L);
+
+        long objectBytes = TxnColumns.estimatedBytes(txns);
+        long columnBytes = TxnColumns.of(txns).estimatedBytes();
+
+        assertTrue(columnBytes * 3 < objectBytes, "objects=" + objectBytes + " columns=" + columnBytes);
+    }
+}
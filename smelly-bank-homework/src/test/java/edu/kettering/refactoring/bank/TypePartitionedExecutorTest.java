@@ -0,0 +1,148 @@
+package edu.kettering.refactoring.bank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class TypePartitionedExecutorTest {
+
+    private static final SmellyBankHomeworkShorter.BatchConfig SEQUENTIAL =
+            new SmellyBankHomeworkShorter.BatchConfig(false, 1000.0, 5000.0, true, "USD", 2, true);
+    private static final SmellyBankHomeworkShorter.BatchConfig PARTITIONED =
+            SEQUENTIAL.withExecutionMode(SmellyBankHomeworkShorter.ExecutionMode.TYPE_PARTITIONED);
+
+    // ---------- Helpers ----------
+    private List<SmellyBankHomeworkShorter.BankAccount> mixedAccounts() {
+        List<SmellyBankHomeworkShorter.BankAccount> accounts = new ArrayList<>();
+        accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-100", "A. Chen", 250, 100));
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-200", "B. Patel", 1200, 0.02));
+        accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-300", "C. Rivera", 40, 50));
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-400", "D. Smith", 9000, 0.03));
+        accounts.add(new SmellyBankHomeworkShorter.SavingsAccount("S-500", "E. Jones", -5, 0.01));
+        accounts.add(new SmellyBankHomeworkShorter.CheckingAccount("C-600", "F. Wu", -80, 50));
+        return accounts;
+    }
+
+    private List<SmellyBankHomeworkShorter.Txn> mixedTxns() {
+        return List.of(
+                new SmellyBankHomeworkShorter.Txn("C-100", "WITHDRAW", 75, "ATM withdrawal"),
+                new SmellyBankHomeworkShorter.Txn("S-200", "DEPOSIT", 10.5, "Cash deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-300", "WITHDRAW", 120, "Billpay overdraft test"),
+                new SmellyBankHomeworkShorter.Txn("S-200", "WITHDRAW", 1300, "Savings overdraft test"),
+                new SmellyBankHomeworkShorter.Txn("X-999", "DEPOSIT", 5, "Unknown account"),
+                new SmellyBankHomeworkShorter.Txn("S-400", "DEPOSIT", 1500, "Bonus deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "DEPOSIT", 0, "Zero deposit"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "TRANSFER", 10, "Unknown kind"),
+                new SmellyBankHomeworkShorter.Txn("S-200", "WITHDRAW", 200.25, "Transfer out"),
+                new SmellyBankHomeworkShorter.Txn("C-100", "DEPOSIT", 25, "Cash deposit")
+        );
+    }
+
+    // Checking subtype with no registered loop; exercises the generic fallback.
+    static class BusinessChecking extends SmellyBankHomeworkShorter.CheckingAccount {
+        BusinessChecking(String id, String owner, double bal, double overdraft) {
+            super(id, owner, bal, overdraft);
+        }
+    }
+
+    // Separate subtype with its own loop in the registration test.
+    static class MerchantChecking extends SmellyBankHomeworkShorter.CheckingAccount {
+        MerchantChecking(String id, String owner, double bal, double overdraft) {
+            super(id, owner, bal, overdraft);
+        }
+    }
+
+    // ---------- Equivalence tests ----------
+
+    @Test
+    void partitionedReport_shouldMatchSequentialReport() {
+        String sequential = SmellyBankHomeworkShorter.processDailyBatch(mixedAccounts(), mixedTxns(), SEQUENTIAL);
+        String partitioned = SmellyBankHomeworkShorter.processDailyBatch(mixedAccounts(), mixedTxns(), PARTITIONED);
+
+        assertEquals(sequential, partitioned);
+    }
+
+    @Test
+    void partitionedRun_shouldLeaveSameBalancesAndFlags() {
+        var sequentialAccounts = mixedAccounts();
+        var partitionedAccounts = mixedAccounts();
+
+        SmellyBankHomeworkShorter.processDailyBatch(sequentialAccounts, mixedTxns(), SEQUENTIAL);
+        SmellyBankHomeworkShorter.processDailyBatch(partitionedAccounts, mixedTxns(), PARTITIONED);
+
+        for (int i = 0; i < sequentialAccounts.size(); i++) {
+            assertEquals(sequentialAccounts.get(i).balance(), partitionedAccounts.get(i).balance(), 0.0);
+            assertEquals(sequentialAccounts.get(i).flagged(), partitionedAccounts.get(i).flagged());
+        }
+    }
+
+    @Test
+    void unregisteredSubtype_shouldUseGenericLoopAndMatchSequential() {
+        List<SmellyBankHomeworkShorter.BankAccount> seqAccounts = mixedAccounts();
+        seqAccounts.add(new BusinessChecking("B-700", "G. Kim", 100, 500));
+        List<SmellyBankHomeworkShorter.BankAccount> partAccounts = mixedAccounts();
+        partAccounts.add(new BusinessChecking("B-700", "G. Kim", 100, 500));
+        List<SmellyBankHomeworkShorter.Txn> txns = List.of(
+                new SmellyBankHomeworkShorter.Txn("B-700", "WITHDRAW", 550, "Payroll"),
+                new SmellyBankHomeworkShorter.Txn("B-700", "WITHDRAW", 100, "Declined payroll")
+        );
+
+        assertEquals(
+                SmellyBankHomeworkShorter.processDailyBatch(seqAccounts, txns, SEQUENTIAL),
+                SmellyBankHomeworkShorter.processDailyBatch(partAccounts, txns, PARTITIONED));
+        assertEquals(-450.0, partAccounts.get(6).balance(), 1e-9);
+    }
+
+    // ---------- Registration tests ----------
+
+    @Test
+    void registeredLoop_shouldReceiveOnlyItsOwnType() {
+        List<Integer> seen = new ArrayList<>();
+        TypePartitionedExecutor executor = TypePartitionedExecutor.DEFAULT.withLoop(MerchantChecking.class,
+                new TypePartitionedExecutor.TypeLoop() {
+                    @Override
+                    public void apply(TypePartitionedExecutor.ApplySlots slots, int[] positions, int count) {
+                        for (int i = 0; i < count; i++) {
+                            int p = positions[i];
+                            seen.add(p);
+                            MerchantChecking account = (MerchantChecking) slots.targets[p];
+                            account.bal += slots.txns.get(p).amt;
+                            slots.outcomes[p] = SmellyBankHomeworkShorter.ApplyOutcome.APPLIED;
+                            slots.balances[p] = account.bal;
+                        }
+                    }
+
+                    @Override
+                    public void postCheck(List<SmellyBankHomeworkShorter.BankAccount> accounts, int[] positions,
+                                          int count, String[] violations) {
+                    }
+                });
+
+        List<SmellyBankHomeworkShorter.BankAccount> accounts = mixedAccounts();
+        accounts.add(new MerchantChecking("B-800", "H. Lee", 10, 0));
+        List<SmellyBankHomeworkShorter.Txn> txns = List.of(
+                new SmellyBankHomeworkShorter.Txn("C-100", "DEPOSIT", 1, "a"),
+                new SmellyBankHomeworkShorter.Txn("B-800", "DEPOSIT", 5, "b"),
+                new SmellyBankHomeworkShorter.Txn("S-200", "DEPOSIT", 1, "c"),
+                new SmellyBankHomeworkShorter.Txn("B-800", "DEPOSIT", 7, "d")
+        );
+
+        String report = SmellyBankHomeworkShorter.processDailyBatch(
+                accounts, txns, PARTITIONED.withPartitionedExecutor(executor));
+
+        assertEquals(List.of(1, 3), seen);
+        assertEquals(22.0, accounts.get(6).balance(), 1e-9);
+        assertTrue(report.contains("DEPOSIT acct=B-800 owner=H. Lee amt=7.00 USD memo=d\n  newBal=22.00\n"));
+
+        // The loop belongs to that executor only; the default one still uses the generic loop for the subtype.
+        List<SmellyBankHomeworkShorter.BankAccount> others = mixedAccounts();
+        others.add(new MerchantChecking("B-800", "H. Lee", 10, 0));
+        SmellyBankHomeworkShorter.processDailyBatch(others, txns, PARTITIONED);
+        assertEquals(List.of(1, 3), seen);
+        assertEquals(22.0, others.get(6).balance(), 1e-9);
+    }
+}